@@ -0,0 +1,51 @@
+package com.sarkesa.palindrome.benchmark;
+
+import com.sarkesa.palindrome.cache.CacheConfig;
+import com.sarkesa.palindrome.cache.OffHeapResultIndex;
+import com.sarkesa.palindrome.cache.SharedResultCache;
+import com.sarkesa.palindrome.concurrent.ExecutorConfig;
+import com.sarkesa.palindrome.engine.LongestPalindromeFinder;
+import com.sarkesa.palindrome.engine.TwoPointerPalindromeEngine;
+import com.sarkesa.palindrome.service.PalindromeCheckerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.io.support.ResourcePropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    /**
+     * Builds just enough of the application to exercise the service through its cache proxy, using the application
+     * properties on the classpath but discarding persisted results. The result index and the shared cache are left out,
+     * so a miss in the results cache is always evaluated.
+     */
+    static AnnotationConfigApplicationContext serviceContext() {
+        return serviceContext(Map.of());
+    }
+
+    /**
+     * Builds the same context as {@link #serviceContext()}, with the given properties in place of the application's.
+     */
+    static AnnotationConfigApplicationContext serviceContext(final Map<String, Object> properties) {
+        final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        try {
+            context.getEnvironment().getPropertySources().addFirst(new ResourcePropertySource("classpath:application.properties"));
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        context.register(CacheConfig.class, ExecutorConfig.class, TwoPointerPalindromeEngine.class, LongestPalindromeFinder.class,
+            DiscardingPalindromeRepository.class, SimpleMeterRegistry.class, PalindromeCheckerService.class);
+        context.registerBean(OffHeapResultIndex.class, OffHeapResultIndex::disabled);
+        context.registerBean(SharedResultCache.class, SharedResultCache::disabled);
+        context.refresh();
+        return context;
+    }
+}
@@ -0,0 +1,39 @@
+package com.sarkesa.palindrome.benchmark;
+
+import java.util.SplittableRandom;
+
+final class BenchmarkInputs {
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final long SEED = 42L;
+
+    private BenchmarkInputs() {
+    }
+
+    /**
+     * Generates distinct inputs that pass request validation. Every second input is a palindrome so both result paths are exercised.
+     */
+    static String[] words(final int count, final int length) {
+        final SplittableRandom random = new SplittableRandom(SEED);
+        final String[] words = new String[count];
+        for (int i = 0; i < count; i++) {
+            words[i] = i % 2 == 0 ? palindrome(random, length) : text(random, length);
+        }
+        return words;
+    }
+
+    static String text(final SplittableRandom random, final int length) {
+        final char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        return new String(chars);
+    }
+
+    static String palindrome(final SplittableRandom random, final int length) {
+        final char[] chars = text(random, length).toCharArray();
+        for (int i = 0; i < length / 2; i++) {
+            chars[length - 1 - i] = chars[i];
+        }
+        return new String(chars);
+    }
+}
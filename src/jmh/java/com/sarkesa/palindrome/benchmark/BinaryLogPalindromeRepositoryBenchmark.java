@@ -0,0 +1,67 @@
+package com.sarkesa.palindrome.benchmark;
+
+import com.sarkesa.palindrome.model.PalindromeCheck;
+import com.sarkesa.palindrome.persistence.BinaryLogPalindromeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading a binary results log holding the given number of rows, for comparison with
+ * {@link CsvPalindromeRepositoryBenchmark}. The log is produced by converting a CSV file, so conversion is exercised too.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class BinaryLogPalindromeRepositoryBenchmark {
+    private static final int WORD_LENGTH = 20;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    private int rows;
+
+    private Path csvFile;
+    private Path binaryFile;
+    private BinaryLogPalindromeRepository binaryLogPalindromeRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        csvFile = Files.createTempFile("palindrome-benchmark", ".csv");
+        binaryFile = Files.createTempFile("palindrome-benchmark", ".bin");
+        final String[] words = BenchmarkInputs.words(rows, WORD_LENGTH);
+        try (BufferedWriter writer = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < words.length; i++) {
+                writer.write('"' + words[i] + "\",\"" + (i % 2 == 0) + '"');
+                writer.newLine();
+            }
+        }
+        BinaryLogPalindromeRepository.convertFromCsv(csvFile, binaryFile);
+        binaryLogPalindromeRepository = new BinaryLogPalindromeRepository(binaryFile.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        binaryLogPalindromeRepository.close();
+        Files.deleteIfExists(csvFile);
+        Files.deleteIfExists(binaryFile);
+    }
+
+    @Benchmark
+    public List<PalindromeCheck> findAll() {
+        return binaryLogPalindromeRepository.findAll();
+    }
+}
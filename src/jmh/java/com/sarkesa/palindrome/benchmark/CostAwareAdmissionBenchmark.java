@@ -0,0 +1,69 @@
+package com.sarkesa.palindrome.benchmark;
+
+import com.sarkesa.palindrome.engine.PalindromeEngine;
+import com.sarkesa.palindrome.service.PalindromeCheckerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the input length at which caching starts to pay. A cached check goes through the cache proxy, folds the key and
+ * looks it up, which costs about the same at any length, while evaluating directly grows with the length. The crossover
+ * is the shortest length where evaluateDirectly is slower than cachedHit, a guide for admission.minCachedLength.
+ * Palindromes are used as every char of them must be compared.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class CostAwareAdmissionBenchmark {
+    private static final int INPUT_COUNT = 1 << 9;
+
+    @Param({"8", "16", "32", "64", "128", "256", "512", "1024", "4096"})
+    private int length;
+
+    private AnnotationConfigApplicationContext context;
+    private PalindromeCheckerService palindromeCheckerService;
+    private PalindromeEngine palindromeEngine;
+    private String[] inputs;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.serviceContext();
+        palindromeCheckerService = context.getBean(PalindromeCheckerService.class);
+        palindromeEngine = context.getBean(PalindromeEngine.class);
+        final SplittableRandom random = new SplittableRandom(42L);
+        inputs = new String[INPUT_COUNT];
+        for (int i = 0; i < INPUT_COUNT; i++) {
+            inputs[i] = BenchmarkInputs.palindrome(random, length);
+            palindromeCheckerService.isPalindrome(inputs[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean evaluateDirectly() {
+        index = (index + 1) & (INPUT_COUNT - 1);
+        return palindromeEngine.isPalindrome(inputs[index]);
+    }
+
+    @Benchmark
+    public boolean cachedHit() {
+        index = (index + 1) & (INPUT_COUNT - 1);
+        return palindromeCheckerService.isPalindrome(inputs[index]);
+    }
+}
@@ -0,0 +1,85 @@
+package com.sarkesa.palindrome.benchmark;
+
+import com.sarkesa.palindrome.model.PalindromeCheck;
+import com.sarkesa.palindrome.persistence.CsvPalindromeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading and appending to a results file that already holds the given number of rows. {@code submitSave}
+ * only queues the row for the group commit writer, so its score is the cost seen by the request thread. Submitting
+ * without pause soon fills the queue, though, and from then on each save waits for space, so the score also reflects
+ * how fast the writer drains it. {@code saveCommitted} saves a full batch and waits until it is in the file, so its
+ * score is the cost per row of actually writing it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CsvPalindromeRepositoryBenchmark {
+    private static final int WORD_LENGTH = 20;
+    // The repository's default batch size, so each flush commits one whole batch without waiting for the flush interval
+    private static final int COMMITTED_ROWS = 256;
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private Path csvFile;
+    private CsvPalindromeRepository csvPalindromeRepository;
+    private PalindromeCheck palindromeCheck;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        csvFile = Files.createTempFile("palindrome-benchmark", ".csv");
+        final String[] words = BenchmarkInputs.words(rows, WORD_LENGTH);
+        try (BufferedWriter writer = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < words.length; i++) {
+                writer.write('"' + words[i] + "\",\"" + (i % 2 == 0) + '"');
+                writer.newLine();
+            }
+        }
+        csvPalindromeRepository = new CsvPalindromeRepository(csvFile.toString());
+        palindromeCheck = PalindromeCheck.builder().text(words[0]).isPalindrome(true).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        csvPalindromeRepository.close();
+        Files.deleteIfExists(csvFile);
+    }
+
+    @Benchmark
+    public List<PalindromeCheck> findAll() {
+        return csvPalindromeRepository.findAll();
+    }
+
+    @Benchmark
+    public void submitSave() {
+        csvPalindromeRepository.save(palindromeCheck);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COMMITTED_ROWS)
+    public void saveCommitted() throws InterruptedException {
+        for (int i = 0; i < COMMITTED_ROWS; i++) {
+            csvPalindromeRepository.save(palindromeCheck);
+        }
+        csvPalindromeRepository.flush();
+    }
+}
@@ -0,0 +1,22 @@
+package com.sarkesa.palindrome.benchmark;
+
+import com.sarkesa.palindrome.model.PalindromeCheck;
+import com.sarkesa.palindrome.persistence.PalindromeRepository;
+
+import java.util.List;
+
+/**
+ * Keeps file I/O out of the service benchmarks so they measure the cache and engine only.
+ */
+public class DiscardingPalindromeRepository implements PalindromeRepository {
+
+    @Override
+    public void save(final PalindromeCheck palindromeCheck) {
+        // Intentionally discarded
+    }
+
+    @Override
+    public List<PalindromeCheck> findAll() {
+        return List.of();
+    }
+}
@@ -0,0 +1,55 @@
+package com.sarkesa.palindrome.benchmark;
+
+import com.sarkesa.palindrome.engine.LongestPalindromeFinder;
+import com.sarkesa.palindrome.model.PalindromeSubstring;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shows that finding the longest palindrome scales linearly with the text length, up to 10 million characters.
+ * A text of one repeated character is the worst case for a naive centre expansion, which would be quadratic on it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class LongestPalindromeBenchmark {
+    private static final String DNA_ALPHABET = "acgt";
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    private int length;
+
+    @Param({"random", "repeated"})
+    private String shape;
+
+    private LongestPalindromeFinder longestPalindromeFinder;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        longestPalindromeFinder = new LongestPalindromeFinder();
+        if ("repeated".equals(shape)) {
+            text = "a".repeat(length);
+        } else {
+            final SplittableRandom random = new SplittableRandom(42L);
+            final char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = DNA_ALPHABET.charAt(random.nextInt(DNA_ALPHABET.length()));
+            }
+            text = new String(chars);
+        }
+    }
+
+    @Benchmark
+    public PalindromeSubstring findLongest() {
+        return longestPalindromeFinder.findLongest(text);
+    }
+}
@@ -0,0 +1,40 @@
+package com.sarkesa.palindrome.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sarkesa.palindrome.model.PalindromeCheck;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class PalindromeCheckSerializationBenchmark {
+    private ObjectWriter objectWriter;
+    private PalindromeCheck palindromeCheck;
+
+    @Setup
+    public void setUp() {
+        objectWriter = new ObjectMapper().writerFor(PalindromeCheck.class);
+        palindromeCheck = PalindromeCheck.builder().text("kayak").isPalindrome(true).id(UUID.randomUUID()).build();
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectWriter.writeValueAsBytes(palindromeCheck);
+    }
+
+    @Benchmark
+    public String writeValueAsString() throws JsonProcessingException {
+        return objectWriter.writeValueAsString(palindromeCheck);
+    }
+}
@@ -0,0 +1,83 @@
+package com.sarkesa.palindrome.benchmark;
+
+import com.sarkesa.palindrome.service.PalindromeCheckerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static com.sarkesa.palindrome.cache.CacheConfig.PALINDROME_RESULTS_CACHE;
+
+/**
+ * Measures the full cached check path through the Spring cache proxy.
+ * The results cache is limited to about twice the weight of the warm inputs, and the cold benchmark cycles through far
+ * more distinct inputs than that, so nearly every call is a miss that is evaluated and saved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class PalindromeCheckerServiceBenchmark {
+    private static final int COLD_INPUT_COUNT = 1 << 16;
+    private static final int WARM_INPUT_COUNT = 1 << 9;
+    // About 260 bytes per warm entry of 50 chars, see CacheEntryWeigher, so the warm inputs fit and the cold ones do not
+    private static final long MAXIMUM_WEIGHT = 256 * 1024;
+
+    @Param({"10", "50"})
+    private int length;
+
+    private AnnotationConfigApplicationContext context;
+    private PalindromeCheckerService palindromeCheckerService;
+    private String[] coldInputs;
+    private String[] warmInputs;
+    private int coldIndex;
+    private int warmIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.serviceContext(Map.of("cache.caches.palindromeCache.maximumWeight", MAXIMUM_WEIGHT));
+        palindromeCheckerService = context.getBean(PalindromeCheckerService.class);
+        coldInputs = BenchmarkInputs.words(COLD_INPUT_COUNT, length);
+        warmInputs = BenchmarkInputs.words(WARM_INPUT_COUNT, length);
+        for (final String input : warmInputs) {
+            palindromeCheckerService.isPalindrome(input);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void clearColdEntries() {
+        final CacheManager cacheManager = context.getBean(CacheManager.class);
+        Objects.requireNonNull(cacheManager.getCache(PALINDROME_RESULTS_CACHE)).clear();
+        for (final String input : warmInputs) {
+            palindromeCheckerService.isPalindrome(input);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean isPalindrome_coldCache() {
+        coldIndex = (coldIndex + 1) & (COLD_INPUT_COUNT - 1);
+        return palindromeCheckerService.isPalindrome(coldInputs[coldIndex]);
+    }
+
+    @Benchmark
+    public boolean isPalindrome_warmCache() {
+        warmIndex = (warmIndex + 1) & (WARM_INPUT_COUNT - 1);
+        return palindromeCheckerService.isPalindrome(warmInputs[warmIndex]);
+    }
+}
@@ -0,0 +1,44 @@
+package com.sarkesa.palindrome.benchmark;
+
+import com.sarkesa.palindrome.validation.PalindromeInputValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class PalindromeInputValidatorBenchmark {
+
+    @Param({"10", "50"})
+    private int length;
+
+    private PalindromeInputValidator palindromeInputValidator;
+    private String validInput;
+    private String invalidInput;
+
+    @Setup
+    public void setUp() {
+        palindromeInputValidator = new PalindromeInputValidator();
+        validInput = BenchmarkInputs.words(1, length)[0];
+        // The offending character is last so the whole input has to be scanned
+        invalidInput = validInput.substring(1) + "1";
+    }
+
+    @Benchmark
+    public boolean isValid_validInput() {
+        return palindromeInputValidator.isValid(validInput, null);
+    }
+
+    @Benchmark
+    public boolean isValid_invalidInput() {
+        return palindromeInputValidator.isValid(invalidInput, null);
+    }
+}
@@ -0,0 +1,132 @@
+package com.sarkesa.palindrome.benchmark;
+
+import com.sarkesa.palindrome.PalindromeCheckerApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Load test comparing the servlet stack on Tomcat's platform thread pool, the same stack with a virtual thread per
+ * request, which needs Java 21, and the reactive profile on Netty. Each trial starts the whole application on a random
+ * port with its files in a temporary directory and posts checks of 40 char texts over HTTP/1.1.
+ *
+ * <p>{@code check} measures requests per second from 64 client threads. {@code concurrentChecks} sends a burst of
+ * {@code connections} requests at once, each on its own connection, and measures the time until every answer arrives.
+ * Client and server share the JVM, so the burst needs twice as many file descriptors as connections. The peak thread
+ * count and the heap in use are printed at the end of each trial.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(64)
+public class WebStackBenchmark {
+    private static final int TEXTS = 4096;
+    private static final int WORD_LENGTH = 40;
+    private static final int CLIENT_THREADS = 4;
+
+    @Param({"servlet", "virtual", "reactive"})
+    private String stack;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient httpClient;
+    private URI checkUri;
+    private String[] bodies;
+    private final AtomicInteger next = new AtomicInteger();
+
+    @State(Scope.Benchmark)
+    public static class Burst {
+        @Param("10000")
+        private int connections;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("palindrome-benchmark");
+        // Given as arguments so they override the application properties
+        context = new SpringApplicationBuilder(PalindromeCheckerApplication.class).run(
+            "--spring.profiles.active=" + ("reactive".equals(stack) ? "reactive" : "default"),
+            "--virtualThreads.enabled=" + "virtual".equals(stack),
+            "--server.port=0",
+            "--server.tomcat.max-connections=20000",
+            "--server.tomcat.accept-count=20000",
+            "--logging.level.com.sarkesa=WARN",
+            "--csvFilePath=" + directory.resolve("savedResults.csv"),
+            "--binaryFilePath=" + directory.resolve("savedResults.bin"),
+            "--checkpoint.filePath=" + directory.resolve("cacheSnapshot.bin"));
+        checkUri = URI.create("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api/v1/palindrome/check");
+        clientExecutor = Executors.newFixedThreadPool(CLIENT_THREADS);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clientExecutor).build();
+
+        final String[] words = BenchmarkInputs.words(TEXTS, WORD_LENGTH);
+        bodies = new String[words.length];
+        for (int i = 0; i < words.length; i++) {
+            bodies[i] = "{\"username\":\"benchmark\",\"text\":\"" + words[i] + "\"}";
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        final Runtime runtime = Runtime.getRuntime();
+        System.out.printf("%n%s: peak threads %d, heap in use %d MB%n", stack, ManagementFactory.getThreadMXBean().getPeakThreadCount(),
+            (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+        context.close();
+        clientExecutor.shutdown();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int check() throws IOException, InterruptedException {
+        return httpClient.send(request(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int concurrentChecks(final Burst burst) {
+        final CompletableFuture<?>[] responses = new CompletableFuture<?>[burst.connections];
+        for (int i = 0; i < responses.length; i++) {
+            responses[i] = httpClient.sendAsync(request(), HttpResponse.BodyHandlers.discarding());
+        }
+        CompletableFuture.allOf(responses).join();
+        return responses.length;
+    }
+
+    private HttpRequest request() {
+        return HttpRequest.newBuilder(checkUri)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(bodies[Math.floorMod(next.getAndIncrement(), TEXTS)]))
+            .build();
+    }
+}
@@ -0,0 +1,43 @@
+package com.sarkesa.palindrome.analytics;
+
+import com.sarkesa.palindrome.model.PalindromeAnalysis;
+import com.sarkesa.palindrome.model.PalindromeOccurrence;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Slf4j
+public class PalindromeAnalyticsService {
+
+    /**
+     * Counts the distinct and total palindromic substrings of the text and lists one page of them, longest first.
+     */
+    public PalindromeAnalysis analyze(final CharSequence text, final int page, final int size) {
+        final PalindromicTree tree = PalindromicTree.build(text);
+        log.debug("Text of {} chars has {} distinct palindromes", text.length(), tree.distinctPalindromes());
+
+        final int[] nodes = tree.longestFirst((int) Math.min((long) page * size, Integer.MAX_VALUE), size);
+        final List<PalindromeOccurrence> palindromes = new ArrayList<>(nodes.length);
+        for (final int node : nodes) {
+            final String value = tree.value(node);
+            palindromes.add(PalindromeOccurrence.builder()
+                .value(value)
+                .length(value.length())
+                .firstStart(tree.firstStart(node))
+                .occurrences(tree.occurrences(node))
+                .build());
+        }
+
+        return PalindromeAnalysis.builder()
+            .length(text.length())
+            .distinctPalindromes(tree.distinctPalindromes())
+            .totalOccurrences(tree.totalOccurrences())
+            .page(page)
+            .size(size)
+            .palindromes(palindromes)
+            .build();
+    }
+}
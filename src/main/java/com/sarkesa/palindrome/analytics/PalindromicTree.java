@@ -0,0 +1,261 @@
+package com.sarkesa.palindrome.analytics;
+
+import java.util.Arrays;
+
+import static com.sarkesa.palindrome.engine.CaseFolding.fold;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Palindromic tree (eertree) holding every distinct palindromic substring of a text, built in linear time.
+ * Nodes and edges live in primitive arrays indexed by node number rather than one object per node, so even very
+ * large texts create only a handful of objects. The arrays start small and double as nodes are added, so memory follows
+ * the number of distinct palindromes, which for most texts is far below their length. Like the palindrome engine, code
+ * points are compared ignoring case.
+ */
+public final class PalindromicTree {
+    private static final int IMAGINARY_ROOT = 0;
+    private static final int EMPTY_ROOT = 1;
+    private static final int NO_NODE = -1;
+    private static final long EMPTY_SLOT = -1L;
+    private static final int INITIAL_NODES = 1024;
+
+    private final CharSequence text;
+    private final int[] codePoints;
+    private final int[] charOffsets;
+
+    private int[] length;
+    private int[] suffixLink;
+    private long[] occurrences;
+    private int[] firstEnd;
+    private int nodeCount;
+
+    // Open addressing table of edges, keyed by parent node and code point, kept at most half full
+    private long[] edgeKeys;
+    private int[] edgeTargets;
+    private int edgeMask;
+    private int edgeCount;
+
+    private PalindromicTree(final CharSequence text) {
+        this.text = text;
+        final int codePointCount = Character.codePointCount(text, 0, text.length());
+        this.codePoints = new int[codePointCount];
+        this.charOffsets = codePointCount == text.length() ? null : new int[codePointCount + 1];
+        for (int offset = 0, i = 0; offset < text.length(); i++) {
+            final int codePoint = Character.codePointAt(text, offset);
+            codePoints[i] = fold(codePoint);
+            if (nonNull(charOffsets)) {
+                charOffsets[i] = offset;
+            }
+            offset += Character.charCount(codePoint);
+        }
+        if (nonNull(charOffsets)) {
+            charOffsets[codePointCount] = text.length();
+        }
+
+        // A text has at most one distinct palindrome per code point, plus the two roots
+        final int nodeCapacity = Math.min(codePointCount + 2, INITIAL_NODES);
+        this.length = new int[nodeCapacity];
+        this.suffixLink = new int[nodeCapacity];
+        this.occurrences = new long[nodeCapacity];
+        this.firstEnd = new int[nodeCapacity];
+        allocateEdges(Integer.highestOneBit(Math.max(2, nodeCapacity * 2 - 1)) << 1);
+    }
+
+    /**
+     * Builds the tree for the text and counts how often each palindrome occurs.
+     */
+    public static PalindromicTree build(final CharSequence text) {
+        final PalindromicTree tree = new PalindromicTree(text);
+        tree.insertAll();
+        tree.propagateOccurrences();
+        return tree;
+    }
+
+    private void insertAll() {
+        length[IMAGINARY_ROOT] = -1;
+        suffixLink[IMAGINARY_ROOT] = IMAGINARY_ROOT;
+        length[EMPTY_ROOT] = 0;
+        suffixLink[EMPTY_ROOT] = IMAGINARY_ROOT;
+        nodeCount = 2;
+
+        int last = EMPTY_ROOT;
+        for (int i = 0; i < codePoints.length; i++) {
+            final int codePoint = codePoints[i];
+            final int parent = findExtendable(last, i);
+
+            final int existing = getEdge(parent, codePoint);
+            if (existing != NO_NODE) {
+                last = existing;
+                occurrences[last]++;
+                continue;
+            }
+
+            if (nodeCount == length.length) {
+                growNodes();
+            }
+            final int node = nodeCount++;
+            length[node] = length[parent] + 2;
+            firstEnd[node] = i;
+            occurrences[node] = 1;
+            suffixLink[node] = length[node] == 1
+                ? EMPTY_ROOT
+                : getEdge(findExtendable(suffixLink[parent], i), codePoint);
+            putEdge(parent, codePoint, node);
+            last = node;
+        }
+    }
+
+    /**
+     * Follows suffix links from the node until reaching a palindrome that can be wrapped by the code point at position i.
+     * The imaginary root has length -1 so it always matches, which ends the walk.
+     */
+    private int findExtendable(final int from, final int i) {
+        int node = from;
+        while (true) {
+            final int before = i - 1 - length[node];
+            if (before >= 0 && codePoints[before] == codePoints[i]) {
+                return node;
+            }
+            node = suffixLink[node];
+        }
+    }
+
+    /**
+     * Each node was only counted where it was the longest palindrome ending at a position. Every palindrome ending there
+     * is reachable by suffix links, and nodes are created in order of their first end, so one reverse pass completes the counts.
+     */
+    private void propagateOccurrences() {
+        for (int node = nodeCount - 1; node > EMPTY_ROOT; node--) {
+            occurrences[suffixLink[node]] += occurrences[node];
+        }
+    }
+
+    private void growNodes() {
+        final int capacity = (int) Math.min((long) length.length * 2, codePoints.length + 2L);
+        length = Arrays.copyOf(length, capacity);
+        suffixLink = Arrays.copyOf(suffixLink, capacity);
+        occurrences = Arrays.copyOf(occurrences, capacity);
+        firstEnd = Arrays.copyOf(firstEnd, capacity);
+    }
+
+    private void allocateEdges(final int capacity) {
+        edgeKeys = new long[capacity];
+        edgeTargets = new int[capacity];
+        edgeMask = capacity - 1;
+        Arrays.fill(edgeKeys, EMPTY_SLOT);
+    }
+
+    private void growEdges() {
+        final long[] oldKeys = edgeKeys;
+        final int[] oldTargets = edgeTargets;
+        allocateEdges(oldKeys.length * 2);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != EMPTY_SLOT) {
+                insertEdge(oldKeys[slot], oldTargets[slot]);
+            }
+        }
+    }
+
+    private int getEdge(final int parent, final int codePoint) {
+        final long key = edgeKey(parent, codePoint);
+        for (int slot = slot(key); edgeKeys[slot] != EMPTY_SLOT; slot = (slot + 1) & edgeMask) {
+            if (edgeKeys[slot] == key) {
+                return edgeTargets[slot];
+            }
+        }
+        return NO_NODE;
+    }
+
+    private void putEdge(final int parent, final int codePoint, final int target) {
+        if ((edgeCount + 1) * 2 > edgeKeys.length) {
+            growEdges();
+        }
+        insertEdge(edgeKey(parent, codePoint), target);
+        edgeCount++;
+    }
+
+    private void insertEdge(final long key, final int target) {
+        int slot = slot(key);
+        while (edgeKeys[slot] != EMPTY_SLOT) {
+            slot = (slot + 1) & edgeMask;
+        }
+        edgeKeys[slot] = key;
+        edgeTargets[slot] = target;
+    }
+
+    private static long edgeKey(final int parent, final int codePoint) {
+        return ((long) parent << 32) | (codePoint & 0xFFFFFFFFL);
+    }
+
+    private int slot(final long key) {
+        // Fibonacci hashing spreads the sequential node numbers across the table
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & edgeMask;
+    }
+
+    public int distinctPalindromes() {
+        return nodeCount - 2;
+    }
+
+    public long totalOccurrences() {
+        long total = 0;
+        for (int node = EMPTY_ROOT + 1; node < nodeCount; node++) {
+            total += occurrences[node];
+        }
+        return total;
+    }
+
+    /**
+     * Lists the distinct palindromes from longest to shortest, palindromes of equal length in order of first occurrence.
+     * Uses a counting sort on length, so the cost is linear in the size of the text.
+     *
+     * @return node numbers for the requested page
+     */
+    public int[] longestFirst(final int offset, final int limit) {
+        final int distinct = distinctPalindromes();
+        if (offset >= distinct || limit <= 0) {
+            return new int[0];
+        }
+
+        final int[] startOfLength = new int[codePoints.length + 2];
+        for (int node = EMPTY_ROOT + 1; node < nodeCount; node++) {
+            startOfLength[codePoints.length - length[node] + 1]++;
+        }
+        for (int i = 1; i < startOfLength.length; i++) {
+            startOfLength[i] += startOfLength[i - 1];
+        }
+        final int[] ordered = new int[distinct];
+        for (int node = EMPTY_ROOT + 1; node < nodeCount; node++) {
+            ordered[startOfLength[codePoints.length - length[node]]++] = node;
+        }
+
+        final int end = (int) Math.min((long) offset + limit, distinct);
+        return Arrays.copyOfRange(ordered, offset, end);
+    }
+
+    public int length(final int node) {
+        return length[node];
+    }
+
+    public long occurrences(final int node) {
+        return occurrences[node];
+    }
+
+    /**
+     * Returns the char index of the first occurrence of the palindrome in the text.
+     */
+    public int firstStart(final int node) {
+        return charOffset(firstEnd[node] - length[node] + 1);
+    }
+
+    /**
+     * Returns the first occurrence of the palindrome, with its original case.
+     */
+    public String value(final int node) {
+        return text.subSequence(firstStart(node), charOffset(firstEnd[node] + 1)).toString();
+    }
+
+    private int charOffset(final int codePointIndex) {
+        return isNull(charOffsets) ? codePointIndex : charOffsets[codePointIndex];
+    }
+}
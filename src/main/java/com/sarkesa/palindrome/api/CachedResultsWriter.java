@@ -0,0 +1,54 @@
+package com.sarkesa.palindrome.api;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sarkesa.palindrome.service.PalindromeCheckerService;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes cached results as newline delimited JSON straight from the cache to the response, one object per result, so
+ * neither a copy of the cache nor the whole response is held in memory.
+ */
+@Component
+public class CachedResultsWriter {
+    private final PalindromeCheckerService palindromeCheckerService;
+    private final JsonFactory jsonFactory;
+
+    public CachedResultsWriter(final PalindromeCheckerService palindromeCheckerService, final ObjectMapper objectMapper) {
+        this.palindromeCheckerService = palindromeCheckerService;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Writes every cached result matching the filters.
+     *
+     * @return the number of results written
+     */
+    public long write(final Boolean isPalindrome, final String prefix, final OutputStream outputStream) throws IOException {
+        final AtomicLong resultCount = new AtomicLong();
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+            palindromeCheckerService.forEachCachedPalindromeResult(isPalindrome, prefix, (text, result) -> {
+                try {
+                    generator.writeStartObject();
+                    generator.writeStringField("text", text);
+                    generator.writeBooleanField("isPalindrome", result);
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                } catch (final IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                resultCount.incrementAndGet();
+            });
+        } catch (final UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        return resultCount.get();
+    }
+}
@@ -0,0 +1,127 @@
+package com.sarkesa.palindrome.api;
+
+import com.sarkesa.palindrome.error.BadRequestException;
+import com.sarkesa.palindrome.error.ServiceUnavailableException;
+import com.sarkesa.palindrome.model.LargeLongestPalindromeCheck;
+import com.sarkesa.palindrome.model.LargePalindromeCheck;
+import com.sarkesa.palindrome.model.PalindromeSubstring;
+import com.sarkesa.palindrome.service.LargePalindromeCheckerService;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RestController
+@RequestMapping(value = "/api/v1/palindrome", produces = MediaType.APPLICATION_JSON_VALUE)
+public class LargePalindromeCheckerController {
+
+    // A document is held as chars, 2 bytes each, and may be copied once while it grows
+    private static final int HEAP_BYTES_PER_DOCUMENT_BYTE = 4;
+
+    private LargePalindromeCheckerService largePalindromeCheckerService;
+    private LargeTextReader largeTextReader;
+    private int longestMaxBytes;
+    private Semaphore documentPermits;
+
+    public LargePalindromeCheckerController(final LargePalindromeCheckerService largePalindromeCheckerService,
+                                            final LargeTextReader largeTextReader,
+                                            @Value("${large.maxConcurrent}") final int maxConcurrent,
+                                            @Value("${large.maxBytes}") final int maxBytes,
+                                            @Value("${longest.maxBytes}") final int longestMaxBytes) {
+        this.largePalindromeCheckerService = largePalindromeCheckerService;
+        this.largeTextReader = largeTextReader;
+        this.longestMaxBytes = longestMaxBytes;
+        final int permits = maxConcurrent > 0 ? maxConcurrent : defaultMaxConcurrent(Runtime.getRuntime().maxMemory(), maxBytes);
+        this.documentPermits = new Semaphore(permits);
+        log.info("At most {} large documents are checked at once", permits);
+    }
+
+    /**
+     * Allows as many documents of the largest size at once as fit in half the heap, and always at least one.
+     */
+    static int defaultMaxConcurrent(final long maxMemory, final int maxBytes) {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxMemory / 2 / ((long) maxBytes * HEAP_BYTES_PER_DOCUMENT_BYTE)));
+    }
+
+    @PostMapping(value = "/check/large", consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Check if a large UTF-8 document sent as the raw request body is a palindrome. "
+        + "Any characters are accepted, the result is not cached or stored and the document is not echoed back. "
+        + "Answers 503 while the most documents allowed are already being checked.")
+    public LargePalindromeCheck checkLargePalindrome(final HttpServletRequest httpServletRequest) throws IOException {
+        final UUID requestId = UUID.randomUUID();
+        MDC.put("requestId", requestId.toString());
+        log.trace("Check large palindrome request of declared length {}", httpServletRequest.getContentLengthLong());
+
+        if (!documentPermits.tryAcquire()) {
+            throw new ServiceUnavailableException("Too many large documents are being checked. Try again later.");
+        }
+        try {
+            return check(requestId, httpServletRequest);
+        } finally {
+            documentPermits.release();
+        }
+    }
+
+    @PostMapping(value = "/longest", consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Find the longest palindromic substring of a large UTF-8 document sent as the raw request body and its offsets. "
+        + "Any characters are accepted, the result is not cached or stored and the document is not echoed back. "
+        + "Answers 503 while the most documents allowed are already being checked.")
+    public LargeLongestPalindromeCheck findLongestPalindrome(final HttpServletRequest httpServletRequest) throws IOException {
+        final UUID requestId = UUID.randomUUID();
+        MDC.put("requestId", requestId.toString());
+        log.trace("Longest palindrome request for document of declared length {}", httpServletRequest.getContentLengthLong());
+
+        // Shares the permits of checked documents, as the lower byte limit keeps a search within a check's heap
+        if (!documentPermits.tryAcquire()) {
+            throw new ServiceUnavailableException("Too many large documents are being checked. Try again later.");
+        }
+        try {
+            return findLongest(requestId, httpServletRequest);
+        } finally {
+            documentPermits.release();
+        }
+    }
+
+    private LargePalindromeCheck check(final UUID requestId, final HttpServletRequest httpServletRequest) throws IOException {
+        final CharBuffer document = largeTextReader.read(httpServletRequest.getInputStream(), httpServletRequest.getContentLengthLong());
+        if (!document.hasRemaining()) {
+            throw new BadRequestException("The document must not be empty.");
+        }
+
+        final boolean result = largePalindromeCheckerService.isPalindrome(document);
+        log.info("For a document of {} chars the palindrome result: [{}]", document.remaining(), result);
+        MDC.clear();
+
+        return LargePalindromeCheck.builder().length(document.remaining()).isPalindrome(result).id(requestId).build();
+    }
+
+    private LargeLongestPalindromeCheck findLongest(final UUID requestId, final HttpServletRequest httpServletRequest) throws IOException {
+        final CharBuffer document = largeTextReader.read(httpServletRequest.getInputStream(), httpServletRequest.getContentLengthLong(), longestMaxBytes);
+        if (!document.hasRemaining()) {
+            throw new BadRequestException("The document must not be empty.");
+        }
+
+        final PalindromeSubstring longest = largePalindromeCheckerService.findLongestPalindrome(document);
+        log.info("For a document of {} chars the longest palindrome has {} chars", document.remaining(), longest.getValue().length());
+        MDC.clear();
+
+        return LargeLongestPalindromeCheck.builder().length(document.remaining()).longestPalindrome(longest).id(requestId).build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.sarkesa.palindrome.api;
+
+import com.sarkesa.palindrome.error.PayloadTooLargeException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Streams a UTF-8 request body straight into a char array, without building intermediate strings.
+ * The declared content length, when present, sizes the array up front so a large document is not copied while it grows.
+ */
+@Component
+public class LargeTextReader {
+    private static final int MIN_CAPACITY = 8192;
+
+    private final int maxBytes;
+
+    public LargeTextReader(@Value("${large.maxBytes}") final int maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Reads the whole input, up to the configured limit.
+     *
+     * @param contentLength the declared length in bytes, or a negative value if unknown
+     * @return a buffer wrapping the array that was read into, positioned at zero with the limit at the last char read
+     * @throws PayloadTooLargeException if the input is longer than the configured limit
+     */
+    public CharBuffer read(final InputStream inputStream, final long contentLength) throws IOException {
+        return read(inputStream, contentLength, maxBytes);
+    }
+
+    /**
+     * Reads the whole input, up to a limit of the caller's own, for callers that need more memory per char than the
+     * text itself.
+     *
+     * @param contentLength the declared length in bytes, or a negative value if unknown
+     * @param maxBytes the largest input accepted
+     * @return a buffer wrapping the array that was read into, positioned at zero with the limit at the last char read
+     * @throws PayloadTooLargeException if the input is longer than {@code maxBytes}
+     */
+    public CharBuffer read(final InputStream inputStream, final long contentLength, final int maxBytes) throws IOException {
+        if (contentLength > maxBytes) {
+            throw tooLarge(maxBytes);
+        }
+
+        // UTF-8 never decodes to more chars than bytes, so the content length is an upper bound
+        char[] chars = new char[contentLength > 0 ? (int) contentLength : MIN_CAPACITY];
+        int length = 0;
+        final CountingInputStream countingInputStream = new CountingInputStream(inputStream);
+        try (Reader reader = new InputStreamReader(countingInputStream, StandardCharsets.UTF_8)) {
+            boolean endOfStream = false;
+            while (!endOfStream) {
+                if (length == chars.length) {
+                    if (chars.length >= maxBytes) {
+                        // Full at the limit, so any further char means the document is too large
+                        if (reader.read() != -1) {
+                            throw tooLarge(maxBytes);
+                        }
+                        break;
+                    }
+                    chars = Arrays.copyOf(chars, (int) Math.min((long) chars.length * 2, maxBytes));
+                }
+
+                final int read = reader.read(chars, length, chars.length - length);
+                endOfStream = read == -1;
+                if (!endOfStream) {
+                    length += read;
+                }
+                if (countingInputStream.count > maxBytes) {
+                    throw tooLarge(maxBytes);
+                }
+            }
+        }
+        return CharBuffer.wrap(chars, 0, length);
+    }
+
+    private static PayloadTooLargeException tooLarge(final int maxBytes) {
+        return new PayloadTooLargeException(String.format("The document must not be larger than %d bytes.", maxBytes));
+    }
+
+    private static final class CountingInputStream extends InputStream {
+        private final InputStream delegate;
+        private long count;
+
+        private CountingInputStream(final InputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int read = delegate.read();
+            if (read != -1) {
+                count++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            final int read = delegate.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.sarkesa.palindrome.api;
+
+import com.sarkesa.palindrome.analytics.PalindromeAnalyticsService;
+import com.sarkesa.palindrome.error.BadRequestException;
+import com.sarkesa.palindrome.error.ServiceUnavailableException;
+import com.sarkesa.palindrome.model.PalindromeAnalysis;
+import com.sarkesa.palindrome.model.PalindromeCheckRequest;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RestController
+@RequestMapping(value = "/api/v1/palindrome", produces = MediaType.APPLICATION_JSON_VALUE)
+public class PalindromeAnalyticsController {
+
+    // The palindromic tree takes about 100 bytes per char, on top of the document held as chars
+    private static final int HEAP_BYTES_PER_DOCUMENT_BYTE = 104;
+
+    private PalindromeAnalyticsService palindromeAnalyticsService;
+    private LargeTextReader largeTextReader;
+    private int maxPageSize;
+    private int maxBytes;
+    private Semaphore documentPermits;
+
+    public PalindromeAnalyticsController(final PalindromeAnalyticsService palindromeAnalyticsService,
+                                         final LargeTextReader largeTextReader,
+                                         @Value("${analytics.maxPageSize}") final int maxPageSize,
+                                         @Value("${analytics.maxBytes}") final int maxBytes,
+                                         @Value("${analytics.maxConcurrent}") final int maxConcurrent) {
+        this.palindromeAnalyticsService = palindromeAnalyticsService;
+        this.largeTextReader = largeTextReader;
+        this.maxPageSize = maxPageSize;
+        this.maxBytes = maxBytes;
+        final int permits = maxConcurrent > 0 ? maxConcurrent : defaultMaxConcurrent(Runtime.getRuntime().maxMemory(), maxBytes);
+        this.documentPermits = new Semaphore(permits);
+        log.info("At most {} documents are analyzed at once", permits);
+    }
+
+    /**
+     * Allows as many documents of the largest size and their palindromic trees at once as fit in half the heap, and
+     * always at least one.
+     */
+    static int defaultMaxConcurrent(final long maxMemory, final int maxBytes) {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxMemory / 2 / ((long) maxBytes * HEAP_BYTES_PER_DOCUMENT_BYTE)));
+    }
+
+    @PostMapping(value = "/analyze", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Count the distinct palindromic substrings of the input text and list them, longest first")
+    public PalindromeAnalysis analyze(@Valid @RequestBody final PalindromeCheckRequest palindromeCheckRequest,
+                                      @RequestParam(defaultValue = "0") final int page,
+                                      @RequestParam(defaultValue = "20") final int size) {
+        final UUID requestId = UUID.randomUUID();
+        MDC.put("requestId", requestId.toString());
+        MDC.put("user", palindromeCheckRequest.getUsername());
+        log.trace("Analyze palindromes request {}", palindromeCheckRequest);
+
+        validatePage(page, size);
+        return analyzeText(requestId, palindromeCheckRequest.getText(), page, size);
+    }
+
+    @PostMapping(value = "/analyze", consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Count the distinct palindromic substrings of a large UTF-8 document sent as the raw request body and list them, longest first. "
+        + "Answers 503 while the most documents allowed are already being analyzed.")
+    public PalindromeAnalysis analyzeDocument(final HttpServletRequest httpServletRequest,
+                                              @RequestParam(defaultValue = "0") final int page,
+                                              @RequestParam(defaultValue = "20") final int size) throws IOException {
+        final UUID requestId = UUID.randomUUID();
+        MDC.put("requestId", requestId.toString());
+        log.trace("Analyze palindromes request for document of declared length {}", httpServletRequest.getContentLengthLong());
+
+        validatePage(page, size);
+        if (!documentPermits.tryAcquire()) {
+            throw new ServiceUnavailableException("Too many documents are being analyzed. Try again later.");
+        }
+        try {
+            final CharBuffer document = largeTextReader.read(httpServletRequest.getInputStream(), httpServletRequest.getContentLengthLong(), maxBytes);
+            return analyzeText(requestId, document, page, size);
+        } finally {
+            documentPermits.release();
+        }
+    }
+
+    private void validatePage(final int page, final int size) {
+        if (page < 0 || size < 1 || size > maxPageSize) {
+            throw new BadRequestException(String.format("The page must not be negative and the size must be between 1 and %d.", maxPageSize));
+        }
+    }
+
+    private PalindromeAnalysis analyzeText(final UUID requestId, final CharSequence text, final int page, final int size) {
+        final PalindromeAnalysis analysis = palindromeAnalyticsService.analyze(text, page, size);
+        analysis.setId(requestId);
+        log.info("Text of {} chars has {} distinct palindromes", analysis.getLength(), analysis.getDistinctPalindromes());
+        MDC.clear();
+        return analysis;
+    }
+}
@@ -0,0 +1,78 @@
+package com.sarkesa.palindrome.api;
+
+import com.sarkesa.palindrome.error.BadRequestException;
+import com.sarkesa.palindrome.model.PalindromeBatchCheck;
+import com.sarkesa.palindrome.model.PalindromeBatchItem;
+import com.sarkesa.palindrome.model.PalindromeCheckRequest;
+import com.sarkesa.palindrome.service.CostAwarePalindromeChecker;
+import com.sarkesa.palindrome.validation.PalindromeRequestValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Checks a batch of requests for both the servlet and the reactive API. Invalid items are reported individually and do
+ * not fail the batch, while the valid texts are checked together.
+ */
+@Slf4j
+@Component
+public class PalindromeBatchChecker {
+    private final CostAwarePalindromeChecker costAwarePalindromeChecker;
+    private final PalindromeRequestValidator palindromeRequestValidator;
+    private final int maxBatchItems;
+
+    public PalindromeBatchChecker(final CostAwarePalindromeChecker costAwarePalindromeChecker,
+                                  final PalindromeRequestValidator palindromeRequestValidator,
+                                  @Value("${batch.maxItems}") final int maxBatchItems) {
+        this.costAwarePalindromeChecker = costAwarePalindromeChecker;
+        this.palindromeRequestValidator = palindromeRequestValidator;
+        this.maxBatchItems = maxBatchItems;
+    }
+
+    /**
+     * Checks every request in the batch, in order.
+     *
+     * @throws BadRequestException if the batch holds more than the maximum number of items
+     */
+    public PalindromeBatchCheck check(final UUID requestId, final List<PalindromeCheckRequest> palindromeCheckRequests) {
+        if (palindromeCheckRequests.size() > maxBatchItems) {
+            throw new BadRequestException(String.format("A batch may contain at most %d items but %d were supplied.",
+                maxBatchItems, palindromeCheckRequests.size()));
+        }
+
+        // Validate every item up front so only valid texts are sent for evaluation
+        final List<Optional<String>> errors = new ArrayList<>(palindromeCheckRequests.size());
+        final List<String> validTexts = new ArrayList<>(palindromeCheckRequests.size());
+        for (final PalindromeCheckRequest palindromeCheckRequest : palindromeCheckRequests) {
+            final Optional<String> error = palindromeRequestValidator.validate(palindromeCheckRequest);
+            errors.add(error);
+            if (error.isEmpty()) {
+                validTexts.add(palindromeCheckRequest.getText());
+            }
+        }
+
+        final Map<String, Boolean> results = validTexts.isEmpty() ? Map.of() : costAwarePalindromeChecker.isPalindromeBatch(validTexts);
+
+        final List<PalindromeBatchItem> items = new ArrayList<>(palindromeCheckRequests.size());
+        for (int i = 0; i < palindromeCheckRequests.size(); i++) {
+            final PalindromeBatchItem.PalindromeBatchItemBuilder item = PalindromeBatchItem.builder().index(i);
+            final PalindromeCheckRequest palindromeCheckRequest = palindromeCheckRequests.get(i);
+            if (nonNull(palindromeCheckRequest)) {
+                item.text(palindromeCheckRequest.getText());
+            }
+            errors.get(i).ifPresentOrElse(item::error, () -> item.isPalindrome(results.get(palindromeCheckRequest.getText())));
+            items.add(item.build());
+        }
+        log.info("Batch of {} items checked, {} were invalid", items.size(), items.size() - validTexts.size());
+
+        return PalindromeBatchCheck.builder().id(requestId).results(items).build();
+    }
+}
@@ -1,33 +1,71 @@
 package com.sarkesa.palindrome.api;
 
+import com.sarkesa.palindrome.error.BadRequestException;
+import com.sarkesa.palindrome.model.CachedResultsPage;
+import com.sarkesa.palindrome.model.LongestPalindromeCheck;
+import com.sarkesa.palindrome.model.PalindromeBatchCheck;
 import com.sarkesa.palindrome.model.PalindromeCheck;
 import com.sarkesa.palindrome.model.PalindromeCheckRequest;
+import com.sarkesa.palindrome.model.PalindromeSubstring;
+import com.sarkesa.palindrome.service.CostAwarePalindromeChecker;
 import com.sarkesa.palindrome.service.PalindromeCheckerService;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
 @Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RestController
 @RequestMapping(value = "/api/v1/palindrome", produces = MediaType.APPLICATION_JSON_VALUE)
 public class PalindromeCheckerController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     private PalindromeCheckerService palindromeCheckerService;
+    private CostAwarePalindromeChecker costAwarePalindromeChecker;
+    private PalindromeBatchChecker palindromeBatchChecker;
+    private PalindromeStreamProcessor palindromeStreamProcessor;
+    private CachedResultsWriter cachedResultsWriter;
+    private int defaultCacheContentsLimit;
+    private int maxCacheContentsLimit;
 
-    public PalindromeCheckerController(final PalindromeCheckerService palindromeCheckerService) {
+    public PalindromeCheckerController(final PalindromeCheckerService palindromeCheckerService,
+                                       final CostAwarePalindromeChecker costAwarePalindromeChecker,
+                                       final PalindromeBatchChecker palindromeBatchChecker,
+                                       final PalindromeStreamProcessor palindromeStreamProcessor,
+                                       final CachedResultsWriter cachedResultsWriter,
+                                       @Value("${cacheContents.defaultLimit}") final int defaultCacheContentsLimit,
+                                       @Value("${cacheContents.maxLimit}") final int maxCacheContentsLimit) {
         this.palindromeCheckerService = palindromeCheckerService;
+        this.costAwarePalindromeChecker = costAwarePalindromeChecker;
+        this.palindromeBatchChecker = palindromeBatchChecker;
+        this.palindromeStreamProcessor = palindromeStreamProcessor;
+        this.cachedResultsWriter = cachedResultsWriter;
+        this.defaultCacheContentsLimit = defaultCacheContentsLimit;
+        this.maxCacheContentsLimit = maxCacheContentsLimit;
     }
 
     @PostMapping(value = "/check", consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -40,17 +78,111 @@ public class PalindromeCheckerController {
         MDC.put("user", palindromeCheckRequest.getUsername());
         log.trace("Check palindrome request {}", palindromeCheckRequest);
 
-        final boolean result = palindromeCheckerService.isPalindrome(palindromeCheckRequest.getText());
+        final boolean result = costAwarePalindromeChecker.isPalindrome(palindromeCheckRequest.getText());
         log.info("For input text [{}] the palindrome result: [{}]", palindromeCheckRequest.getText(), result);
         removeFieldsFromMdc();
 
         return PalindromeCheck.builder().text(palindromeCheckRequest.getText()).isPalindrome(result).id(requestId).build();
     }
 
+    @PostMapping(value = "/longest", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Find the longest palindromic substring of the input text and its offsets")
+    public LongestPalindromeCheck findLongestPalindrome(@Valid @RequestBody final PalindromeCheckRequest palindromeCheckRequest) {
+        final UUID requestId = UUID.randomUUID();
+        MDC.put("requestId", requestId.toString());
+        MDC.put("user", palindromeCheckRequest.getUsername());
+        log.trace("Longest palindrome request {}", palindromeCheckRequest);
+
+        final PalindromeSubstring longest = palindromeCheckerService.findLongestPalindrome(palindromeCheckRequest.getText());
+        log.info("For input text [{}] the longest palindrome is [{}]", palindromeCheckRequest.getText(), longest.getValue());
+        removeFieldsFromMdc();
+
+        // Copied so the cached value can never be modified through the response
+        final PalindromeSubstring longestPalindrome = PalindromeSubstring.builder()
+            .value(longest.getValue())
+            .start(longest.getStart())
+            .end(longest.getEnd())
+            .build();
+        return LongestPalindromeCheck.builder().text(palindromeCheckRequest.getText()).longestPalindrome(longestPalindrome).id(requestId).build();
+    }
+
+    @PostMapping(value = "/check/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Check many input texts in one request. Invalid items are reported individually and do not fail the batch.")
+    public PalindromeBatchCheck checkPalindromeBatch(@RequestBody final List<PalindromeCheckRequest> palindromeCheckRequests) {
+        final UUID requestId = UUID.randomUUID();
+        MDC.put("requestId", requestId.toString());
+        log.trace("Check palindrome batch request with {} items", palindromeCheckRequests.size());
+
+        final PalindromeBatchCheck palindromeBatchCheck = palindromeBatchChecker.check(requestId, palindromeCheckRequests);
+        removeFieldsFromMdc();
+
+        return palindromeBatchCheck;
+    }
+
+    @PostMapping(value = "/check/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Check a newline delimited stream of requests. One result line is written per request line as soon as it is known.")
+    public void checkPalindromeStream(final HttpServletRequest httpServletRequest,
+                                      final HttpServletResponse httpServletResponse) throws IOException {
+        final UUID requestId = UUID.randomUUID();
+        MDC.put("requestId", requestId.toString());
+        log.trace("Check palindrome stream request");
+
+        httpServletResponse.setStatus(HttpStatus.OK.value());
+        httpServletResponse.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        final long resultCount = palindromeStreamProcessor.process(httpServletRequest.getInputStream(), httpServletResponse.getOutputStream());
+        log.info("Stream of {} requests checked", resultCount);
+        removeFieldsFromMdc();
+    }
+
     @GetMapping("cache-contents")
-    @Operation(summary = "Retrieve all cached results for input text.")
-    public Map<Object, Object> getCacheContents() {
-        return palindromeCheckerService.getCachedPalindromeResults();
+    @Operation(summary = "Retrieve one page of cached results for input text, in text order. "
+        + "When more results follow, the " + NEXT_CURSOR_HEADER + " response header holds the cursor for the next page.")
+    public Map<String, Boolean> getCacheContents(@RequestParam(required = false) final String cursor,
+                                                 @RequestParam(required = false) final Integer limit,
+                                                 @RequestParam(required = false) final Boolean isPalindrome,
+                                                 @RequestParam(required = false) final String prefix,
+                                                 final HttpServletResponse httpServletResponse) {
+        final int pageLimit = isNull(limit) ? defaultCacheContentsLimit : limit;
+        if (pageLimit < 1 || pageLimit > maxCacheContentsLimit) {
+            throw new BadRequestException(String.format("The limit must be between 1 and %d.", maxCacheContentsLimit));
+        }
+
+        final CachedResultsPage page = palindromeCheckerService.getCachedPalindromeResults(decodeCursor(cursor), pageLimit, isPalindrome, prefix);
+        if (nonNull(page.getLastText())) {
+            httpServletResponse.setHeader(NEXT_CURSOR_HEADER, encodeCursor(page.getLastText()));
+        }
+        return page.getResults();
+    }
+
+    @GetMapping(value = "cache-contents", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream every cached result for input text as newline delimited JSON, without paging.")
+    public void streamCacheContents(@RequestParam(required = false) final Boolean isPalindrome,
+                                    @RequestParam(required = false) final String prefix,
+                                    final HttpServletResponse httpServletResponse) throws IOException {
+        httpServletResponse.setStatus(HttpStatus.OK.value());
+        httpServletResponse.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        final long resultCount = cachedResultsWriter.write(isPalindrome, prefix, httpServletResponse.getOutputStream());
+        log.debug("Streamed {} cached results", resultCount);
+    }
+
+    /**
+     * Cursors are the last text of a page, encoded so they are opaque to clients and safe in a URL.
+     */
+    static String encodeCursor(final String lastText) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastText.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decodeCursor(final String cursor) {
+        if (isNull(cursor)) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (final IllegalArgumentException ex) {
+            throw new BadRequestException("The cursor is not valid.");
+        }
     }
 
     private void removeFieldsFromMdc() {
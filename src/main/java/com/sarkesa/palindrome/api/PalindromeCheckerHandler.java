@@ -0,0 +1,249 @@
+package com.sarkesa.palindrome.api;
+
+import com.sarkesa.palindrome.error.ApiError;
+import com.sarkesa.palindrome.error.BadRequestException;
+import com.sarkesa.palindrome.error.NotFoundException;
+import com.sarkesa.palindrome.error.PayloadTooLargeException;
+import com.sarkesa.palindrome.error.ServiceUnavailableException;
+import com.sarkesa.palindrome.model.CachedResultsPage;
+import com.sarkesa.palindrome.model.LongestPalindromeCheck;
+import com.sarkesa.palindrome.model.PalindromeBatchItem;
+import com.sarkesa.palindrome.model.PalindromeCheck;
+import com.sarkesa.palindrome.model.PalindromeCheckRequest;
+import com.sarkesa.palindrome.model.PalindromeSubstring;
+import com.sarkesa.palindrome.service.CostAwarePalindromeChecker;
+import com.sarkesa.palindrome.service.PalindromeCheckerService;
+import com.sarkesa.palindrome.validation.PalindromeRequestValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Functional handlers serving the same contract as {@link PalindromeCheckerController} on the reactive stack, selected
+ * with the reactive profile. A check through the results cache can wait, for a coalesced evaluation of the same text,
+ * for the result index lock or for a slot in the shared cache, so checks, longest palindromes, batches and streamed
+ * lines are moved to a worker thread. Reading the cache contents never waits and stays on the event loop. Results are
+ * saved through the group commit queue, which the reactive profile sets to drop rather than wait when it is full, so no
+ * request holds a thread waiting on the disk.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class PalindromeCheckerHandler {
+    private static final String NOT_READABLE = "Input message could not be read.";
+    private static final ParameterizedTypeReference<List<PalindromeCheckRequest>> REQUEST_LIST = new ParameterizedTypeReference<>() {
+    };
+
+    private final PalindromeCheckerService palindromeCheckerService;
+    private final CostAwarePalindromeChecker costAwarePalindromeChecker;
+    private final PalindromeRequestValidator palindromeRequestValidator;
+    private final PalindromeBatchChecker palindromeBatchChecker;
+    private final PalindromeStreamProcessor palindromeStreamProcessor;
+    private final int defaultCacheContentsLimit;
+    private final int maxCacheContentsLimit;
+
+    public PalindromeCheckerHandler(final PalindromeCheckerService palindromeCheckerService,
+                                    final CostAwarePalindromeChecker costAwarePalindromeChecker,
+                                    final PalindromeRequestValidator palindromeRequestValidator,
+                                    final PalindromeBatchChecker palindromeBatchChecker,
+                                    final PalindromeStreamProcessor palindromeStreamProcessor,
+                                    @Value("${cacheContents.defaultLimit}") final int defaultCacheContentsLimit,
+                                    @Value("${cacheContents.maxLimit}") final int maxCacheContentsLimit) {
+        this.palindromeCheckerService = palindromeCheckerService;
+        this.costAwarePalindromeChecker = costAwarePalindromeChecker;
+        this.palindromeRequestValidator = palindromeRequestValidator;
+        this.palindromeBatchChecker = palindromeBatchChecker;
+        this.palindromeStreamProcessor = palindromeStreamProcessor;
+        this.defaultCacheContentsLimit = defaultCacheContentsLimit;
+        this.maxCacheContentsLimit = maxCacheContentsLimit;
+    }
+
+    public Mono<ServerResponse> checkPalindrome(final ServerRequest serverRequest) {
+        return Mono.deferContextual(context -> readValidRequest(serverRequest).publishOn(Schedulers.boundedElastic()).map(palindromeCheckRequest -> {
+            final boolean result = costAwarePalindromeChecker.isPalindrome(palindromeCheckRequest.getText());
+            RequestContext.log(context, palindromeCheckRequest.getUsername(),
+                () -> log.info("For input text [{}] the palindrome result: [{}]", palindromeCheckRequest.getText(), result));
+            return PalindromeCheck.builder()
+                .text(palindromeCheckRequest.getText())
+                .isPalindrome(result)
+                .id(RequestContext.requestId(context))
+                .build();
+        })).flatMap(palindromeCheck -> ServerResponse.status(HttpStatus.CREATED).contentType(MediaType.APPLICATION_JSON).bodyValue(palindromeCheck));
+    }
+
+    public Mono<ServerResponse> findLongestPalindrome(final ServerRequest serverRequest) {
+        return Mono.deferContextual(context -> readValidRequest(serverRequest).publishOn(Schedulers.boundedElastic()).map(palindromeCheckRequest -> {
+            final PalindromeSubstring longest = palindromeCheckerService.findLongestPalindrome(palindromeCheckRequest.getText());
+            RequestContext.log(context, palindromeCheckRequest.getUsername(),
+                () -> log.info("For input text [{}] the longest palindrome is [{}]", palindromeCheckRequest.getText(), longest.getValue()));
+
+            // Copied so the cached value can never be modified through the response
+            final PalindromeSubstring longestPalindrome = PalindromeSubstring.builder()
+                .value(longest.getValue())
+                .start(longest.getStart())
+                .end(longest.getEnd())
+                .build();
+            return LongestPalindromeCheck.builder()
+                .text(palindromeCheckRequest.getText())
+                .longestPalindrome(longestPalindrome)
+                .id(RequestContext.requestId(context))
+                .build();
+        })).flatMap(longestPalindromeCheck -> ServerResponse.status(HttpStatus.CREATED).contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(longestPalindromeCheck));
+    }
+
+    public Mono<ServerResponse> checkPalindromeBatch(final ServerRequest serverRequest) {
+        return Mono.deferContextual(context -> serverRequest.bodyToMono(REQUEST_LIST)
+            .switchIfEmpty(Mono.error(() -> new BadRequestException(NOT_READABLE)))
+            .publishOn(Schedulers.boundedElastic())
+            .map(palindromeCheckRequests -> {
+                RequestContext.log(context, null, () -> log.trace("Check palindrome batch request with {} items", palindromeCheckRequests.size()));
+                return palindromeBatchChecker.check(RequestContext.requestId(context), palindromeCheckRequests);
+            }))
+            .flatMap(palindromeBatchCheck -> ServerResponse.status(HttpStatus.CREATED).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(palindromeBatchCheck));
+    }
+
+    /**
+     * Checks a newline delimited stream of requests, one result per non-blank line. Lines are pulled from the request
+     * only as fast as results are written, so a slow reader holds back the input rather than filling the heap.
+     */
+    public Mono<ServerResponse> checkPalindromeStream(final ServerRequest serverRequest) {
+        final int maxLineLength = palindromeStreamProcessor.getMaxLineLength();
+        final Flux<PalindromeBatchItem> results = serverRequest.bodyToFlux(String.class)
+            .index()
+            .filter(line -> line.getT2().length() > maxLineLength || !PalindromeStreamProcessor.isBlank(line.getT2()))
+            .publishOn(Schedulers.boundedElastic())
+            .map(line -> line.getT2().length() > maxLineLength
+                ? PalindromeBatchItem.builder().index(line.getT1().intValue()).error("The line exceeded " + maxLineLength + " characters.").build()
+                : palindromeStreamProcessor.check(line.getT1().intValue(), line.getT2()));
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(results, PalindromeBatchItem.class);
+    }
+
+    public Mono<ServerResponse> getCacheContents(final ServerRequest serverRequest) {
+        return Mono.defer(() -> {
+            final int pageLimit = serverRequest.queryParam("limit").map(PalindromeCheckerHandler::parseLimit).orElse(defaultCacheContentsLimit);
+            if (pageLimit < 1 || pageLimit > maxCacheContentsLimit) {
+                throw new BadRequestException(String.format("The limit must be between 1 and %d.", maxCacheContentsLimit));
+            }
+
+            final CachedResultsPage page = palindromeCheckerService.getCachedPalindromeResults(
+                PalindromeCheckerController.decodeCursor(serverRequest.queryParam("cursor").orElse(null)), pageLimit,
+                isPalindrome(serverRequest), serverRequest.queryParam("prefix").orElse(null));
+            final ServerResponse.BodyBuilder response = ServerResponse.ok().contentType(MediaType.APPLICATION_JSON);
+            if (nonNull(page.getLastText())) {
+                response.header(PalindromeCheckerController.NEXT_CURSOR_HEADER, PalindromeCheckerController.encodeCursor(page.getLastText()));
+            }
+            return response.bodyValue(page.getResults());
+        });
+    }
+
+    /**
+     * Streams every matching cached result as newline delimited JSON, read from the cache only as fast as it is sent.
+     */
+    public Mono<ServerResponse> streamCacheContents(final ServerRequest serverRequest) {
+        return Mono.defer(() -> {
+            final Boolean isPalindrome = isPalindrome(serverRequest);
+            final String prefix = serverRequest.queryParam("prefix").orElse(null);
+            final Flux<Map<String, Object>> results = Flux.fromStream(() -> palindromeCheckerService.streamCachedPalindromeResults(isPalindrome, prefix))
+                .map(entry -> {
+                    final Map<String, Object> result = new LinkedHashMap<>();
+                    result.put("text", entry.getKey());
+                    result.put("isPalindrome", entry.getValue());
+                    return result;
+                });
+            return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(results, Map.class);
+        });
+    }
+
+    /**
+     * Answers a failed request with the same error body as the servlet API.
+     */
+    public Mono<ServerResponse> handleError(final Throwable throwable, final ServerRequest serverRequest) {
+        return Mono.deferContextual(context -> {
+            final HttpStatus status;
+            final String message;
+            if (throwable instanceof BadRequestException || throwable instanceof ServerWebInputException) {
+                status = HttpStatus.BAD_REQUEST;
+                message = throwable instanceof BadRequestException ? throwable.getMessage() : NOT_READABLE;
+            } else if (throwable instanceof NotFoundException) {
+                status = HttpStatus.NOT_FOUND;
+                message = throwable.getMessage();
+            } else if (throwable instanceof PayloadTooLargeException) {
+                status = HttpStatus.PAYLOAD_TOO_LARGE;
+                message = throwable.getMessage();
+            } else if (throwable instanceof ServiceUnavailableException) {
+                status = HttpStatus.SERVICE_UNAVAILABLE;
+                message = throwable.getMessage();
+            } else if (throwable instanceof ResponseStatusException) {
+                status = ((ResponseStatusException) throwable).getStatus();
+                message = Optional.ofNullable(((ResponseStatusException) throwable).getReason()).orElse(status.getReasonPhrase());
+            } else {
+                status = HttpStatus.INTERNAL_SERVER_ERROR;
+                message = "Unexpected internal error.";
+            }
+
+            final ApiError apiError = ApiError.builder()
+                .id(RequestContext.requestId(context).toString())
+                .timestamp(Instant.now().toString())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .path(serverRequest.path())
+                .build();
+            RequestContext.log(context, null, () -> {
+                log.error("Error ID [{}] generated for exception [{}] caught when executing path [{}]. Exception message: [{}]",
+                    apiError.getId(), throwable.getClass().getName(), apiError.getPath(), throwable.toString());
+                log.error("Caught exception details:", throwable);
+            });
+            return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON).bodyValue(apiError);
+        });
+    }
+
+    private Mono<PalindromeCheckRequest> readValidRequest(final ServerRequest serverRequest) {
+        return serverRequest.bodyToMono(PalindromeCheckRequest.class)
+            .switchIfEmpty(Mono.error(() -> new BadRequestException(NOT_READABLE)))
+            .doOnNext(palindromeCheckRequest -> palindromeRequestValidator.validate(palindromeCheckRequest).ifPresent(error -> {
+                throw new BadRequestException(error);
+            }));
+    }
+
+    private static int parseLimit(final String limit) {
+        try {
+            return Integer.parseInt(limit);
+        } catch (final NumberFormatException ex) {
+            throw new BadRequestException("The limit must be a number.");
+        }
+    }
+
+    private static Boolean isPalindrome(final ServerRequest serverRequest) {
+        final String isPalindrome = serverRequest.queryParam("isPalindrome").orElse(null);
+        if (isNull(isPalindrome)) {
+            return null;
+        }
+        if (!"true".equalsIgnoreCase(isPalindrome) && !"false".equalsIgnoreCase(isPalindrome)) {
+            throw new BadRequestException("isPalindrome must be true or false.");
+        }
+        return Boolean.valueOf(isPalindrome);
+    }
+}
@@ -0,0 +1,52 @@
+package com.sarkesa.palindrome.api;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.reactive.server.ReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RequestPredicate;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+
+/**
+ * Routes the palindrome checker API to {@link PalindromeCheckerHandler} when the application runs on the reactive stack.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class PalindromeCheckerRouter {
+    static final String BASE_PATH = "/api/v1/palindrome";
+
+    /**
+     * Matches only clients that ask for newline delimited JSON by name, so one accepting anything gets a page of JSON.
+     */
+    private static final RequestPredicate ACCEPTS_NDJSON = serverRequest -> serverRequest.headers().accept().stream()
+        .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+
+    /**
+     * Serves the reactive stack from Netty. Tomcat stays on the classpath for the servlet stack, and Spring Boot would
+     * otherwise prefer it for a reactive application as well.
+     */
+    @Bean
+    public ReactiveWebServerFactory reactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> palindromeCheckerRoutes(final PalindromeCheckerHandler palindromeCheckerHandler) {
+        return RouterFunctions.route()
+            .path(BASE_PATH, builder -> builder
+                .POST("/check/batch", palindromeCheckerHandler::checkPalindromeBatch)
+                .POST("/check/stream", contentType(MediaType.APPLICATION_NDJSON), palindromeCheckerHandler::checkPalindromeStream)
+                .POST("/check", palindromeCheckerHandler::checkPalindrome)
+                .POST("/longest", palindromeCheckerHandler::findLongestPalindrome)
+                .GET("/cache-contents", ACCEPTS_NDJSON, palindromeCheckerHandler::streamCacheContents)
+                .GET("/cache-contents", palindromeCheckerHandler::getCacheContents))
+            .onError(Throwable.class, palindromeCheckerHandler::handleError)
+            .build();
+    }
+}
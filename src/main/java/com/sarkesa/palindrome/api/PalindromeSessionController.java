@@ -0,0 +1,89 @@
+package com.sarkesa.palindrome.api;
+
+import com.sarkesa.palindrome.model.PalindromeSessionAppendRequest;
+import com.sarkesa.palindrome.model.PalindromeSessionState;
+import com.sarkesa.palindrome.session.PalindromeSessionService;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+import java.util.UUID;
+
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RestController
+@RequestMapping(value = "/api/v1/palindrome/sessions", produces = MediaType.APPLICATION_JSON_VALUE)
+public class PalindromeSessionController {
+
+    private PalindromeSessionService palindromeSessionService;
+
+    public PalindromeSessionController(final PalindromeSessionService palindromeSessionService) {
+        this.palindromeSessionService = palindromeSessionService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Open a session that text can be appended to. Sessions left idle are closed automatically.")
+    public PalindromeSessionState openSession() {
+        final UUID requestId = UUID.randomUUID();
+        MDC.put("requestId", requestId.toString());
+
+        final PalindromeSessionState state = palindromeSessionService.open();
+        log.info("Opened palindrome session {}", state.getSessionId());
+        return withRequestId(state, requestId);
+    }
+
+    @PostMapping(value = "/{sessionId}/append", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Append text to a session and check if all the text appended so far is a palindrome. "
+        + "The cost depends only on the length of the appended text. The answer comes from rolling hashes, wrong with a chance "
+        + "of at most the text length in 2^61; get the session for an exact answer. Refused with 503 while the open sessions "
+        + "hold the maximum total text.")
+    public PalindromeSessionState append(@PathVariable final UUID sessionId,
+                                         @Valid @RequestBody final PalindromeSessionAppendRequest appendRequest) {
+        final UUID requestId = UUID.randomUUID();
+        MDC.put("requestId", requestId.toString());
+        log.trace("Append {} chars to session {}", appendRequest.getText().length(), sessionId);
+
+        final PalindromeSessionState state = palindromeSessionService.append(sessionId, appendRequest.getText());
+        log.info("Session {} of {} chars palindrome result: [{}]", sessionId, state.getLength(), state.getIsPalindrome());
+        return withRequestId(state, requestId);
+    }
+
+    @GetMapping("/{sessionId}")
+    @Operation(summary = "Check if the text appended to a session so far is a palindrome, confirming the hashes against the text")
+    public PalindromeSessionState getSession(@PathVariable final UUID sessionId) {
+        final UUID requestId = UUID.randomUUID();
+        MDC.put("requestId", requestId.toString());
+
+        return withRequestId(palindromeSessionService.get(sessionId), requestId);
+    }
+
+    @DeleteMapping("/{sessionId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "Close a session and discard its text")
+    public void closeSession(@PathVariable final UUID sessionId) {
+        MDC.put("requestId", UUID.randomUUID().toString());
+
+        palindromeSessionService.close(sessionId);
+        log.info("Closed palindrome session {}", sessionId);
+        MDC.clear();
+    }
+
+    private static PalindromeSessionState withRequestId(final PalindromeSessionState state, final UUID requestId) {
+        state.setId(requestId);
+        MDC.clear();
+        return state;
+    }
+}
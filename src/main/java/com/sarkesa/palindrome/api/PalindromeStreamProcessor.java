@@ -0,0 +1,152 @@
+package com.sarkesa.palindrome.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sarkesa.palindrome.model.PalindromeBatchItem;
+import com.sarkesa.palindrome.model.PalindromeCheckRequest;
+import com.sarkesa.palindrome.service.CostAwarePalindromeChecker;
+import com.sarkesa.palindrome.validation.PalindromeRequestValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Checks newline delimited JSON requests one line at a time. Only the current line is held in memory and each result is
+ * written as soon as it is known, so a slow reader on the response side stops the input being consumed rather than
+ * letting results pile up on the heap.
+ */
+@Slf4j
+@Component
+public class PalindromeStreamProcessor {
+    private static final int END_OF_STREAM = -1;
+
+    private final CostAwarePalindromeChecker costAwarePalindromeChecker;
+    private final PalindromeRequestValidator palindromeRequestValidator;
+    private final ObjectReader requestReader;
+    private final ObjectWriter resultWriter;
+    private final int maxLineLength;
+
+    public PalindromeStreamProcessor(final CostAwarePalindromeChecker costAwarePalindromeChecker,
+                                     final PalindromeRequestValidator palindromeRequestValidator,
+                                     final ObjectMapper objectMapper,
+                                     @Value("${stream.maxLineLength}") final int maxLineLength) {
+        this.costAwarePalindromeChecker = costAwarePalindromeChecker;
+        this.palindromeRequestValidator = palindromeRequestValidator;
+        this.requestReader = objectMapper.readerFor(PalindromeCheckRequest.class);
+        // The response must stay open between results and the processor decides when to flush
+        this.resultWriter = objectMapper.writerFor(PalindromeBatchItem.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Reads requests from the input until it is exhausted, writing one result line per non-blank input line.
+     *
+     * @return the number of results written
+     */
+    public long process(final InputStream inputStream, final OutputStream outputStream) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        final StringBuilder line = new StringBuilder();
+
+        int lineIndex = 0;
+        long resultCount = 0;
+        boolean moreLines = true;
+        while (moreLines) {
+            line.setLength(0);
+            moreLines = readLine(reader, line);
+            final boolean tooLong = line.length() > maxLineLength;
+
+            if (tooLong || !isBlank(line)) {
+                final PalindromeBatchItem result = tooLong
+                    ? PalindromeBatchItem.builder().index(lineIndex).error("The line exceeded " + maxLineLength + " characters.").build()
+                    : check(lineIndex, line.toString());
+                resultWriter.writeValue(writer, result);
+                writer.write('\n');
+                resultCount++;
+            }
+            lineIndex++;
+
+            // Flush whenever more input would have to be waited for, so results are delivered promptly without a flush per line
+            if (!reader.ready()) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return resultCount;
+    }
+
+    /**
+     * Checks one request line, reporting a line that cannot be parsed or is invalid as an error rather than failing.
+     */
+    PalindromeBatchItem check(final int lineIndex, final String line) {
+        final PalindromeBatchItem.PalindromeBatchItemBuilder result = PalindromeBatchItem.builder().index(lineIndex);
+
+        final PalindromeCheckRequest palindromeCheckRequest;
+        try {
+            palindromeCheckRequest = requestReader.readValue(line);
+        } catch (final JsonProcessingException ex) {
+            log.debug("Line {} could not be parsed: {}", lineIndex, ex.getOriginalMessage());
+            return result.error("Input message could not be read.").build();
+        }
+
+        final Optional<String> error = palindromeRequestValidator.validate(palindromeCheckRequest);
+        if (isNull(palindromeCheckRequest)) {
+            return result.error(error.orElseThrow()).build();
+        } else if (error.isPresent()) {
+            return result.text(palindromeCheckRequest.getText()).error(error.get()).build();
+        }
+        return result.text(palindromeCheckRequest.getText())
+            .isPalindrome(costAwarePalindromeChecker.isPalindrome(palindromeCheckRequest.getText()))
+            .build();
+    }
+
+    int getMaxLineLength() {
+        return maxLineLength;
+    }
+
+    /**
+     * Reads up to the next line break. Characters beyond one past the maximum line length are discarded so a single
+     * oversized line cannot exhaust the heap, while still marking the line as too long.
+     *
+     * @return false if the end of the stream was reached
+     */
+    private boolean readLine(final Reader reader, final StringBuilder line) throws IOException {
+        int next = reader.read();
+        while (next != END_OF_STREAM && next != '\n') {
+            if (next != '\r' && line.length() <= maxLineLength) {
+                line.append((char) next);
+            }
+            next = reader.read();
+        }
+        return next != END_OF_STREAM;
+    }
+
+    static boolean isBlank(final CharSequence line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (!Character.isWhitespace(line.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
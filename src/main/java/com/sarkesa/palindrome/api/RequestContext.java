@@ -0,0 +1,41 @@
+package com.sarkesa.palindrome.api;
+
+import org.slf4j.MDC;
+import reactor.util.context.ContextView;
+
+import java.util.UUID;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Carries the request ID through the Reactor context in the reactive API. A reactive request can move to another thread
+ * at every operator, so the ID cannot live in the MDC the way it does for a servlet request. It is copied into the MDC
+ * only for the duration of a log statement, so the log format is the same for both stacks.
+ */
+final class RequestContext {
+    static final String REQUEST_ID = "requestId";
+    static final String USER = "user";
+
+    private RequestContext() {
+    }
+
+    static UUID requestId(final ContextView context) {
+        return context.<UUID>getOrEmpty(REQUEST_ID).orElseGet(UUID::randomUUID);
+    }
+
+    /**
+     * Runs a log statement with the request ID, and the user when known, in the MDC.
+     */
+    static void log(final ContextView context, final String user, final Runnable statement) {
+        MDC.put(REQUEST_ID, requestId(context).toString());
+        if (nonNull(user)) {
+            MDC.put(USER, user);
+        }
+        try {
+            statement.run();
+        } finally {
+            MDC.remove(REQUEST_ID);
+            MDC.remove(USER);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.sarkesa.palindrome.api;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.UUID;
+
+/**
+ * Gives every reactive request a unique ID in its Reactor context. The ID is returned in the response and added to the
+ * logs for traceability, see {@link RequestContext}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class RequestIdWebFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        return chain.filter(exchange).contextWrite(Context.of(RequestContext.REQUEST_ID, UUID.randomUUID()));
+    }
+}
@@ -0,0 +1,229 @@
+package com.sarkesa.palindrome.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import static com.sarkesa.palindrome.cache.CacheConfig.PALINDROME_RESULTS_CACHE;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Periodically writes the results cache to a snapshot file so a restart can restore the hot set directly, in time
+ * proportional to the cache size rather than to the saved history. Entries are written coldest first, in the order the
+ * eviction policy ranks them, and restored in that order so the hottest entries end up the most recently used again.
+ *
+ * <p>The snapshot is a 4 byte magic number followed by one record per entry: the UTF-8 length as an int, the text and
+ * the result as a byte, ending with a record length of -1 and the CRC32 of every record. It is written beside the target
+ * and renamed into place, so a crash while checkpointing leaves the previous snapshot intact.
+ */
+@Slf4j
+@Component
+public class CacheCheckpointer {
+    static final int MAGIC = 0x50435331;
+    private static final int END_OF_RECORDS = -1;
+    private static final int MAX_TEXT_BYTES = 1 << 24;
+
+    private final CaffeineCacheManager cacheManager;
+    private final boolean enabled;
+    private final Path snapshotFile;
+    private final long intervalSeconds;
+    private final Timer checkpointDuration;
+    private ScheduledExecutorService checkpointScheduler;
+
+    public CacheCheckpointer(final CaffeineCacheManager cacheManager,
+                             @Value("${checkpoint.enabled}") final boolean enabled,
+                             @Value("${checkpoint.filePath}") final String snapshotFilePath,
+                             @Value("${checkpoint.intervalSeconds}") final long intervalSeconds,
+                             final MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.enabled = enabled;
+        this.snapshotFile = Path.of(snapshotFilePath);
+        this.intervalSeconds = intervalSeconds;
+        this.checkpointDuration = Timer.builder("palindrome.cache.checkpoint.duration")
+            .description("Time taken to write the results cache snapshot")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts checkpointing periodically. Called once warm-up has finished, so an empty cache never replaces a snapshot
+     * that has not been restored yet.
+     */
+    public synchronized void start() {
+        if (enabled && isNull(checkpointScheduler)) {
+            checkpointScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("palindrome-cache-checkpoint-"));
+            checkpointScheduler.scheduleWithFixedDelay(this::checkpointQuietly, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Writes the current contents of the results cache to the snapshot file.
+     *
+     * @return the number of entries written
+     */
+    public synchronized long checkpoint() throws IOException {
+        final Cache<Object, Object> cache = nativeCache();
+        if (isNull(cache)) {
+            return 0;
+        }
+
+        final long start = System.nanoTime();
+        final Path partialFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".partial");
+        final CRC32 crc = new CRC32();
+        final long written;
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(partialFile));
+             DataOutputStream records = new DataOutputStream(new CheckedOutputStream(outputStream, crc))) {
+            new DataOutputStream(outputStream).writeInt(MAGIC);
+            written = writeColdestFirst(cache, records);
+            records.writeInt(END_OF_RECORDS);
+            records.flush();
+            new DataOutputStream(outputStream).writeInt((int) crc.getValue());
+        }
+        Files.move(partialFile, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        checkpointDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.debug("Checkpointed {} cached results to [{}]", written, snapshotFile);
+        return written;
+    }
+
+    /**
+     * Reads the snapshot, coldest entry first. Nothing is passed on unless the whole snapshot is intact, so a damaged
+     * snapshot can be ignored in favour of the saved results.
+     *
+     * @return the number of entries read, or -1 if checkpointing is disabled or there is no intact snapshot
+     */
+    public long restore(final BiConsumer<String, Boolean> consumer) {
+        if (!enabled || !Files.isRegularFile(snapshotFile)) {
+            return -1;
+        }
+        try {
+            if (read(null) < 0) {
+                log.warn("Ignoring cache snapshot at [{}] as it is damaged", snapshotFile);
+                return -1;
+            }
+            return read(consumer);
+        } catch (final IOException ex) {
+            log.warn("Could not read cache snapshot at [{}]: {}", snapshotFile, ex.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Writes a final snapshot as the application stops, so the next start restores the latest hot set.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (nonNull(checkpointScheduler)) {
+            checkpointScheduler.shutdownNow();
+            checkpointQuietly();
+        }
+    }
+
+    private long read(final BiConsumer<String, Boolean> consumer) throws IOException {
+        final CRC32 crc = new CRC32();
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(snapshotFile));
+             DataInputStream records = new DataInputStream(new CheckedInputStream(inputStream, crc))) {
+            if (new DataInputStream(inputStream).readInt() != MAGIC) {
+                return -1;
+            }
+            long count = 0;
+            for (int length = records.readInt(); length != END_OF_RECORDS; length = records.readInt()) {
+                if (length < 0 || length > MAX_TEXT_BYTES) {
+                    return -1;
+                }
+                final byte[] text = new byte[length];
+                records.readFully(text);
+                final boolean result = records.readBoolean();
+                if (nonNull(consumer)) {
+                    consumer.accept(new String(text, StandardCharsets.UTF_8), result);
+                }
+                count++;
+            }
+            final int expectedCrc = (int) crc.getValue();
+            return new DataInputStream(inputStream).readInt() == expectedCrc ? count : -1;
+        } catch (final EOFException ex) {
+            return -1;
+        }
+    }
+
+    private void checkpointQuietly() {
+        try {
+            checkpoint();
+        } catch (final IOException | RuntimeException ex) {
+            log.error("Could not checkpoint the results cache to [{}]: {}", snapshotFile, ex.getMessage());
+        }
+    }
+
+    private Cache<Object, Object> nativeCache() {
+        final CaffeineCache caffeineCache = (CaffeineCache) cacheManager.getCache(PALINDROME_RESULTS_CACHE);
+        return isNull(caffeineCache) ? null : caffeineCache.getNativeCache();
+    }
+
+    /**
+     * Ranks entries by the eviction policy when there is one, streaming them rather than copying the cache.
+     * An unbounded cache has no ranking, so its entries are written in table order.
+     */
+    private static long writeColdestFirst(final Cache<Object, Object> cache, final DataOutputStream records) throws IOException {
+        final Optional<Policy.Eviction<Object, Object>> eviction = cache.policy().eviction();
+        try {
+            if (eviction.isPresent()) {
+                return eviction.get().coldest(entries -> writeRecords(entries.iterator(), records));
+            }
+            return writeRecords(cache.asMap().entrySet().iterator(), records);
+        } catch (final UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static long writeRecords(final Iterator<? extends Map.Entry<Object, Object>> entries, final DataOutputStream records) {
+        long written = 0;
+        try {
+            while (entries.hasNext()) {
+                final Map.Entry<Object, Object> entry = entries.next();
+                final byte[] text = ((String) entry.getKey()).getBytes(StandardCharsets.UTF_8);
+                records.writeInt(text.length);
+                records.write(text);
+                records.writeBoolean((Boolean) entry.getValue());
+                written++;
+            }
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return written;
+    }
+}
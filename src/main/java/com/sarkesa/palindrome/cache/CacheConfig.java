@@ -1,25 +1,91 @@
 package com.sarkesa.palindrome.cache;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.nonNull;
+
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CachePolicyProperties.class)
 public class CacheConfig {
     public static final String PALINDROME_RESULTS_CACHE = "palindromeCache";
+    public static final String LONGEST_PALINDROME_CACHE = "longestPalindromeCache";
+    public static final String CANONICAL_KEY_GENERATOR = "canonicalKeyGenerator";
 
+    /**
+     * Creates the application's caches and any other cache named in the properties, each with its own policy. Every
+     * cache coalesces concurrent loads of the same key, see {@link CoalescingCaffeineCache}.
+     */
     @Bean
-    public CaffeineCacheManager caffeineCacheManager(final Caffeine<Object, Object> caffeine) {
-        final CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(PALINDROME_RESULTS_CACHE);
-        caffeineCacheManager.setCaffeine(caffeine);
+    public CaffeineCacheManager caffeineCacheManager(final CachePolicyProperties cachePolicyProperties) {
+        final Set<String> cacheNames = new LinkedHashSet<>(Set.of(PALINDROME_RESULTS_CACHE, LONGEST_PALINDROME_CACHE));
+        cacheNames.addAll(cachePolicyProperties.getCaches().keySet());
+
+        final CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(final String name, final Cache<Object, Object> cache) {
+                return new CoalescingCaffeineCache(name, cache, isAllowNullValues());
+            }
+        };
+        caffeineCacheManager.setCacheNames(cacheNames);
+        final Map<String, CachePolicyProperties.Policy> policies = cachePolicyProperties.getCaches();
+        for (final String cacheName : cacheNames) {
+            caffeineCacheManager.registerCustomCache(cacheName, buildCache(policies.getOrDefault(cacheName, new CachePolicyProperties.Policy())));
+        }
         return caffeineCacheManager;
     }
 
-    @Bean
-    public Caffeine<Object, Object> caffeineConfig() {
-        return Caffeine.newBuilder().maximumSize(1000).recordStats();
+    @Bean(name = CANONICAL_KEY_GENERATOR)
+    public KeyGenerator canonicalKeyGenerator() {
+        return new CanonicalKeyGenerator();
+    }
+
+    static Cache<Object, Object> buildCache(final CachePolicyProperties.Policy policy) {
+        final Caffeine<Object, Object> caffeine = Caffeine.newBuilder().recordStats();
+        if (nonNull(policy.getInitialCapacity())) {
+            caffeine.initialCapacity(policy.getInitialCapacity());
+        }
+        if (nonNull(policy.getMaximumWeight())) {
+            caffeine.maximumWeight(policy.getMaximumWeight()).weigher(new CacheEntryWeigher());
+        }
+        if (nonNull(policy.getExpireAfterAccess())) {
+            caffeine.expireAfterAccess(policy.getExpireAfterAccess());
+        }
+        if (nonNull(policy.getExpireAfterWrite())) {
+            caffeine.expireAfterWrite(policy.getExpireAfterWrite());
+        }
+        if (nonNull(policy.getRefreshAfterWrite())) {
+            caffeine.refreshAfterWrite(policy.getRefreshAfterWrite());
+            return caffeine.build(new RenewingCacheLoader());
+        }
+        return caffeine.build();
+    }
+
+    /**
+     * Loads nothing, so a miss still falls through to the cached method, and renews an entry by keeping its value.
+     */
+    private static class RenewingCacheLoader implements CacheLoader<Object, Object> {
+
+        @Override
+        public Object load(final Object key) {
+            return null;
+        }
+
+        @Override
+        public Object reload(final Object key, final Object oldValue) {
+            return oldValue;
+        }
     }
 }
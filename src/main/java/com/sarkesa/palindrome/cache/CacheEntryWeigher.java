@@ -0,0 +1,33 @@
+package com.sarkesa.palindrome.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.sarkesa.palindrome.model.PalindromeSubstring;
+
+/**
+ * Weighs a cache entry by the heap it is estimated to retain, so a weight limit is a limit in bytes and a long text
+ * counts for more than a short one.
+ *
+ * <p>The fixed cost of an entry covers the Caffeine node with its expiry timestamps and links, the hash table node and
+ * slot, the frequency sketch and the key's String and array headers, and comes to about 160 bytes on a 64-bit JVM with
+ * compressed oops. Text is counted at two bytes per char, which is exact for UTF-16 strings and an upper bound for
+ * Latin-1 ones. Boolean results are shared instances and cost nothing more; a longest palindrome adds its own object
+ * and the String holding the substring.
+ */
+public class CacheEntryWeigher implements Weigher<Object, Object> {
+    static final int ENTRY_OVERHEAD_BYTES = 160;
+    private static final int STRING_OVERHEAD_BYTES = 40;
+    private static final int SUBSTRING_OVERHEAD_BYTES = 24;
+
+    @Override
+    public int weigh(final Object key, final Object value) {
+        long weight = ENTRY_OVERHEAD_BYTES + textBytes(key);
+        if (value instanceof PalindromeSubstring) {
+            weight += SUBSTRING_OVERHEAD_BYTES + STRING_OVERHEAD_BYTES + textBytes(((PalindromeSubstring) value).getValue());
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    private static long textBytes(final Object text) {
+        return text instanceof CharSequence ? 2L * ((CharSequence) text).length() : 0;
+    }
+}
@@ -0,0 +1,63 @@
+package com.sarkesa.palindrome.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.stereotype.Component;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Adds the meters Spring Boot does not derive from Caffeine's statistics. Boot already publishes cache.gets by hit and
+ * miss, cache.puts, cache.evictions, cache.eviction.weight and cache.size for every cache; this adds the hit ratio, the
+ * misses coalesced into a load already in flight and, for caches limited by weight, the estimated bytes currently held.
+ *
+ * <p>The hit ratio covers everything since startup. For a recent ratio, divide the rates of cache.gets with
+ * result=hit by all cache.gets in the monitoring system.
+ */
+@Component
+public class CacheMetrics implements MeterBinder {
+    private final CaffeineCacheManager cacheManager;
+
+    public CacheMetrics(final CaffeineCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry meterRegistry) {
+        for (final String cacheName : cacheManager.getCacheNames()) {
+            final CaffeineCache caffeineCache = (CaffeineCache) cacheManager.getCache(cacheName);
+            if (nonNull(caffeineCache)) {
+                bind(meterRegistry, cacheName, caffeineCache.getNativeCache());
+            }
+            if (caffeineCache instanceof CoalescingCaffeineCache) {
+                FunctionCounter.builder("cache.coalesced", (CoalescingCaffeineCache) caffeineCache, CoalescingCaffeineCache::coalescedCount)
+                    .description("Cache misses that waited for a load of the same key already in flight instead of loading it again")
+                    .tags("cache", cacheName)
+                    .register(meterRegistry);
+            }
+        }
+    }
+
+    private static void bind(final MeterRegistry meterRegistry, final String cacheName, final Cache<Object, Object> cache) {
+        final Tags tags = Tags.of("cache", cacheName);
+        Gauge.builder("cache.hit.ratio", cache, nativeCache -> nativeCache.stats().hitRate())
+            .description("Share of cache lookups that found a result, since startup")
+            .tags(tags)
+            .register(meterRegistry);
+
+        cache.policy().eviction()
+            .filter(Policy.Eviction::isWeighted)
+            .ifPresent(eviction -> Gauge.builder("cache.weighted.size", eviction, current -> current.weightedSize().orElse(0L))
+                .description("Estimated bytes held by the cache, as weighed against its maximum weight")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,41 @@
+package com.sarkesa.palindrome.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Eviction policy for each named cache, bound from cache.caches.&lt;name&gt;.* so every cache can be tuned on its own.
+ * A setting left out is not applied, e.g. no expire-after-write means entries only expire when they go unused.
+ */
+@Data
+@ConfigurationProperties(prefix = "cache")
+public class CachePolicyProperties {
+    private Map<String, Policy> caches = new LinkedHashMap<>();
+
+    @Data
+    public static class Policy {
+        /**
+         * Number of entries to size the table for at startup, avoiding resizes while the cache fills.
+         */
+        private Integer initialCapacity;
+
+        /**
+         * Estimated bytes the cache may hold before it evicts, as weighed by {@link CacheEntryWeigher}.
+         */
+        private Long maximumWeight;
+
+        private Duration expireAfterAccess;
+
+        private Duration expireAfterWrite;
+
+        /**
+         * Age after which a read renews an entry. Cached results never change, so renewing keeps the current value and
+         * only restarts its write timer, letting entries that are still read outlive expire-after-write.
+         */
+        private Duration refreshAfterWrite;
+    }
+}
@@ -0,0 +1,37 @@
+package com.sarkesa.palindrome.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports cache warm-up progress, and that of loading the result index after it. Warm-up only makes early requests
+ * faster, so by default the application is ready while it runs; set warmup.requiredForReadiness to hold traffic back
+ * until the cache is warm. Loading the index never holds traffic back.
+ */
+@Component
+public class CacheWarmUpHealthIndicator implements HealthIndicator {
+    private final CacheWarmer cacheWarmer;
+    private final boolean requiredForReadiness;
+
+    public CacheWarmUpHealthIndicator(final CacheWarmer cacheWarmer,
+                                      @Value("${warmup.requiredForReadiness}") final boolean requiredForReadiness) {
+        this.cacheWarmer = cacheWarmer;
+        this.requiredForReadiness = requiredForReadiness;
+    }
+
+    @Override
+    public Health health() {
+        final CacheWarmer.State state = cacheWarmer.getState();
+        final Health.Builder health = requiredForReadiness && state != CacheWarmer.State.COMPLETED ? Health.outOfService() : Health.up();
+        return health
+            .withDetail("state", state)
+            .withDetail("source", cacheWarmer.getSource())
+            .withDetail("loaded", cacheWarmer.getLoaded())
+            .withDetail("limit", cacheWarmer.getLimit())
+            .withDetail("resultIndex", cacheWarmer.getIndexState())
+            .withDetail("indexed", cacheWarmer.getIndexed())
+            .build();
+    }
+}
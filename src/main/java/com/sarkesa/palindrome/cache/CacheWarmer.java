@@ -0,0 +1,161 @@
+package com.sarkesa.palindrome.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.sarkesa.palindrome.persistence.PalindromeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.sarkesa.palindrome.cache.CacheConfig.PALINDROME_RESULTS_CACHE;
+import static com.sarkesa.palindrome.engine.CaseFolding.canonicalize;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Loads results into the results cache on a background thread once the application is ready, so startup does not wait
+ * for a file to be read and requests are served while warm-up runs. The last cache snapshot is restored when there is
+ * one, see {@link CacheCheckpointer}; otherwise only as many of the most recent saved results as the cache can hold are
+ * loaded. Results already cached by live requests are left alone, and results saved before keys were canonical are
+ * folded on the way in. Once the cache is warm, checkpoints start and then every saved result is loaded into the
+ * {@link OffHeapResultIndex} when it is enabled. Loading the index reads the whole file, so it is reported on its own
+ * and does not hold back the checkpoints or the warm-up state.
+ */
+@Slf4j
+@Component
+public class CacheWarmer {
+
+    public enum State {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+
+    public enum Source {
+        NONE, SNAPSHOT, REPOSITORY
+    }
+
+    private final CaffeineCacheManager cacheManager;
+    private final PalindromeRepository palindromeRepository;
+    private final CacheCheckpointer cacheCheckpointer;
+    private final OffHeapResultIndex resultIndex;
+    private final AtomicLong loaded = new AtomicLong();
+    private volatile State state = State.PENDING;
+    private volatile State indexState = State.PENDING;
+    private volatile Source source = Source.NONE;
+    private volatile long limit;
+
+    public CacheWarmer(final CaffeineCacheManager cacheManager,
+                       final PalindromeRepository palindromeRepository,
+                       final CacheCheckpointer cacheCheckpointer,
+                       final OffHeapResultIndex resultIndex) {
+        this.cacheManager = cacheManager;
+        this.palindromeRepository = palindromeRepository;
+        this.cacheCheckpointer = cacheCheckpointer;
+        this.resultIndex = resultIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWarmUp() {
+        final Thread warmUpThread = new Thread(this::warmUp, "palindrome-cache-warm-up");
+        warmUpThread.setDaemon(true);
+        warmUpThread.start();
+    }
+
+    void warmUp() {
+        warmCache();
+        cacheCheckpointer.start();
+        loadResultIndex();
+    }
+
+    private void warmCache() {
+        final CaffeineCache caffeineCache = (CaffeineCache) cacheManager.getCache(PALINDROME_RESULTS_CACHE);
+        if (isNull(caffeineCache)) {
+            state = State.COMPLETED;
+            return;
+        }
+
+        final Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+        limit = nativeCache.policy().eviction().map(CacheWarmer::entryLimit).orElse((long) Integer.MAX_VALUE);
+        state = State.RUNNING;
+        final long start = System.nanoTime();
+        try {
+            final long restored = cacheCheckpointer.restore((text, result) -> {
+                nativeCache.asMap().putIfAbsent(text, result);
+                loaded.incrementAndGet();
+            });
+            if (restored >= 0) {
+                source = Source.SNAPSHOT;
+            } else {
+                source = Source.REPOSITORY;
+                palindromeRepository.forEachRecent((int) Math.min(limit, Integer.MAX_VALUE), palindromeCheck -> {
+                    nativeCache.asMap().putIfAbsent(canonicalize(palindromeCheck.getText()), palindromeCheck.getIsPalindrome());
+                    loaded.incrementAndGet();
+                });
+            }
+            state = State.COMPLETED;
+            log.info("Cache warm-up loaded {} results from the {} in {} ms", loaded.get(), source.name().toLowerCase(Locale.ROOT),
+                (System.nanoTime() - start) / 1_000_000);
+        } catch (final RuntimeException ex) {
+            state = State.FAILED;
+            log.error("Cache warm-up failed after loading {} results: {}", loaded.get(), ex.getMessage());
+        }
+    }
+
+    private void loadResultIndex() {
+        if (!resultIndex.isEnabled()) {
+            indexState = State.COMPLETED;
+            return;
+        }
+        indexState = State.RUNNING;
+        final long start = System.nanoTime();
+        try {
+            palindromeRepository.forEachSaved(palindromeCheck -> {
+                if (nonNull(palindromeCheck.getText()) && nonNull(palindromeCheck.getIsPalindrome())) {
+                    resultIndex.put(canonicalize(palindromeCheck.getText()), palindromeCheck.getIsPalindrome());
+                }
+            });
+            indexState = State.COMPLETED;
+            log.info("Result index loaded {} results in {} ms", resultIndex.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (final RuntimeException ex) {
+            indexState = State.FAILED;
+            log.error("Result index loading failed after {} results: {}", resultIndex.size(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Returns the most entries the cache can hold. A weight limit is in estimated bytes, so it is divided by the weight
+     * of the smallest possible entry.
+     */
+    private static long entryLimit(final Policy.Eviction<Object, Object> eviction) {
+        return eviction.isWeighted() ? eviction.getMaximum() / CacheEntryWeigher.ENTRY_OVERHEAD_BYTES : eviction.getMaximum();
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public State getIndexState() {
+        return indexState;
+    }
+
+    public long getIndexed() {
+        return resultIndex.size();
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public long getLoaded() {
+        return loaded.get();
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+}
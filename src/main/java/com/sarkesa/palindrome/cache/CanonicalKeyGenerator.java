@@ -0,0 +1,23 @@
+package com.sarkesa.palindrome.cache;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+
+import java.lang.reflect.Method;
+
+import static com.sarkesa.palindrome.engine.CaseFolding.canonicalize;
+
+/**
+ * Keys a cached call on the canonical form of its text, so inputs that differ only by case share one entry.
+ * Calls with any other parameters are keyed as {@link SimpleKeyGenerator} would key them.
+ */
+public class CanonicalKeyGenerator implements KeyGenerator {
+
+    @Override
+    public Object generate(final Object target, final Method method, final Object... params) {
+        if (params.length == 1 && params[0] instanceof String) {
+            return canonicalize((String) params[0]);
+        }
+        return SimpleKeyGenerator.generateKey(params);
+    }
+}
@@ -0,0 +1,101 @@
+package com.sarkesa.palindrome.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Caffeine cache that loads a missing key once however many callers miss it at the same time. The first caller to miss
+ * a key loads it, and callers that miss the same key while that load is in flight wait for its value instead of loading
+ * it again, so a burst of identical requests computes and saves one result. Loads run outside Caffeine's own locks, so a
+ * slow load only holds up the callers waiting for the same key.
+ *
+ * <p>Cached methods marked sync are sent by Spring to {@link #get(Object, Callable)} rather than a lookup followed by a
+ * put. A loaded value is put in the cache before its flight is cleared, so a caller arriving at any point finds the value
+ * in one or the other.
+ */
+public class CoalescingCaffeineCache extends CaffeineCache {
+    private final ConcurrentMap<Object, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    public CoalescingCaffeineCache(final String name, final Cache<Object, Object> cache, final boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Object key, final Callable<T> valueLoader) {
+        final Object cached = lookup(key);
+        if (nonNull(cached)) {
+            return (T) fromStoreValue(cached);
+        }
+        return load(key, valueLoader);
+    }
+
+    /**
+     * Loads a key the caller has already found missing, or waits for the load of it already in flight. Unlike
+     * {@link #get(Object, Callable)} it does not look the key up first, so the miss is not counted twice.
+     *
+     * @throws ValueRetrievalException if the loader failed, for this caller and every caller waiting on it
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(final Object key, final Callable<T> valueLoader) {
+        final CompletableFuture<Object> flight = new CompletableFuture<>();
+        final CompletableFuture<Object> inFlight = flights.putIfAbsent(key, flight);
+        if (nonNull(inFlight)) {
+            coalesced.increment();
+            return (T) fromStoreValue(await(inFlight));
+        }
+
+        try {
+            // A load that finished after the caller's lookup has already put the value, without counting a lookup
+            Object value = getNativeCache().asMap().get(key);
+            if (isNull(value)) {
+                value = toStoreValue(call(key, valueLoader));
+                getNativeCache().put(key, value);
+            }
+            flight.complete(value);
+            return (T) fromStoreValue(value);
+        } catch (final RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * Counts the callers that waited for another caller's load of the same key instead of loading it themselves.
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    private static Object call(final Object key, final Callable<?> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (final Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+    }
+
+    private static Object await(final CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (final CompletionException ex) {
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw (RuntimeException) ex.getCause();
+        }
+    }
+}
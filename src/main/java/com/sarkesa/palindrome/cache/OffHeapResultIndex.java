@@ -0,0 +1,353 @@
+package com.sarkesa.palindrome.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.concurrent.locks.StampedLock;
+
+import static com.sarkesa.palindrome.engine.TextHash.hash;
+
+/**
+ * Second tier behind the results cache that keeps every result computed available, however many there are, without
+ * adding to the heap. A result evicted from the cache is found here instead of being evaluated and saved again.
+ *
+ * <p>The index is an open addressing table with linear probing. Each slot is a long packing a 24 bit fingerprint of the
+ * key's hash with the offset of the key in a separate key area, so most probes that land on another key are rejected
+ * without reading it. A key is stored as a two byte header holding its length followed by its chars, one byte per char
+ * when every char fits in a byte. The result is a single bit per slot in a bit set beside the table. Slots, keys and bits
+ * live in direct buffers split into segments, so the index can outgrow the 2 GB limit of one buffer and gives the garbage
+ * collector nothing to trace.
+ *
+ * <p>The table is sized once for the configured capacity, at most three quarters full, and never resized. Results beyond
+ * the capacity or beyond the space for keys are not indexed and are counted as rejected. Lookups share a read lock and
+ * do not allocate.
+ */
+@Component
+public class OffHeapResultIndex {
+    static final int DEFAULT_SEGMENT_BYTES = 1 << 30;
+    static final int MAX_KEY_LENGTH = 0x7FFF;
+    private static final int HEADER_BYTES = Character.BYTES;
+    private static final int ONE_BYTE_CHARS = 0x8000;
+    private static final int MAX_ONE_BYTE_CHAR = 0xFF;
+    private static final int FINGERPRINT_SHIFT = 40;
+    private static final long OFFSET_MASK = (1L << FINGERPRINT_SHIFT) - 1;
+    private static final long EMPTY = 0;
+
+    private final boolean enabled;
+    private final long capacity;
+    private final long slotMask;
+    private final LongSegments slots;
+    private final LongSegments resultBits;
+    private final ByteSegments keys;
+    private final StampedLock lock = new StampedLock();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter rejected;
+    private volatile long size;
+    private volatile long keyBytesUsed;
+
+    @Autowired
+    public OffHeapResultIndex(@Value("${resultIndex.enabled}") final boolean enabled,
+                              @Value("${resultIndex.capacity}") final long capacity,
+                              @Value("${resultIndex.keyBytes}") final long keyBytes,
+                              final MeterRegistry meterRegistry) {
+        this(enabled, capacity, keyBytes, DEFAULT_SEGMENT_BYTES, meterRegistry);
+    }
+
+    /**
+     * Creates an index with segments of the given size, so tests can span several segments without reserving gigabytes.
+     *
+     * @param segmentBytes the size of each direct buffer, a power of two large enough for the longest key
+     */
+    OffHeapResultIndex(final boolean enabled, final long capacity, final long keyBytes, final int segmentBytes, final MeterRegistry meterRegistry) {
+        if (enabled && (capacity <= 0 || keyBytes <= 0 || keyBytes > OFFSET_MASK)) {
+            throw new IllegalArgumentException("The result index needs a positive capacity and at most " + OFFSET_MASK + " key bytes");
+        }
+        if (Integer.bitCount(segmentBytes) != 1 || segmentBytes < HEADER_BYTES + MAX_KEY_LENGTH * Character.BYTES) {
+            throw new IllegalArgumentException("Segments must be a power of two that can hold the longest key");
+        }
+        this.enabled = enabled;
+        this.capacity = enabled ? capacity : 0;
+        final long slotCount = enabled ? Long.highestOneBit(capacity * 4 / 3) << 1 : 0;
+        this.slotMask = slotCount - 1;
+        this.slots = new LongSegments(slotCount, segmentBytes);
+        this.resultBits = new LongSegments((slotCount + Long.SIZE - 1) / Long.SIZE, segmentBytes);
+        this.keys = new ByteSegments(enabled ? keyBytes : 0, segmentBytes);
+
+        this.hits = Counter.builder("palindrome.cache.index.gets")
+            .description("Lookups in the off-heap result index")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.misses = Counter.builder("palindrome.cache.index.gets")
+            .description("Lookups in the off-heap result index")
+            .tag("result", "miss")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("palindrome.cache.index.rejected")
+            .description("Results not indexed because the index was full")
+            .register(meterRegistry);
+        Gauge.builder("palindrome.cache.index.size", this, OffHeapResultIndex::size)
+            .description("Results held by the off-heap result index")
+            .register(meterRegistry);
+        Gauge.builder("palindrome.cache.index.capacity", this, OffHeapResultIndex::capacity)
+            .description("Results the off-heap result index can hold")
+            .register(meterRegistry);
+        Gauge.builder("palindrome.cache.index.memory", this, OffHeapResultIndex::memoryBytes)
+            .description("Direct memory reserved by the off-heap result index")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("palindrome.cache.index.key.bytes", this, OffHeapResultIndex::keyBytesUsed)
+            .description("Direct memory used by keys in the off-heap result index")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * An index that holds nothing and reserves no memory, with metrics that are not published, for use outside Spring.
+     */
+    public static OffHeapResultIndex disabled() {
+        return new OffHeapResultIndex(false, 0, 0, new SimpleMeterRegistry());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Looks up the result for a canonical text.
+     *
+     * @return the result, or null if the text is not indexed
+     */
+    public Boolean get(final String text) {
+        if (!enabled) {
+            return null;
+        }
+        final long hash = hash(text);
+        final long stamp = lock.readLock();
+        try {
+            final long slot = find(text, hash);
+            if (slot < 0) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return (resultBits.get(slot / Long.SIZE) & resultBit(slot)) != 0;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Indexes the result for a canonical text, replacing any result already indexed for it.
+     *
+     * @return false if the index is disabled or has no room for the text
+     */
+    public boolean put(final String text, final boolean result) {
+        if (!enabled) {
+            return false;
+        }
+        final long hash = hash(text);
+        final long stamp = lock.writeLock();
+        try {
+            long slot = find(text, hash);
+            if (slot < 0) {
+                final long keyOffset = size < capacity ? appendKey(text) : -1;
+                if (keyOffset < 0) {
+                    rejected.increment();
+                    return false;
+                }
+                slot = -slot - 1;
+                // The offset is stored plus one so an occupied slot is never empty
+                slots.set(slot, (hash >>> FINGERPRINT_SHIFT << FINGERPRINT_SHIFT) | (keyOffset + 1));
+                size++;
+            }
+            final long word = resultBits.get(slot / Long.SIZE);
+            resultBits.set(slot / Long.SIZE, result ? word | resultBit(slot) : word & ~resultBit(slot));
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public long memoryBytes() {
+        return slots.bytes() + resultBits.bytes() + keys.bytes();
+    }
+
+    public long keyBytesUsed() {
+        return keyBytesUsed;
+    }
+
+    /**
+     * Probes from the slot chosen by the hash until the text or an empty slot is found. The table is never more than
+     * three quarters full, so an empty slot is always reached.
+     *
+     * @return the slot holding the text, or minus one minus the empty slot where it belongs
+     */
+    private long find(final String text, final long hash) {
+        final long fingerprint = hash >>> FINGERPRINT_SHIFT;
+        for (long slot = hash & slotMask; ; slot = (slot + 1) & slotMask) {
+            final long entry = slots.get(slot);
+            if (entry == EMPTY) {
+                return -slot - 1;
+            }
+            if (entry >>> FINGERPRINT_SHIFT == fingerprint && keyEquals((entry & OFFSET_MASK) - 1, text)) {
+                return slot;
+            }
+        }
+    }
+
+    private boolean keyEquals(final long offset, final String text) {
+        final int header = keys.getChar(offset);
+        if ((header & MAX_KEY_LENGTH) != text.length()) {
+            return false;
+        }
+        final long start = offset + HEADER_BYTES;
+        final boolean oneByteChars = (header & ONE_BYTE_CHARS) != 0;
+        for (int i = 0; i < text.length(); i++) {
+            final char stored = oneByteChars ? (char) (keys.get(start + i) & MAX_ONE_BYTE_CHAR) : keys.getChar(start + (long) i * Character.BYTES);
+            if (stored != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies the text to the end of the key area, starting a new segment if it would not fit in the current one.
+     *
+     * @return the offset of the key, or -1 if it is too long or the key area is full
+     */
+    private long appendKey(final String text) {
+        if (text.length() > MAX_KEY_LENGTH) {
+            return -1;
+        }
+        boolean oneByteChars = true;
+        for (int i = 0; i < text.length() && oneByteChars; i++) {
+            oneByteChars = text.charAt(i) <= MAX_ONE_BYTE_CHAR;
+        }
+        final int length = HEADER_BYTES + text.length() * (oneByteChars ? 1 : Character.BYTES);
+        long offset = keyBytesUsed;
+        if (!keys.fitsInSegment(offset, length)) {
+            offset = keys.nextSegment(offset);
+        }
+        if (offset + length > keys.bytes()) {
+            return -1;
+        }
+
+        keys.putChar(offset, (char) (text.length() | (oneByteChars ? ONE_BYTE_CHARS : 0)));
+        final long start = offset + HEADER_BYTES;
+        for (int i = 0; i < text.length(); i++) {
+            if (oneByteChars) {
+                keys.put(start + i, (byte) text.charAt(i));
+            } else {
+                keys.putChar(start + (long) i * Character.BYTES, text.charAt(i));
+            }
+        }
+        keyBytesUsed = offset + length;
+        return offset;
+    }
+
+    private static long resultBit(final long slot) {
+        return 1L << (slot % Long.SIZE);
+    }
+
+    private static ByteBuffer allocate(final long bytes) {
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * An array of longs in direct buffers of at most one segment each.
+     */
+    private static final class LongSegments {
+        private final LongBuffer[] segments;
+        private final int shift;
+        private final long mask;
+        private final long length;
+
+        LongSegments(final long length, final int segmentBytes) {
+            final int perSegment = segmentBytes / Long.BYTES;
+            this.shift = Integer.numberOfTrailingZeros(perSegment);
+            this.mask = perSegment - 1;
+            this.length = length;
+            this.segments = new LongBuffer[(int) ((length + perSegment - 1) / perSegment)];
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = allocate(Math.min(length - (long) i * perSegment, perSegment) * Long.BYTES).asLongBuffer();
+            }
+        }
+
+        long get(final long index) {
+            return segments[(int) (index >>> shift)].get((int) (index & mask));
+        }
+
+        void set(final long index, final long value) {
+            segments[(int) (index >>> shift)].put((int) (index & mask), value);
+        }
+
+        long bytes() {
+            return length * Long.BYTES;
+        }
+    }
+
+    /**
+     * A byte array in direct buffers of at most one segment each. A value never spans two segments.
+     */
+    private static final class ByteSegments {
+        private final ByteBuffer[] segments;
+        private final int shift;
+        private final long mask;
+        private final long length;
+
+        ByteSegments(final long length, final int segmentBytes) {
+            this.shift = Integer.numberOfTrailingZeros(segmentBytes);
+            this.mask = segmentBytes - 1;
+            this.length = length;
+            this.segments = new ByteBuffer[(int) ((length + segmentBytes - 1) / segmentBytes)];
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = allocate(Math.min(length - (long) i * segmentBytes, segmentBytes));
+            }
+        }
+
+        byte get(final long offset) {
+            return segments[(int) (offset >>> shift)].get((int) (offset & mask));
+        }
+
+        char getChar(final long offset) {
+            return segments[(int) (offset >>> shift)].getChar((int) (offset & mask));
+        }
+
+        void put(final long offset, final byte value) {
+            segments[(int) (offset >>> shift)].put((int) (offset & mask), value);
+        }
+
+        void putChar(final long offset, final char value) {
+            segments[(int) (offset >>> shift)].putChar((int) (offset & mask), value);
+        }
+
+        boolean fitsInSegment(final long offset, final int bytes) {
+            return (offset & mask) + bytes <= mask + 1;
+        }
+
+        long nextSegment(final long offset) {
+            return (offset | mask) + 1;
+        }
+
+        long bytes() {
+            return length;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.sarkesa.palindrome.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.sarkesa.palindrome.engine.TextHash.hash;
+import static java.util.Objects.nonNull;
+
+/**
+ * Result cache shared by every instance of the application on the host, through a memory-mapped file they all open.
+ * A result computed by one instance is found by the others without a network call, so the work and the memory are not
+ * repeated per instance. The file outlives the instances, so results also survive restarts.
+ *
+ * <p>The file is a header followed by fixed size slots, each a state word, the key length and the key's chars. Slots are
+ * claimed lock free: a writer moves an empty state word to writing with a compare and set, writes the key, then
+ * publishes the result by storing a ready state with release semantics. Readers load the state word with acquire
+ * semantics, so a ready slot's key is always complete. The state word also holds 62 bits of the key's hash, so a probe
+ * only compares keys when the hashes match. Slots are never removed; a key found in no slot within a bounded number of
+ * probes is simply not shared. A process that dies between claiming and publishing a slot leaves it unusable, which
+ * costs one slot, and writers of a text with the same hash wait only briefly for it before moving on.
+ *
+ * <p>The file is locked only while it is created or checked, so instances that disagree on its geometry fail at startup
+ * rather than reading each other's slots wrongly. The mapping is limited to 2 GB, which holds over 10 million results of
+ * 64 chars.
+ */
+@Slf4j
+@Component
+public class SharedResultCache {
+    static final long MAGIC = 0x50414C5348433031L;
+    static final int HEADER_BYTES = 64;
+    private static final int SLOTS_OFFSET = 8;
+    private static final int MAX_KEY_LENGTH_OFFSET = 16;
+    private static final int SIZE_OFFSET = 24;
+    private static final int KEY_LENGTH_OFFSET = Long.BYTES;
+    private static final int KEY_OFFSET = KEY_LENGTH_OFFSET + Character.BYTES;
+    private static final int MAX_PROBES = 32;
+    private static final int MAX_SPINS = 1 << 16;
+    private static final int STATE_BITS = 2;
+    private static final long STATE_MASK = (1L << STATE_BITS) - 1;
+    private static final long EMPTY = 0;
+    private static final long WRITING = 1;
+    private static final long FALSE_RESULT = 2;
+    private static final long TRUE_RESULT = 3;
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final boolean enabled;
+    private final Path file;
+    private final long slotCount;
+    private final long slotMask;
+    private final int maxKeyLength;
+    private final int slotBytes;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter full;
+
+    @Autowired
+    public SharedResultCache(@Value("${sharedCache.enabled}") final boolean enabled,
+                             @Value("${sharedCache.filePath}") final String filePath,
+                             @Value("${sharedCache.slots}") final long slots,
+                             @Value("${sharedCache.maxKeyLength}") final int maxKeyLength,
+                             final MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.file = Path.of(filePath);
+        this.slotCount = enabled ? Long.highestOneBit(Math.max(1, slots - 1)) << 1 : 0;
+        this.slotMask = slotCount - 1;
+        this.maxKeyLength = maxKeyLength;
+        // Rounded up so every state word is aligned for compare and set
+        this.slotBytes = (KEY_OFFSET + maxKeyLength * Character.BYTES + Long.BYTES - 1) / Long.BYTES * Long.BYTES;
+
+        if (enabled) {
+            if (maxKeyLength <= 0 || maxKeyLength > Character.MAX_VALUE || HEADER_BYTES + slotCount * slotBytes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The shared cache needs a positive key length and must map at most 2 GB");
+            }
+            try {
+                this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                this.buffer = mapAndCheck();
+            } catch (final IOException ex) {
+                throw new UncheckedIOException("Could not open the shared cache at [" + file + "]", ex);
+            }
+            log.info("Shared result cache at [{}] holds {} of {} slots", file, size(), slotCount);
+        } else {
+            this.channel = null;
+            this.buffer = null;
+        }
+
+        this.hits = Counter.builder("palindrome.cache.shared.gets")
+            .description("Lookups in the result cache shared between instances on the host")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.misses = Counter.builder("palindrome.cache.shared.gets")
+            .description("Lookups in the result cache shared between instances on the host")
+            .tag("result", "miss")
+            .register(meterRegistry);
+        this.full = Counter.builder("palindrome.cache.shared.full")
+            .description("Results not shared because no free slot was found near their hash")
+            .register(meterRegistry);
+        Gauge.builder("palindrome.cache.shared.size", this, SharedResultCache::size)
+            .description("Results held by the shared cache, written by any instance")
+            .register(meterRegistry);
+        Gauge.builder("palindrome.cache.shared.slots", this, SharedResultCache::slots)
+            .description("Slots in the shared cache")
+            .register(meterRegistry);
+    }
+
+    /**
+     * A cache that shares nothing and maps no file, with metrics that are not published, for use outside Spring.
+     */
+    public static SharedResultCache disabled() {
+        return new SharedResultCache(false, "", 0, 1, new SimpleMeterRegistry());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Looks up the result for a canonical text written by any instance.
+     *
+     * @return the result, or null if no instance has shared it yet
+     */
+    public Boolean get(final String text) {
+        if (!enabled || text.length() > maxKeyLength) {
+            return null;
+        }
+        final long hash = hash(text);
+        final long fingerprint = hash & ~STATE_MASK;
+        long slot = hash & slotMask;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            final int offset = slotOffset(slot);
+            final long state = (long) LONGS.getAcquire(buffer, offset);
+            if (state == EMPTY) {
+                break;
+            }
+            if (isReady(state, fingerprint) && keyEquals(offset, text)) {
+                hits.increment();
+                return (state & STATE_MASK) == TRUE_RESULT;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Shares the result for a canonical text. Results never change, so a text already shared is left as it is.
+     *
+     * @return true if the result is now shared
+     */
+    public boolean put(final String text, final boolean result) {
+        if (!enabled || text.length() > maxKeyLength) {
+            return false;
+        }
+        final long hash = hash(text);
+        final long fingerprint = hash & ~STATE_MASK;
+        long slot = hash & slotMask;
+        int probe = 0;
+        int spins = 0;
+        while (probe < MAX_PROBES) {
+            final int offset = slotOffset(slot);
+            final long state = (long) LONGS.getAcquire(buffer, offset);
+            if (state == EMPTY) {
+                if (LONGS.compareAndSet(buffer, offset, EMPTY, fingerprint | WRITING)) {
+                    writeKey(offset, text);
+                    LONGS.setRelease(buffer, offset, fingerprint | (result ? TRUE_RESULT : FALSE_RESULT));
+                    LONGS.getAndAdd(buffer, SIZE_OFFSET, 1L);
+                    return true;
+                }
+                // Another writer claimed the slot first, so look at what it claimed it for
+                continue;
+            }
+            if (state == (fingerprint | WRITING) && spins++ < MAX_SPINS) {
+                // Probably the same text being shared by another writer, so wait for it rather than share it twice
+                Thread.onSpinWait();
+                continue;
+            }
+            if (isReady(state, fingerprint) && keyEquals(offset, text)) {
+                return true;
+            }
+            slot = (slot + 1) & slotMask;
+            probe++;
+        }
+        full.increment();
+        return false;
+    }
+
+    /**
+     * Counts the results published by every instance, including those still being written.
+     */
+    public long size() {
+        return enabled ? (long) LONGS.getAcquire(buffer, SIZE_OFFSET) : 0;
+    }
+
+    public long slots() {
+        return slotCount;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (nonNull(channel)) {
+            buffer.force();
+            channel.close();
+        }
+    }
+
+    /**
+     * Creates the file if this is the first instance to open it, otherwise checks it was created with the same geometry.
+     * The magic number is written last, so a file whose creator died part way through is not trusted.
+     */
+    private MappedByteBuffer mapAndCheck() throws IOException {
+        final long fileBytes = HEADER_BYTES + slotCount * slotBytes;
+        try (FileLock ignored = channel.lock()) {
+            final boolean created = channel.size() == 0;
+            if (!created && channel.size() != fileBytes) {
+                throw new IllegalStateException("The shared cache at [" + file + "] is " + channel.size() + " bytes but "
+                    + fileBytes + " were expected, every instance must use the same slots and maxKeyLength");
+            }
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileBytes);
+            mapped.order(ByteOrder.nativeOrder());
+            if (created) {
+                mapped.putLong(SLOTS_OFFSET, slotCount);
+                mapped.putLong(MAX_KEY_LENGTH_OFFSET, maxKeyLength);
+                mapped.force();
+                mapped.putLong(0, MAGIC);
+                mapped.force();
+            } else if (mapped.getLong(0) != MAGIC || mapped.getLong(SLOTS_OFFSET) != slotCount
+                || mapped.getLong(MAX_KEY_LENGTH_OFFSET) != maxKeyLength) {
+                throw new IllegalStateException("The shared cache at [" + file + "] is damaged or was created with other settings");
+            }
+            return mapped;
+        }
+    }
+
+    private int slotOffset(final long slot) {
+        return (int) (HEADER_BYTES + slot * slotBytes);
+    }
+
+    private static boolean isReady(final long state, final long fingerprint) {
+        return (state & ~STATE_MASK) == fingerprint && (state & STATE_MASK) >= FALSE_RESULT;
+    }
+
+    private void writeKey(final int offset, final String text) {
+        buffer.putChar(offset + KEY_LENGTH_OFFSET, (char) text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer.putChar(offset + KEY_OFFSET + i * Character.BYTES, text.charAt(i));
+        }
+    }
+
+    private boolean keyEquals(final int offset, final String text) {
+        if (buffer.getChar(offset + KEY_LENGTH_OFFSET) != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (buffer.getChar(offset + KEY_OFFSET + i * Character.BYTES) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
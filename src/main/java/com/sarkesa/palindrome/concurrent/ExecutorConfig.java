@@ -0,0 +1,39 @@
+package com.sarkesa.palindrome.concurrent;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ExecutorConfig {
+    public static final String BATCH_EXECUTOR = "batchExecutor";
+    public static final String LARGE_CHECK_POOL = "largeCheckPool";
+
+    /**
+     * Bounded pool for batch evaluation. When the queue is full the submitting request thread evaluates the work itself,
+     * which throttles callers instead of growing the queue.
+     */
+    @Bean(name = BATCH_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService batchExecutor(@Value("${batch.parallelism}") final int parallelism,
+                                         @Value("${batch.queueCapacity}") final int queueCapacity) {
+        return new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new CustomizableThreadFactory("palindrome-batch-"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Dedicated pool for splitting large document comparisons, so they never compete with the common pool.
+     */
+    @Bean(name = LARGE_CHECK_POOL, destroyMethod = "shutdown")
+    public ForkJoinPool largeCheckPool(@Value("${large.parallelism}") final int parallelism) {
+        return new ForkJoinPool(parallelism);
+    }
+}
@@ -0,0 +1,35 @@
+package com.sarkesa.palindrome.concurrent;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Handles each Tomcat request on its own virtual thread when {@code virtualThreads.enabled} is set, so many concurrent
+ * connections no longer need as many platform threads. Requires Java 21 or later at runtime; startup fails otherwise.
+ * With the executor replaced, {@code server.tomcat.threads.max} no longer applies and {@code server.tomcat.max-connections}
+ * becomes the limit on concurrent requests.
+ */
+@Configuration
+@ConditionalOnProperty(name = "virtualThreads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+    public static final String REQUEST_EXECUTOR = "virtualRequestExecutor";
+
+    @Bean(name = REQUEST_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService virtualRequestExecutor() {
+        return VirtualThreads.newThreadPerTaskExecutor("palindrome-request-");
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(
+            @Qualifier(REQUEST_EXECUTOR) final ExecutorService virtualRequestExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualRequestExecutor);
+    }
+}
@@ -0,0 +1,43 @@
+package com.sarkesa.palindrome.concurrent;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual threads through reflection, so the application still compiles for Java 11 but can use them when it
+ * runs on Java 21 or later.
+ */
+public final class VirtualThreads {
+    private static final int FIRST_VERSION = 21;
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return Runtime.version().feature() >= FIRST_VERSION;
+    }
+
+    /**
+     * Starts a new virtual thread for every task, named with the prefix and a counter.
+     *
+     * @throws IllegalStateException if the runtime has no virtual threads
+     */
+    public static ExecutorService newThreadPerTaskExecutor(final String prefix) {
+        if (!isSupported()) {
+            throw new IllegalStateException("Virtual threads need Java " + FIRST_VERSION + " or later, this is Java " + Runtime.version().feature());
+        }
+        try {
+            final Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Object namedBuilder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            final ThreadFactory threadFactory = (ThreadFactory) builderType.getMethod("factory").invoke(namedBuilder);
+            final Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory);
+        } catch (final ClassNotFoundException | NoSuchMethodException | IllegalAccessException | InvocationTargetException ex) {
+            throw new IllegalStateException("Could not create a virtual thread executor", ex);
+        }
+    }
+}
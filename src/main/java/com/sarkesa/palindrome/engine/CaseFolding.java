@@ -0,0 +1,55 @@
+package com.sarkesa.palindrome.engine;
+
+public final class CaseFolding {
+
+    private CaseFolding() {
+    }
+
+    /**
+     * Folds a code point to the form used for case-insensitive comparison.
+     * Two code points are equal ignoring case exactly when their folded forms are equal, matching {@link String#equalsIgnoreCase(String)}.
+     */
+    public static int fold(final int codePoint) {
+        return Character.toLowerCase(Character.toUpperCase(codePoint));
+    }
+
+    public static boolean equalsIgnoreCase(final int first, final int second) {
+        return first == second || fold(first) == fold(second);
+    }
+
+    /**
+     * Folds every code point of the input, so texts that differ only by case share one canonical form and are a
+     * palindrome exactly when their canonical form is. Folding is idempotent and never changes the number of chars.
+     * The input is scanned once; if it is already canonical it is returned as it is, without allocating.
+     */
+    public static String canonicalize(final String input) {
+        final int length = input.length();
+        int index = 0;
+        while (index < length) {
+            final int codePoint = input.codePointAt(index);
+            if (!isCanonical(codePoint)) {
+                break;
+            }
+            index += Character.charCount(codePoint);
+        }
+        if (index == length) {
+            return input;
+        }
+
+        // Copy the canonical prefix and fold the rest, carrying on from where the scan stopped
+        final StringBuilder canonical = new StringBuilder(length).append(input, 0, index);
+        while (index < length) {
+            final int codePoint = input.codePointAt(index);
+            canonical.appendCodePoint(fold(codePoint));
+            index += Character.charCount(codePoint);
+        }
+        return canonical.toString();
+    }
+
+    private static boolean isCanonical(final int codePoint) {
+        if (codePoint < 0x80) {
+            return codePoint < 'A' || codePoint > 'Z';
+        }
+        return fold(codePoint) == codePoint;
+    }
+}
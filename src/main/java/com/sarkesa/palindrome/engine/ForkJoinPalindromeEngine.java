@@ -0,0 +1,105 @@
+package com.sarkesa.palindrome.engine;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.sarkesa.palindrome.concurrent.ExecutorConfig.LARGE_CHECK_POOL;
+import static com.sarkesa.palindrome.engine.CaseFolding.equalsIgnoreCase;
+
+/**
+ * Checks very large inputs by splitting the mirrored comparison of the first half against the second half into
+ * fork-join tasks. Every task stops as soon as any task has found a mismatch.
+ * Results are identical to {@link TwoPointerPalindromeEngine}, including surrogate pairs and case folding.
+ */
+@Component
+public class ForkJoinPalindromeEngine {
+    private static final int CANCELLATION_CHECK_INTERVAL = 4096;
+
+    private final ForkJoinPool forkJoinPool;
+    private final int chunkSize;
+
+    public ForkJoinPalindromeEngine(@Qualifier(LARGE_CHECK_POOL) final ForkJoinPool forkJoinPool,
+                                    @Value("${large.chunkSize}") final int chunkSize) {
+        this.forkJoinPool = forkJoinPool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Determines whether the first {@code length} chars of the buffer are a palindrome.
+     */
+    public boolean isPalindrome(final char[] chars, final int length) {
+        final AtomicBoolean mismatch = new AtomicBoolean();
+        forkJoinPool.invoke(new MirrorComparison(chars, length, 0, length / 2, chunkSize, mismatch));
+        return !mismatch.get();
+    }
+
+    /**
+     * Compares the char at index i with its mirror. A surrogate pair is compared as one code point against the pair that
+     * ends at the mirror index, and the low half of a pair is skipped because its high half has already covered it.
+     * Deciding this from the index alone means chunk boundaries can fall anywhere.
+     */
+    static boolean matchesMirror(final char[] chars, final int length, final int i) {
+        final char current = chars[i];
+        final int mirror = length - 1 - i;
+
+        if (Character.isLowSurrogate(current) && i > 0 && Character.isHighSurrogate(chars[i - 1])) {
+            return true;
+        }
+        if (Character.isHighSurrogate(current) && i + 1 < length && Character.isLowSurrogate(chars[i + 1])) {
+            return mirror > 0
+                && Character.isHighSurrogate(chars[mirror - 1])
+                && Character.isLowSurrogate(chars[mirror])
+                && equalsIgnoreCase(Character.toCodePoint(current, chars[i + 1]), Character.toCodePoint(chars[mirror - 1], chars[mirror]));
+        }
+        return equalsIgnoreCase(current, chars[mirror]);
+    }
+
+    private static final class MirrorComparison extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final char[] chars;
+        private final int length;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final AtomicBoolean mismatch;
+
+        private MirrorComparison(final char[] chars, final int length, final int from, final int to, final int chunkSize,
+                                 final AtomicBoolean mismatch) {
+            this.chars = chars;
+            this.length = length;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.mismatch = mismatch;
+        }
+
+        @Override
+        protected void compute() {
+            if (mismatch.get()) {
+                return;
+            }
+            if (to - from > chunkSize) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new MirrorComparison(chars, length, from, middle, chunkSize, mismatch),
+                    new MirrorComparison(chars, length, middle, to, chunkSize, mismatch));
+                return;
+            }
+
+            for (int i = from; i < to; i++) {
+                if (!matchesMirror(chars, length, i)) {
+                    mismatch.set(true);
+                    return;
+                }
+                if ((i - from) % CANCELLATION_CHECK_INTERVAL == 0 && mismatch.get()) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.sarkesa.palindrome.engine;
+
+import com.sarkesa.palindrome.model.PalindromeSubstring;
+import org.springframework.stereotype.Component;
+
+import static com.sarkesa.palindrome.engine.CaseFolding.fold;
+
+/**
+ * Finds the longest palindromic substring in linear time using Manacher's algorithm.
+ * Like {@link PalindromeEngine} it compares code points and ignores case, and it only allocates two int arrays the length of the text.
+ */
+@Component
+public class LongestPalindromeFinder {
+
+    /**
+     * Finds the longest palindromic substring. If several have the same length the one that starts first is returned.
+     */
+    public PalindromeSubstring findLongest(final String text) {
+        final int[] codePoints = foldedCodePoints(text);
+        final int length = codePoints.length;
+        if (length == 0) {
+            return PalindromeSubstring.builder().value("").start(0).end(0).build();
+        }
+
+        // radius[i] holds how far the palindrome centred on i extends, reused for the odd and then the even centres
+        final int[] radius = new int[length];
+        int bestStart = 0;
+        int bestLength = 1;
+
+        // Odd lengths, centred on a code point
+        for (int i = 0, left = 0, right = -1; i < length; i++) {
+            int k = i > right ? 1 : Math.min(radius[left + right - i], right - i + 1);
+            while (i - k >= 0 && i + k < length && codePoints[i - k] == codePoints[i + k]) {
+                k++;
+            }
+            radius[i] = k;
+            if (2 * k - 1 > bestLength) {
+                bestLength = 2 * k - 1;
+                bestStart = i - k + 1;
+            }
+            if (i + k - 1 > right) {
+                left = i - k + 1;
+                right = i + k - 1;
+            }
+        }
+
+        // Even lengths, centred between code points i - 1 and i
+        for (int i = 0, left = 0, right = -1; i < length; i++) {
+            int k = i > right ? 0 : Math.min(radius[left + right - i + 1], right - i + 1);
+            while (i - k - 1 >= 0 && i + k < length && codePoints[i - k - 1] == codePoints[i + k]) {
+                k++;
+            }
+            radius[i] = k;
+            if (2 * k > bestLength) {
+                bestLength = 2 * k;
+                bestStart = i - k;
+            }
+            if (i + k - 1 > right) {
+                left = i - k;
+                right = i + k - 1;
+            }
+        }
+
+        return toSubstring(text, length, bestStart, bestStart + bestLength);
+    }
+
+    private static int[] foldedCodePoints(final String text) {
+        final int[] codePoints = new int[text.codePointCount(0, text.length())];
+        for (int offset = 0, i = 0; offset < text.length(); i++) {
+            final int codePoint = text.codePointAt(offset);
+            codePoints[i] = fold(codePoint);
+            offset += Character.charCount(codePoint);
+        }
+        return codePoints;
+    }
+
+    private static PalindromeSubstring toSubstring(final String text, final int codePointCount, final int start, final int end) {
+        // Offsets are reported in chars so they can be used with String.substring
+        final boolean onlyBasicPlane = codePointCount == text.length();
+        final int startOffset = onlyBasicPlane ? start : text.offsetByCodePoints(0, start);
+        final int endOffset = onlyBasicPlane ? end : text.offsetByCodePoints(startOffset, end - start);
+        return PalindromeSubstring.builder()
+            .value(text.substring(startOffset, endOffset))
+            .start(startOffset)
+            .end(endOffset)
+            .build();
+    }
+}
@@ -0,0 +1,14 @@
+package com.sarkesa.palindrome.engine;
+
+public interface PalindromeEngine {
+
+    /**
+     * Determines whether the supplied characters read the same forwards and backwards.
+     * Comparison is performed on Unicode code points and ignores case in the same way as {@link String#equalsIgnoreCase(String)}.
+     *
+     * @param input the non-null characters to evaluate
+     * @return true if the input is a palindrome
+     */
+    boolean isPalindrome(CharSequence input);
+
+}
@@ -0,0 +1,21 @@
+package com.sarkesa.palindrome.engine;
+
+public final class TextHash {
+
+    private TextHash() {
+    }
+
+    /**
+     * FNV-1a over the chars, finished with the MurmurHash3 mix so every bit of the result depends on every char. The
+     * low bits can pick a slot and the high bits serve as a fingerprint, and texts sharing a prefix hash unrelated values.
+     */
+    public static long hash(final String text) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash = (hash ^ text.charAt(i)) * 0x100000001B3L;
+        }
+        hash = (hash ^ hash >>> 33) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ hash >>> 33) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ hash >>> 33;
+    }
+}
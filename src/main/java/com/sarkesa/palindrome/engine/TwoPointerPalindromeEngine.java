@@ -0,0 +1,32 @@
+package com.sarkesa.palindrome.engine;
+
+import org.springframework.stereotype.Component;
+
+import static com.sarkesa.palindrome.engine.CaseFolding.equalsIgnoreCase;
+
+/**
+ * Walks inwards from both ends of the input comparing one code point at a time.
+ * Nothing is allocated and the walk stops at the first mismatch.
+ */
+@Component
+public class TwoPointerPalindromeEngine implements PalindromeEngine {
+
+    @Override
+    public boolean isPalindrome(final CharSequence input) {
+        int left = 0;
+        int right = input.length();
+
+        while (left < right) {
+            final int leftCodePoint = Character.codePointAt(input, left);
+            final int rightCodePoint = Character.codePointBefore(input, right);
+
+            if (!equalsIgnoreCase(leftCodePoint, rightCodePoint)) {
+                return false;
+            }
+
+            left += Character.charCount(leftCodePoint);
+            right -= Character.charCount(rightCodePoint);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,13 @@
+package com.sarkesa.palindrome.error;
+
+/**
+ * Thrown when a request is well formed but cannot be accepted, for example because it exceeds a configured limit.
+ * The message is returned to the caller.
+ */
+public class BadRequestException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public BadRequestException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.sarkesa.palindrome.error;
+
+/**
+ * Thrown when a request refers to something that does not exist, or no longer exists. The message is returned to the caller.
+ */
+public class NotFoundException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public NotFoundException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.sarkesa.palindrome.error;
+
+/**
+ * Thrown when a request body exceeds the configured size limit. The message is returned to the caller.
+ */
+public class PayloadTooLargeException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public PayloadTooLargeException(final String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,7 @@ package com.sarkesa.palindrome.error;
 
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -22,7 +23,11 @@ import java.util.UUID;
 import static java.util.Objects.isNull;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.PAYLOAD_TOO_LARGE;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RestControllerAdvice
 @RequestMapping(produces = MediaType.APPLICATION_JSON_VALUE)
 @Slf4j
@@ -58,6 +63,38 @@ public class SarkesaRestResponseEntityExceptionHandler extends ResponseEntityExc
         return httpResponse;
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    @ResponseStatus(BAD_REQUEST)
+    public ApiError handleBadRequest(final BadRequestException ex, final HttpServletRequest httpServletRequest) {
+        final ApiError apiError = constructApiError(BAD_REQUEST, ex.getMessage(), httpServletRequest);
+        logError(ex, apiError);
+        return apiError;
+    }
+
+    @ExceptionHandler(NotFoundException.class)
+    @ResponseStatus(NOT_FOUND)
+    public ApiError handleNotFound(final NotFoundException ex, final HttpServletRequest httpServletRequest) {
+        final ApiError apiError = constructApiError(NOT_FOUND, ex.getMessage(), httpServletRequest);
+        logError(ex, apiError);
+        return apiError;
+    }
+
+    @ExceptionHandler(PayloadTooLargeException.class)
+    @ResponseStatus(PAYLOAD_TOO_LARGE)
+    public ApiError handlePayloadTooLarge(final PayloadTooLargeException ex, final HttpServletRequest httpServletRequest) {
+        final ApiError apiError = constructApiError(PAYLOAD_TOO_LARGE, ex.getMessage(), httpServletRequest);
+        logError(ex, apiError);
+        return apiError;
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    @ResponseStatus(SERVICE_UNAVAILABLE)
+    public ApiError handleServiceUnavailable(final ServiceUnavailableException ex, final HttpServletRequest httpServletRequest) {
+        final ApiError apiError = constructApiError(SERVICE_UNAVAILABLE, ex.getMessage(), httpServletRequest);
+        logError(ex, apiError);
+        return apiError;
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(INTERNAL_SERVER_ERROR)
     public ApiError handleUnexpectedException(final Exception ex, final HttpServletRequest httpServletRequest) {
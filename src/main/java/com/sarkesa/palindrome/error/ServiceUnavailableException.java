@@ -0,0 +1,13 @@
+package com.sarkesa.palindrome.error;
+
+/**
+ * Thrown when the server is at a configured capacity limit and the request may succeed if retried later. The message
+ * is returned to the caller.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ServiceUnavailableException(final String message) {
+        super(message);
+    }
+}
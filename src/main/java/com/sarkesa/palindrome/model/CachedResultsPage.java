@@ -0,0 +1,24 @@
+package com.sarkesa.palindrome.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedResultsPage {
+    /**
+     * Cached results keyed by canonical text, in text order.
+     */
+    private Map<String, Boolean> results;
+
+    /**
+     * The last text of this page, to continue after, or null if no further results matched.
+     */
+    private String lastText;
+}
@@ -0,0 +1,24 @@
+package com.sarkesa.palindrome.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LargeLongestPalindromeCheck {
+    @Schema(description = "The number of characters in the supplied document. The document itself is not echoed back.")
+    private int length;
+
+    @Schema(description = "The longest palindromic substring of the document. The first one is returned if several have the same length.")
+    private PalindromeSubstring longestPalindrome;
+
+    @Schema(description = "A unique ID to correlate with logs.")
+    private UUID id;
+}
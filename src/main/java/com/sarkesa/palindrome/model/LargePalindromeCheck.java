@@ -0,0 +1,24 @@
+package com.sarkesa.palindrome.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LargePalindromeCheck {
+    @Schema(description = "The number of characters in the supplied document. The document itself is not echoed back.")
+    private int length;
+
+    @Schema(description = "The main result of whether the document was a palindrome or not.")
+    private Boolean isPalindrome;
+
+    @Schema(description = "A unique ID to correlate with logs.")
+    private UUID id;
+}
@@ -0,0 +1,24 @@
+package com.sarkesa.palindrome.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LongestPalindromeCheck {
+    @Schema(description = "The text that was supplied in the request.")
+    private String text;
+
+    @Schema(description = "The longest palindromic substring of the text. The first one is returned if several have the same length.")
+    private PalindromeSubstring longestPalindrome;
+
+    @Schema(description = "A unique ID to correlate with logs.")
+    private UUID id;
+}
@@ -0,0 +1,37 @@
+package com.sarkesa.palindrome.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PalindromeAnalysis {
+    @Schema(description = "The number of characters in the analysed text.")
+    private int length;
+
+    @Schema(description = "The number of distinct palindromic substrings, ignoring case.")
+    private int distinctPalindromes;
+
+    @Schema(description = "The total number of palindromic substrings, counting every occurrence.")
+    private long totalOccurrences;
+
+    @Schema(description = "The zero based page of palindromes returned.")
+    private int page;
+
+    @Schema(description = "The maximum number of palindromes per page.")
+    private int size;
+
+    @Schema(description = "The distinct palindromes on this page, longest first.")
+    private List<PalindromeOccurrence> palindromes;
+
+    @Schema(description = "A unique ID to correlate with logs.")
+    private UUID id;
+}
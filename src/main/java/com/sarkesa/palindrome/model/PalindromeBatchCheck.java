@@ -0,0 +1,22 @@
+package com.sarkesa.palindrome.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PalindromeBatchCheck {
+    @Schema(description = "A unique ID to correlate with logs.")
+    private UUID id;
+
+    @Schema(description = "One result per request item, in the same order as the request.")
+    private List<PalindromeBatchItem> results;
+}
@@ -0,0 +1,27 @@
+package com.sarkesa.palindrome.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PalindromeBatchItem {
+    @Schema(description = "The position of the item in the request.")
+    private int index;
+
+    @Schema(description = "The text that was supplied in the request item.")
+    private String text;
+
+    @Schema(description = "Whether the text was a palindrome. Absent if the item was invalid.")
+    private Boolean isPalindrome;
+
+    @Schema(description = "Why the item could not be checked. Absent if the item was valid.")
+    private String error;
+}
@@ -0,0 +1,25 @@
+package com.sarkesa.palindrome.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PalindromeOccurrence {
+    @Schema(description = "The first occurrence of the palindrome in the text.")
+    private String value;
+
+    @Schema(description = "The number of characters in the palindrome.")
+    private int length;
+
+    @Schema(description = "Index of the first character of the first occurrence within the text.")
+    private int firstStart;
+
+    @Schema(description = "How many times the palindrome occurs in the text, counting overlapping occurrences.")
+    private long occurrences;
+}
@@ -0,0 +1,19 @@
+package com.sarkesa.palindrome.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PalindromeSessionAppendRequest {
+    @NotNull
+    @Schema(required = true, description = "The characters to append to the session text. Any characters are accepted.")
+    private String text;
+}
@@ -0,0 +1,27 @@
+package com.sarkesa.palindrome.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PalindromeSessionState {
+    @Schema(description = "The ID of the session, used to append to it.")
+    private UUID sessionId;
+
+    @Schema(description = "The number of characters appended to the session so far. The text itself is not echoed back.")
+    private int length;
+
+    @Schema(description = "Whether the text appended so far is a palindrome.")
+    private Boolean isPalindrome;
+
+    @Schema(description = "A unique ID to correlate with logs.")
+    private UUID id;
+}
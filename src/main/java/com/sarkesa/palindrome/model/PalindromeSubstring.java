@@ -0,0 +1,22 @@
+package com.sarkesa.palindrome.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PalindromeSubstring {
+    @Schema(description = "The palindromic substring.")
+    private String value;
+
+    @Schema(description = "Index of the first character of the substring within the text.")
+    private int start;
+
+    @Schema(description = "Index after the last character of the substring within the text.")
+    private int end;
+}
@@ -0,0 +1,210 @@
+package com.sarkesa.palindrome.persistence;
+
+import com.sarkesa.palindrome.model.PalindromeCheck;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Layout of the binary results log. The file starts with a four byte magic number, followed by records of
+ * <pre>
+ * int     payload length
+ * byte    1 if the text is a palindrome, otherwise 0
+ * byte[]  text as UTF-8
+ * int     CRC32 of the payload
+ * </pre>
+ * where the payload is the flag and the text. All integers are big endian. A record that runs past the end of the file
+ * or fails its checksum marks the end of the usable log, which is where a crash part way through a write leaves it.
+ */
+@Slf4j
+final class BinaryLogFormat {
+    static final int MAGIC = 0x50414C31;
+    static final int HEADER_BYTES = Integer.BYTES;
+    private static final int RECORD_OVERHEAD_BYTES = Integer.BYTES * 2;
+    private static final int MAX_PAYLOAD_BYTES = 1 << 24;
+    static final long WINDOW_BYTES = 1L << 28;
+
+    private BinaryLogFormat() {
+    }
+
+    /**
+     * Reads every intact record through memory mapped windows of the file.
+     *
+     * @param consumer receives each record, or null to only find the end of the intact records
+     * @return the offset just past the last intact record, or zero if the file is missing or empty
+     */
+    static long read(final Path file, final Consumer<PalindromeCheck> consumer) throws IOException {
+        return read(file, consumer, Long.MAX_VALUE, WINDOW_BYTES);
+    }
+
+    /**
+     * Reads the intact records within the first length bytes of the file, ignoring anything appended after them.
+     */
+    static long read(final Path file, final Consumer<PalindromeCheck> consumer, final long length, final long windowBytes) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = Math.min(channel.size(), length);
+            if (size < HEADER_BYTES) {
+                return 0;
+            }
+            final Reader reader = new Reader(channel, size, windowBytes);
+            if (reader.window.getInt(0) != MAGIC) {
+                throw new IOException("The file at [" + file + "] is not a binary results log.");
+            }
+            return reader.readRecords(consumer);
+        }
+    }
+
+    /**
+     * Keeps the current window of the file and the buffers reused across records.
+     */
+    private static final class Reader {
+        private final FileChannel channel;
+        private final long size;
+        private final long windowBytes;
+        private final CRC32 crc = new CRC32();
+        private byte[] text = new byte[64];
+        private MappedByteBuffer window;
+        private long windowStart;
+
+        Reader(final FileChannel channel, final long size, final long windowBytes) throws IOException {
+            this.channel = channel;
+            this.size = size;
+            this.windowBytes = windowBytes;
+            this.window = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, windowBytes));
+        }
+
+        long readRecords(final Consumer<PalindromeCheck> consumer) throws IOException {
+            long offset = HEADER_BYTES;
+            while (offset < size) {
+                final int recordBytes = checkRecord(offset);
+                if (recordBytes == 0) {
+                    log.warn("Ignoring {} bytes at the end of the binary results log after offset {}", size - offset, offset);
+                    return offset;
+                }
+                if (nonNull(consumer)) {
+                    consumer.accept(decode(offset, recordBytes - RECORD_OVERHEAD_BYTES));
+                }
+                offset += recordBytes;
+            }
+            return offset;
+        }
+
+        /**
+         * Returns the size of the intact record at the offset, or zero if it is torn or corrupt.
+         */
+        private int checkRecord(final long offset) throws IOException {
+            if (size - offset < RECORD_OVERHEAD_BYTES + 1) {
+                return 0;
+            }
+            final int payloadBytes = window(offset, Integer.BYTES).getInt(position(offset));
+            if (payloadBytes < 1 || payloadBytes > MAX_PAYLOAD_BYTES || offset + RECORD_OVERHEAD_BYTES + payloadBytes > size) {
+                return 0;
+            }
+
+            final int recordBytes = payloadBytes + RECORD_OVERHEAD_BYTES;
+            final ByteBuffer buffer = window(offset, recordBytes);
+            final int payloadStart = position(offset) + Integer.BYTES;
+            crc.reset();
+            crc.update(buffer.limit(payloadStart + payloadBytes).position(payloadStart));
+            buffer.limit(buffer.capacity());
+            return (int) crc.getValue() == buffer.getInt(payloadStart + payloadBytes) ? recordBytes : 0;
+        }
+
+        private PalindromeCheck decode(final long offset, final int payloadBytes) {
+            final int payloadStart = position(offset) + Integer.BYTES;
+            final int textBytes = payloadBytes - 1;
+            if (text.length < textBytes) {
+                text = new byte[Math.max(textBytes, text.length * 2)];
+            }
+            window.position(payloadStart + 1);
+            window.get(text, 0, textBytes);
+            return PalindromeCheck.builder()
+                .text(new String(text, 0, textBytes, StandardCharsets.UTF_8))
+                .isPalindrome(window.get(payloadStart) != 0)
+                .build();
+        }
+
+        /**
+         * Returns the window, first moving it to start at the offset if the bytes needed are not all mapped.
+         */
+        private ByteBuffer window(final long offset, final int bytes) throws IOException {
+            if (offset + bytes > windowStart + window.capacity()) {
+                windowStart = offset;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(size - offset, Math.max(windowBytes, bytes)));
+            }
+            return window;
+        }
+
+        private int position(final long offset) {
+            return (int) (offset - windowStart);
+        }
+    }
+
+    /**
+     * Encodes batches of records into one reused buffer, so a batch is written with a single call.
+     */
+    static final class Encoder {
+        private final CRC32 crc = new CRC32();
+        private ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+        /**
+         * Encodes the records, preceded by the header if requested. Records missing a field are logged and skipped.
+         *
+         * @return the encoded bytes, ready to be written
+         */
+        ByteBuffer encode(final List<PalindromeCheck> palindromeChecks, final boolean withHeader) {
+            buffer.clear();
+            if (withHeader) {
+                buffer.putInt(MAGIC);
+            }
+            for (final PalindromeCheck palindromeCheck : palindromeChecks) {
+                if (isNull(palindromeCheck.getText()) || isNull(palindromeCheck.getIsPalindrome())) {
+                    log.error("Skipped saving a result with a missing field: {}", palindromeCheck);
+                    continue;
+                }
+                final byte[] text = palindromeCheck.getText().getBytes(StandardCharsets.UTF_8);
+                ensureRemaining(text.length + 1 + RECORD_OVERHEAD_BYTES);
+
+                final int payloadStart = buffer.position() + Integer.BYTES;
+                buffer.putInt(text.length + 1);
+                buffer.put(palindromeCheck.getIsPalindrome() ? (byte) 1 : (byte) 0);
+                buffer.put(text);
+                crc.reset();
+                crc.update(buffer.array(), payloadStart, text.length + 1);
+                buffer.putInt((int) crc.getValue());
+            }
+            return buffer.flip();
+        }
+
+        private void ensureRemaining(final int bytes) {
+            if (buffer.remaining() < bytes) {
+                final ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+        }
+    }
+
+    static void writeFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.sarkesa.palindrome.persistence;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import com.sarkesa.palindrome.model.PalindromeCheck;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Stores results in a compact binary log, see {@link BinaryLogFormat}, which is read back through memory mapped buffers
+ * without reflection. Selected with persistence.type=binary. If the log does not exist yet but the CSV results file
+ * does, the CSV file is converted once when the repository is created, so switching keeps the saved results.
+ */
+@Service
+@ConditionalOnProperty(name = "persistence.type", havingValue = "binary")
+@Slf4j
+public class BinaryLogPalindromeRepository extends GroupCommitPalindromeRepository {
+    private static final int CONVERSION_BATCH_SIZE = 4096;
+
+    private final Path binaryFilePath;
+
+    @Autowired
+    public BinaryLogPalindromeRepository(@Value("${binaryFilePath}") final String binaryFilePath,
+                                         @Value("${csvFilePath}") final String csvFilePath,
+                                         @Value("${persistence.queueCapacity}") final int queueCapacity,
+                                         @Value("${persistence.batchSize}") final int batchSize,
+                                         @Value("${persistence.flushIntervalMillis}") final long flushIntervalMillis,
+                                         @Value("${persistence.saturationPolicy}") final SaturationPolicy saturationPolicy,
+                                         @Value("${persistence.drainTimeoutSeconds}") final long drainTimeoutSeconds,
+                                         final CompactionPolicy compactionPolicy,
+                                         final PersistedKeyFilter keyFilter,
+                                         final MeterRegistry meterRegistry) {
+        super("binary", Path.of(binaryFilePath), BinaryLogSink::new, queueCapacity, batchSize, flushIntervalMillis, saturationPolicy,
+            drainTimeoutSeconds, compactionPolicy, keyFilter, meterRegistry);
+        this.binaryFilePath = Path.of(binaryFilePath);
+
+        if (nonNull(csvFilePath) && !Files.exists(this.binaryFilePath) && Files.isRegularFile(Path.of(csvFilePath))) {
+            try {
+                convertFromCsv(Path.of(csvFilePath), this.binaryFilePath);
+            } catch (final IOException ex) {
+                throw new UncheckedIOException("Could not convert the CSV results at [" + csvFilePath + "]", ex);
+            }
+        }
+    }
+
+    /**
+     * Creates a repository with default group commit settings and metrics that are not published, for use outside Spring.
+     * No CSV file is converted and compaction only runs when asked for.
+     */
+    public BinaryLogPalindromeRepository(final String binaryFilePath) {
+        this(binaryFilePath, null, DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS,
+            SaturationPolicy.BLOCK, 0, CompactionPolicy.disabled(), PersistedKeyFilter.disabled(), new SimpleMeterRegistry());
+    }
+
+    @Override
+    public List<PalindromeCheck> findAll() {
+        final List<PalindromeCheck> palindromeChecks = new ArrayList<>();
+        try {
+            BinaryLogFormat.read(binaryFilePath, palindromeChecks::add);
+        } catch (final IOException ex) {
+            log.error("Could not read binary results log at [{}]: {}", binaryFilePath, ex.getMessage());
+        }
+        return palindromeChecks;
+    }
+
+    @Override
+    protected void forEach(final long length, final Consumer<PalindromeCheck> consumer) throws IOException {
+        BinaryLogFormat.read(binaryFilePath, consumer, length, BinaryLogFormat.WINDOW_BYTES);
+    }
+
+    /**
+     * Writes the rows of a CSV results file to a new binary log. The log is written beside the target and moved into
+     * place once complete, so an interrupted conversion never leaves a partial log behind.
+     *
+     * @return the number of results converted
+     */
+    public static long convertFromCsv(final Path csvFile, final Path binaryFile) throws IOException {
+        final long start = System.nanoTime();
+        final Path partialFile = binaryFile.resolveSibling(binaryFile.getFileName() + ".partial");
+        final BinaryLogFormat.Encoder encoder = new BinaryLogFormat.Encoder();
+        final List<PalindromeCheck> batch = new ArrayList<>(CONVERSION_BATCH_SIZE);
+        long converted = 0;
+
+        try (Reader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8);
+             CSVReader csvReader = new CSVReader(reader);
+             FileChannel channel = FileChannel.open(partialFile,
+                 StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            BinaryLogFormat.writeFully(channel, encoder.encode(batch, true));
+
+            for (String[] row = csvReader.readNext(); nonNull(row); row = csvReader.readNext()) {
+                if (row.length < 2) {
+                    log.warn("Skipped CSV row {} with {} columns", csvReader.getLinesRead(), row.length);
+                    continue;
+                }
+                batch.add(PalindromeCheck.builder().text(row[0]).isPalindrome(Boolean.parseBoolean(row[1])).build());
+                if (batch.size() == CONVERSION_BATCH_SIZE) {
+                    BinaryLogFormat.writeFully(channel, encoder.encode(batch, false));
+                    converted += batch.size();
+                    batch.clear();
+                }
+            }
+            BinaryLogFormat.writeFully(channel, encoder.encode(batch, false));
+            converted += batch.size();
+        } catch (final CsvValidationException ex) {
+            throw new IOException("The CSV results file could not be parsed", ex);
+        }
+
+        Files.move(partialFile, binaryFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        log.info("Converted {} results from [{}] to [{}] in {} ms", converted, csvFile, binaryFile, (System.nanoTime() - start) / 1_000_000);
+        return converted;
+    }
+
+    /**
+     * Keeps the log open between batches. When first opened any torn record left at the end by a crash is cut off,
+     * so new records are not appended after bytes that can never be read.
+     */
+    private static class BinaryLogSink implements FileRecordSink {
+        private final Path binaryFilePath;
+        private final BinaryLogFormat.Encoder encoder = new BinaryLogFormat.Encoder();
+        private FileChannel channel;
+        private boolean headerWritten;
+
+        BinaryLogSink(final Path binaryFilePath) {
+            this.binaryFilePath = binaryFilePath;
+        }
+
+        @Override
+        public void write(final List<PalindromeCheck> palindromeChecks) throws IOException {
+            if (isNull(channel)) {
+                open();
+            }
+            BinaryLogFormat.writeFully(channel, encoder.encode(palindromeChecks, !headerWritten));
+            headerWritten = true;
+        }
+
+        private void open() throws IOException {
+            final long intactBytes = BinaryLogFormat.read(binaryFilePath, null);
+            channel = FileChannel.open(binaryFilePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (channel.size() > intactBytes) {
+                log.warn("Truncating binary results log at [{}] from {} to {} bytes", binaryFilePath, channel.size(), intactBytes);
+                channel.truncate(intactBytes);
+            }
+            channel.position(intactBytes);
+            headerWritten = intactBytes > 0;
+        }
+
+        @Override
+        public long flushedLength() throws IOException {
+            if (nonNull(channel)) {
+                return channel.position();
+            }
+            return BinaryLogFormat.read(binaryFilePath, null);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (nonNull(channel)) {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.sarkesa.palindrome.persistence;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Decides when a results file is worth compacting. Nothing is done below the minimum size. Above it, the file is
+ * compacted once it has grown by the growth factor since it was last compacted, or once the estimated share of
+ * repeated results reaches the duplicate ratio.
+ */
+@Component
+public class CompactionPolicy {
+    private final boolean enabled;
+    private final Duration checkInterval;
+    private final long minBytes;
+    private final double growthFactor;
+    private final double duplicateRatio;
+    private final int estimatorBits;
+
+    @Autowired
+    public CompactionPolicy(@Value("${compaction.enabled}") final boolean enabled,
+                            @Value("${compaction.checkIntervalSeconds}") final long checkIntervalSeconds,
+                            @Value("${compaction.minBytes}") final long minBytes,
+                            @Value("${compaction.growthFactor}") final double growthFactor,
+                            @Value("${compaction.duplicateRatio}") final double duplicateRatio,
+                            @Value("${compaction.estimatorBits}") final int estimatorBits) {
+        this.enabled = enabled;
+        this.checkInterval = Duration.ofSeconds(checkIntervalSeconds);
+        this.minBytes = minBytes;
+        this.growthFactor = growthFactor;
+        this.duplicateRatio = duplicateRatio;
+        this.estimatorBits = estimatorBits;
+    }
+
+    /**
+     * A policy that never compacts in the background. Compaction can still be run on demand.
+     */
+    public static CompactionPolicy disabled() {
+        return new CompactionPolicy(false, 0, Long.MAX_VALUE, Double.MAX_VALUE, 1, 1 << 16);
+    }
+
+    public boolean shouldCompact(final long fileBytes, final long compactedBytes, final double estimatedDuplicateRatio) {
+        return fileBytes >= minBytes && (fileBytes >= compactedBytes * growthFactor || estimatedDuplicateRatio >= duplicateRatio);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration getCheckInterval() {
+        return checkInterval;
+    }
+
+    public int getEstimatorBits() {
+        return estimatorBits;
+    }
+}
@@ -7,49 +7,109 @@ import com.opencsv.bean.StatefulBeanToCsvBuilder;
 import com.opencsv.exceptions.CsvDataTypeMismatchException;
 import com.opencsv.exceptions.CsvRequiredFieldEmptyException;
 import com.sarkesa.palindrome.model.PalindromeCheck;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.FileWriter;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Stores results as rows in a CSV file. Rows are appended by a {@link GroupCommitWriter}, which keeps the file and the
+ * CSV writer open and commits queued rows in batches instead of reopening the file for every result.
+ */
 @Service
+@ConditionalOnProperty(name = "persistence.type", havingValue = "csv", matchIfMissing = true)
 @Slf4j
-public class CsvPalindromeRepository implements PalindromeRepository {
+public class CsvPalindromeRepository extends GroupCommitPalindromeRepository {
     private final Path csvFilePath;
 
-    public CsvPalindromeRepository(@Value("${csvFilePath}") final String csvFilePath) {
+    @Autowired
+    public CsvPalindromeRepository(@Value("${csvFilePath}") final String csvFilePath,
+                                   @Value("${persistence.queueCapacity}") final int queueCapacity,
+                                   @Value("${persistence.batchSize}") final int batchSize,
+                                   @Value("${persistence.flushIntervalMillis}") final long flushIntervalMillis,
+                                   @Value("${persistence.saturationPolicy}") final SaturationPolicy saturationPolicy,
+                                   @Value("${persistence.drainTimeoutSeconds}") final long drainTimeoutSeconds,
+                                   final CompactionPolicy compactionPolicy,
+                                   final PersistedKeyFilter keyFilter,
+                                   final MeterRegistry meterRegistry) {
+        super("csv", Path.of(csvFilePath), CsvRecordSink::new, queueCapacity, batchSize, flushIntervalMillis, saturationPolicy,
+            drainTimeoutSeconds, compactionPolicy, keyFilter, meterRegistry);
         this.csvFilePath = Path.of(csvFilePath);
     }
 
-    @Override
-    public void save(final PalindromeCheck palindromeCheck) {
-        final CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> {
-            saveToFile(palindromeCheck);
-            return "Success";
-        }).exceptionally(ex -> {
-            log.error("Error in task: {}", ex.getMessage());
-            return "Error occurred";
-        }).completeOnTimeout("Timed out!", 2, TimeUnit.SECONDS);
-
-        future.thenAccept(result -> log.info("Saving Palindrome to file: {}", result));
+    /**
+     * Creates a repository with default group commit settings and metrics that are not published, for use outside Spring.
+     * Compaction only runs when asked for.
+     */
+    public CsvPalindromeRepository(final String csvFilePath) {
+        this(csvFilePath, DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS, SaturationPolicy.BLOCK, 0,
+            CompactionPolicy.disabled(), PersistedKeyFilter.disabled(), new SimpleMeterRegistry());
     }
 
-    private void saveToFile(final PalindromeCheck palindromeCheck) {
-        try (final Writer writer = new FileWriter(csvFilePath.toString(), StandardCharsets.UTF_8, true)) {
-            final StatefulBeanToCsv<PalindromeCheck> beanToCsv = new StatefulBeanToCsvBuilder<PalindromeCheck>(writer).build();
-            beanToCsv.write(palindromeCheck);
-        } catch (CsvRequiredFieldEmptyException | CsvDataTypeMismatchException | IOException e) {
-            throw new RuntimeException(String.format("Caught excpetion of type %s with message %s", e.getClass(), e.getMessage()), e);
+    /**
+     * Keeps the file open between batches. Rows that cannot be written are logged and skipped so they do not lose the rest of the batch.
+     */
+    private static class CsvRecordSink implements FileRecordSink {
+        private final Path csvFilePath;
+        private Writer fileWriter;
+        private StatefulBeanToCsv<PalindromeCheck> beanToCsv;
+
+        CsvRecordSink(final Path csvFilePath) {
+            this.csvFilePath = csvFilePath;
+        }
+
+        @Override
+        public void write(final List<PalindromeCheck> palindromeChecks) throws IOException {
+            if (isNull(fileWriter)) {
+                fileWriter = new BufferedWriter(new FileWriter(csvFilePath.toString(), StandardCharsets.UTF_8, true));
+                beanToCsv = new StatefulBeanToCsvBuilder<PalindromeCheck>(fileWriter).build();
+            }
+            for (final PalindromeCheck palindromeCheck : palindromeChecks) {
+                try {
+                    beanToCsv.write(palindromeCheck);
+                } catch (final CsvRequiredFieldEmptyException | CsvDataTypeMismatchException ex) {
+                    log.error("Skipped saving a result that could not be written as CSV: {}", ex.getMessage());
+                }
+            }
+            fileWriter.flush();
+        }
+
+        @Override
+        public long flushedLength() throws IOException {
+            if (nonNull(fileWriter)) {
+                fileWriter.flush();
+            }
+            return Files.exists(csvFilePath) ? Files.size(csvFilePath) : 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (nonNull(fileWriter)) {
+                fileWriter.close();
+                fileWriter = null;
+                beanToCsv = null;
+            }
         }
     }
 
@@ -58,6 +118,56 @@ public class CsvPalindromeRepository implements PalindromeRepository {
         return readAllRecordsFromCsvFile();
     }
 
+    @Override
+    protected void forEach(final long length, final Consumer<PalindromeCheck> consumer) throws IOException {
+        if (!Files.exists(csvFilePath)) {
+            return;
+        }
+        try (Reader reader = new BufferedReader(new InputStreamReader(
+                new BoundedInputStream(Files.newInputStream(csvFilePath), length), StandardCharsets.UTF_8))) {
+            final CsvToBean<PalindromeCheck> csvToBean = new CsvToBeanBuilder<PalindromeCheck>(reader)
+                    .withType(PalindromeCheck.class)
+                    .build();
+            csvToBean.forEach(consumer);
+        }
+    }
+
+    /**
+     * Stops reading at a byte offset, so rows appended while the file is being read are left for later.
+     */
+    private static class BoundedInputStream extends FilterInputStream {
+        private long remaining;
+
+        BoundedInputStream(final InputStream inputStream, final long length) {
+            super(inputStream);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int next = super.read();
+            if (next >= 0) {
+                remaining--;
+            }
+            return next;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int read = super.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+    }
+
     private List<PalindromeCheck> readAllRecordsFromCsvFile() {
         try (Reader reader = Files.newBufferedReader(csvFilePath)) {
             final CsvToBean<PalindromeCheck> csvToBean = new CsvToBeanBuilder<PalindromeCheck>(reader)
@@ -0,0 +1,64 @@
+package com.sarkesa.palindrome.persistence;
+
+import java.util.Arrays;
+
+/**
+ * Estimates how many of the texts seen are repeats using linear counting: each text sets one bit chosen by its hash,
+ * and the fraction of bits still clear gives the number of distinct texts. Memory is fixed by the bitmap size, and the
+ * estimate stays accurate while the distinct count is below a few times the number of bits.
+ */
+final class DuplicateEstimator {
+    private final long[] bits;
+    private final int bitCount;
+    private long clearBits;
+    private long count;
+
+    DuplicateEstimator(final int bitCount) {
+        this.bitCount = Integer.highestOneBit(Math.max(64, bitCount));
+        this.bits = new long[this.bitCount / Long.SIZE];
+        this.clearBits = this.bitCount;
+    }
+
+    synchronized void add(final String text) {
+        final int bit = mix(text.hashCode()) & (bitCount - 1);
+        final long mask = 1L << bit;
+        if ((bits[bit >>> 6] & mask) == 0) {
+            bits[bit >>> 6] |= mask;
+            clearBits--;
+        }
+        count++;
+    }
+
+    synchronized long count() {
+        return count;
+    }
+
+    synchronized double distinctEstimate() {
+        if (clearBits == 0) {
+            // Saturated, so the estimate is no longer meaningful; assume nothing repeats
+            return count;
+        }
+        return Math.min(count, bitCount * Math.log((double) bitCount / clearBits));
+    }
+
+    synchronized double duplicateRatio() {
+        return count == 0 ? 0 : 1 - distinctEstimate() / count;
+    }
+
+    synchronized void reset() {
+        Arrays.fill(bits, 0);
+        clearBits = bitCount;
+        count = 0;
+    }
+
+    private static int mix(final int hash) {
+        // Murmur3 finaliser, so similar strings land on unrelated bits
+        int h = hash;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
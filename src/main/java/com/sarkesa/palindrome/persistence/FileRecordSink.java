@@ -0,0 +1,17 @@
+package com.sarkesa.palindrome.persistence;
+
+import com.sarkesa.palindrome.model.PalindromeCheck;
+
+import java.io.IOException;
+
+/**
+ * Sink that appends to a single file. Closing it only releases the file; the next write opens it again, which lets
+ * the file be replaced between batches.
+ */
+public interface FileRecordSink extends RecordSink<PalindromeCheck> {
+
+    /**
+     * Flushes anything buffered and returns the length of the file, which is then the end of a complete record.
+     */
+    long flushedLength() throws IOException;
+}
@@ -0,0 +1,385 @@
+package com.sarkesa.palindrome.persistence;
+
+import com.sarkesa.palindrome.model.PalindromeCheck;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Base for repositories that append results to a file through a {@link GroupCommitWriter}. Subclasses supply the sink
+ * that encodes a batch and the way the file is read back.
+ *
+ * <p>A result is appended only if its text is not already in the {@link PersistedKeyFilter}, which is loaded from the
+ * file in the background once the application is ready and given each text once its batch is committed, so a text
+ * evicted from the caches and computed again is not saved twice. A result dropped from a full queue or lost to a
+ * failed write is never added, so a later save of its text is not skipped. Texts saved more than once anyway, such as
+ * those saved again before their first commit, while the filter loads or with it disabled, are removed by compaction,
+ * which rewrites the file keeping only the latest result for each text, see {@link #compact()}.
+ */
+@Slf4j
+public abstract class GroupCommitPalindromeRepository implements PalindromeRepository {
+    protected static final int DEFAULT_QUEUE_CAPACITY = 4096;
+    protected static final int DEFAULT_BATCH_SIZE = 256;
+    protected static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 10;
+    private static final int SNAPSHOT_BATCH_SIZE = 4096;
+
+    private final String name;
+    private final Path file;
+    private final FileRecordSink sink;
+    private final Function<Path, FileRecordSink> sinkFactory;
+    private final GroupCommitWriter<PalindromeCheck> groupCommitWriter;
+    private final Duration drainTimeout;
+    private final PersistedKeyFilter keyFilter;
+    private final Counter skippedSaves;
+    private volatile boolean keyFilterLoaded;
+
+    private final CompactionPolicy compactionPolicy;
+    private final DuplicateEstimator duplicateEstimator;
+    private final ScheduledExecutorService compactionScheduler;
+    private final Counter reclaimedBytes;
+    private final Timer compactionDuration;
+    private volatile boolean estimatorSeeded;
+    private long compactedBytes = -1;
+
+    protected GroupCommitPalindromeRepository(final String name,
+                                              final Path file,
+                                              final Function<Path, FileRecordSink> sinkFactory,
+                                              final int queueCapacity,
+                                              final int batchSize,
+                                              final long flushIntervalMillis,
+                                              final SaturationPolicy saturationPolicy,
+                                              final long drainTimeoutSeconds,
+                                              final CompactionPolicy compactionPolicy,
+                                              final PersistedKeyFilter keyFilter,
+                                              final MeterRegistry meterRegistry) {
+        this.name = name;
+        this.file = file;
+        this.sink = sinkFactory.apply(file);
+        this.sinkFactory = sinkFactory;
+        this.compactionPolicy = compactionPolicy;
+        this.duplicateEstimator = new DuplicateEstimator(compactionPolicy.getEstimatorBits());
+        this.groupCommitWriter = new GroupCommitWriter<>(name, new EstimatingSink(), queueCapacity, batchSize,
+            Duration.ofMillis(flushIntervalMillis), saturationPolicy, meterRegistry);
+        this.drainTimeout = Duration.ofSeconds(drainTimeoutSeconds);
+        this.keyFilter = keyFilter;
+
+        this.reclaimedBytes = Counter.builder("palindrome.persistence.compaction.reclaimed")
+            .description("Bytes removed from the results file by compaction")
+            .baseUnit("bytes")
+            .tag("writer", name)
+            .register(meterRegistry);
+        this.compactionDuration = Timer.builder("palindrome.persistence.compaction.duration")
+            .description("Time taken to compact the results file")
+            .tag("writer", name)
+            .register(meterRegistry);
+        this.skippedSaves = Counter.builder("palindrome.persistence.skipped")
+            .description("Results not saved because the key filter found their text already saved")
+            .tag("writer", name)
+            .register(meterRegistry);
+        Gauge.builder("palindrome.persistence.key.filter.size", keyFilter, PersistedKeyFilter::size)
+            .description("Distinct texts added to the filter of saved texts")
+            .tag("writer", name)
+            .register(meterRegistry);
+        Gauge.builder("palindrome.persistence.key.filter.false.positive.rate", keyFilter, PersistedKeyFilter::falsePositiveRate)
+            .description("Estimated chance that a new text is taken for a saved one and not saved")
+            .tag("writer", name)
+            .register(meterRegistry);
+        Gauge.builder("palindrome.persistence.duplicate.ratio", duplicateEstimator, DuplicateEstimator::duplicateRatio)
+            .description("Estimated share of saved results that repeat an earlier text")
+            .tag("writer", name)
+            .register(meterRegistry);
+
+        if (compactionPolicy.isEnabled()) {
+            final long intervalMillis = compactionPolicy.getCheckInterval().toMillis();
+            this.compactionScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory(name + "-compaction-"));
+            this.compactionScheduler.scheduleWithFixedDelay(this::compactIfNeeded, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.compactionScheduler = null;
+        }
+    }
+
+    @Override
+    public void save(final PalindromeCheck palindromeCheck) {
+        if (isUnsaved(palindromeCheck)) {
+            groupCommitWriter.submit(palindromeCheck);
+        }
+    }
+
+    @Override
+    public void saveAll(final List<PalindromeCheck> palindromeChecks) {
+        palindromeChecks.forEach(this::save);
+    }
+
+    /**
+     * Loads the key filter on a background thread once the application is ready, so startup does not wait for the whole
+     * file to be read, see {@link #loadKeyFilter()}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startKeyFilterLoad() {
+        if (!keyFilter.isEnabled()) {
+            return;
+        }
+        final Thread loadThread = new Thread(this::loadKeyFilter, name + "-key-filter-load");
+        loadThread.setDaemon(true);
+        loadThread.start();
+    }
+
+    /**
+     * Adds every text already in the file to the key filter, in one pass over the file. Saves are not skipped until this
+     * has finished, so a result saved during the load may be appended again, to be removed by compaction.
+     */
+    public void loadKeyFilter() {
+        if (!keyFilter.isEnabled()) {
+            return;
+        }
+        final long start = System.nanoTime();
+        try {
+            final long length = groupCommitWriter.withExclusiveSink(sink::flushedLength);
+            forEach(length, palindromeCheck -> {
+                if (nonNull(palindromeCheck.getText())) {
+                    keyFilter.add(palindromeCheck.getText());
+                }
+            });
+            keyFilterLoaded = true;
+            log.info("Loaded {} saved texts from [{}] into the key filter in {} ms", keyFilter.size(), file,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (final IOException ex) {
+            log.error("Could not load saved texts into the key filter, every result will be saved: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Streams the file once, keeping only the last results seen, so memory is bounded by the limit rather than the file size.
+     */
+    @Override
+    public void forEachRecent(final int limit, final Consumer<PalindromeCheck> consumer) {
+        if (limit <= 0) {
+            return;
+        }
+        final Deque<PalindromeCheck> recent = new ArrayDeque<>();
+        try {
+            forEach(Long.MAX_VALUE, palindromeCheck -> {
+                if (recent.size() == limit) {
+                    recent.removeFirst();
+                }
+                recent.addLast(palindromeCheck);
+            });
+        } catch (final IOException ex) {
+            log.error("Could not read saved results: {}", ex.getMessage());
+        }
+        recent.forEach(consumer);
+    }
+
+    @Override
+    public void forEachSaved(final Consumer<PalindromeCheck> consumer) {
+        try {
+            forEach(Long.MAX_VALUE, consumer);
+        } catch (final IOException ex) {
+            log.error("Could not read saved results: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Reads the saved results in the order they were saved, without holding them all in memory. A missing file has no results.
+     *
+     * @param length the number of bytes at the start of the file to read, which must end on a record boundary
+     */
+    protected abstract void forEach(long length, Consumer<PalindromeCheck> consumer) throws IOException;
+
+    /**
+     * Rewrites the file keeping only the latest result for each text, in the order those results were saved.
+     * The results committed so far are read and written to a temporary file without holding up the writer. Only the
+     * final step pauses it: anything committed in the meantime is copied across and the temporary file is renamed over
+     * the original in one atomic step, so readers see either the old file or the new one.
+     *
+     * @return the number of bytes reclaimed
+     */
+    public synchronized long compact() throws IOException {
+        final long start = System.nanoTime();
+        final long snapshotLength = groupCommitWriter.withExclusiveSink(sink::flushedLength);
+        if (snapshotLength == 0) {
+            return 0;
+        }
+
+        // Removing before putting moves a repeated text to the position of its latest result
+        final Map<String, Boolean> latest = new LinkedHashMap<>();
+        forEach(snapshotLength, palindromeCheck -> {
+            latest.remove(palindromeCheck.getText());
+            latest.put(palindromeCheck.getText(), palindromeCheck.getIsPalindrome());
+        });
+
+        final Path compactingFile = file.resolveSibling(file.getFileName() + ".compacting");
+        Files.deleteIfExists(compactingFile);
+        writeSnapshot(compactingFile, latest);
+
+        final long reclaimed = groupCommitWriter.withExclusiveSink(() -> {
+            sink.close();
+            final long committedLength = Files.size(file);
+            try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ);
+                 FileChannel target = FileChannel.open(compactingFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                long copied = 0;
+                while (snapshotLength + copied < committedLength) {
+                    copied += source.transferTo(snapshotLength + copied, committedLength - snapshotLength - copied, target);
+                }
+                target.force(true);
+            }
+            Files.move(compactingFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return committedLength - Files.size(file);
+        });
+
+        synchronized (duplicateEstimator) {
+            duplicateEstimator.reset();
+            latest.keySet().forEach(duplicateEstimator::add);
+            estimatorSeeded = true;
+        }
+        compactedBytes = Files.size(file);
+        reclaimedBytes.increment(reclaimed);
+        compactionDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.info("Compacted [{}] to {} distinct results, reclaiming {} bytes", file, latest.size(), reclaimed);
+        return reclaimed;
+    }
+
+    /**
+     * Checks the file against the compaction policy and compacts it if a threshold has been reached.
+     *
+     * @return true if the file was compacted
+     */
+    public synchronized boolean compactIfNeeded() {
+        try {
+            if (!Files.exists(file)) {
+                return false;
+            }
+            if (!estimatorSeeded) {
+                seedEstimator();
+            }
+            final long fileBytes = Files.size(file);
+            if (compactedBytes < 0) {
+                // Growth is measured from the size the file had when the repository started
+                compactedBytes = fileBytes;
+            }
+            if (compactionPolicy.shouldCompact(fileBytes, compactedBytes, duplicateEstimator.duplicateRatio())) {
+                compact();
+                return true;
+            }
+        } catch (final IOException | RuntimeException ex) {
+            log.error("Compaction of [{}] failed: {}", file, ex.getMessage());
+        }
+        return false;
+    }
+
+    private boolean isUnsaved(final PalindromeCheck palindromeCheck) {
+        if (isNull(palindromeCheck.getText()) || !keyFilterLoaded || !keyFilter.mightContain(palindromeCheck.getText())) {
+            return true;
+        }
+        skippedSaves.increment();
+        return false;
+    }
+
+    boolean isKeyFilterLoaded() {
+        return keyFilterLoaded;
+    }
+
+    double estimatedDuplicateRatio() {
+        return duplicateEstimator.duplicateRatio();
+    }
+
+    /**
+     * Feeds the results already in the file to the estimator once, so repeats of results saved before startup are counted.
+     */
+    private void seedEstimator() throws IOException {
+        final long length = groupCommitWriter.withExclusiveSink(sink::flushedLength);
+        forEach(length, palindromeCheck -> duplicateEstimator.add(palindromeCheck.getText()));
+        estimatorSeeded = true;
+    }
+
+    private void writeSnapshot(final Path snapshotFile, final Map<String, Boolean> latest) throws IOException {
+        final FileRecordSink snapshotSink = sinkFactory.apply(snapshotFile);
+        try {
+            final List<PalindromeCheck> batch = new ArrayList<>(SNAPSHOT_BATCH_SIZE);
+            for (final Map.Entry<String, Boolean> entry : latest.entrySet()) {
+                batch.add(PalindromeCheck.builder().text(entry.getKey()).isPalindrome(entry.getValue()).build());
+                if (batch.size() == SNAPSHOT_BATCH_SIZE) {
+                    snapshotSink.write(batch);
+                    batch.clear();
+                }
+            }
+            snapshotSink.write(batch);
+        } finally {
+            snapshotSink.close();
+        }
+    }
+
+    /**
+     * Waits until the results saved so far have been written to the file, for callers that need them there before going
+     * on. Saving never waits for this by itself.
+     */
+    public void flush() throws InterruptedException {
+        groupCommitWriter.flush();
+    }
+
+    /**
+     * Commits the queued results and closes the file. Runs when the application shuts down, so results accepted before a
+     * restart are not lost, waiting at most the drain timeout.
+     */
+    @PreDestroy
+    public void close() {
+        if (nonNull(compactionScheduler)) {
+            compactionScheduler.shutdownNow();
+        }
+        groupCommitWriter.close(drainTimeout);
+    }
+
+    /**
+     * Hands the batch to the file sink, then adds every committed text to the key filter and counts it towards the
+     * duplicate estimate. A batch the sink fails to write is neither marked saved nor counted.
+     */
+    private class EstimatingSink implements RecordSink<PalindromeCheck> {
+
+        @Override
+        public void write(final List<PalindromeCheck> batch) throws IOException {
+            sink.write(batch);
+            final boolean estimating = estimatorSeeded;
+            batch.forEach(palindromeCheck -> {
+                if (nonNull(palindromeCheck.getText())) {
+                    keyFilter.add(palindromeCheck.getText());
+                    if (estimating) {
+                        duplicateEstimator.add(palindromeCheck.getText());
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void close() throws IOException {
+            sink.close();
+        }
+    }
+}
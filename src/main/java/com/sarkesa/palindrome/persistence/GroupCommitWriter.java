@@ -0,0 +1,334 @@
+package com.sarkesa.palindrome.persistence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Appends records through a single long-lived writer thread fed by a bounded queue. The writer takes the first waiting
+ * record, then keeps collecting until the batch is full or the flush interval has passed, and commits the whole batch
+ * with one write and flush. Under load many records share each flush; when idle a record waits at most the flush interval.
+ * When the queue is full the {@link SaturationPolicy} decides whether the caller waits, the record is dropped or the caller
+ * writes it itself. Records the writer can no longer commit, because it was closed or interrupted, are counted as dropped
+ * rather than left in the queue.
+ *
+ * <p>The sink is guarded by a {@link ReentrantLock} rather than a monitor, because callers may write to it themselves.
+ * A virtual thread blocked on file I/O inside a monitor would pin its carrier thread.
+ */
+@Slf4j
+public class GroupCommitWriter<T> implements AutoCloseable {
+    private static final long IDLE_POLL_MILLIS = 100;
+    private static final String CLOSED = "the writer has been closed";
+
+    private final String name;
+    private final RecordSink<T> sink;
+    private final BlockingQueue<T> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final SaturationPolicy saturationPolicy;
+    private final Thread writerThread;
+    private final ReentrantLock sinkLock = new ReentrantLock();
+    private final Condition committed = sinkLock.newCondition();
+    // Records that entered the queue, and how many of them have since been committed, failed or been dropped, see flush()
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong settled = new AtomicLong();
+    private volatile boolean running = true;
+    // Set by the writer thread before it takes what is left in the queue for the last time
+    private volatile boolean exited;
+    private boolean sinkClosed;
+
+    private final DistributionSummary batchSizes;
+    private final Timer flushLatency;
+    private final Counter dropped;
+
+    public GroupCommitWriter(final String name,
+                             final RecordSink<T> sink,
+                             final int queueCapacity,
+                             final int batchSize,
+                             final Duration flushInterval,
+                             final SaturationPolicy saturationPolicy,
+                             final MeterRegistry meterRegistry) {
+        this.name = name;
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.saturationPolicy = saturationPolicy;
+
+        Gauge.builder("palindrome.persistence.queue.depth", queue, BlockingQueue::size)
+            .description("Records waiting for the writer thread")
+            .tag("writer", name)
+            .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("palindrome.persistence.batch.size")
+            .description("Records committed per flush")
+            .tag("writer", name)
+            .register(meterRegistry);
+        this.flushLatency = Timer.builder("palindrome.persistence.flush.latency")
+            .description("Time taken to write and flush one batch")
+            .tag("writer", name)
+            .register(meterRegistry);
+        this.dropped = Counter.builder("palindrome.persistence.dropped")
+            .description("Records discarded because the queue was full or the writer had been closed")
+            .tag("writer", name)
+            .register(meterRegistry);
+
+        this.writerThread = new Thread(this::run, name + "-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queues a record for the next group commit, applying the saturation policy if the queue is full.
+     */
+    public void submit(final T record) {
+        if (!running) {
+            drop(CLOSED);
+            return;
+        }
+        if (!queue.offer(record)) {
+            switch (saturationPolicy) {
+                case BLOCK:
+                    if (!putWhenSpace(record)) {
+                        return;
+                    }
+                    break;
+                case CALLER_RUNS:
+                    commit(List.of(record));
+                    return;
+                case DROP:
+                default:
+                    drop("the queue is full");
+                    return;
+            }
+        }
+
+        queued.incrementAndGet();
+        // The writer may have exited after the check above, and then nothing takes the record from the queue. Whichever
+        // of this thread and the writer's last drain removes it counts it, so it is counted exactly once.
+        if (exited && queue.remove(record)) {
+            drop(CLOSED);
+            settled.incrementAndGet();
+        }
+    }
+
+    /**
+     * Waits for space in the queue, giving up if the writer exits meanwhile.
+     *
+     * @return true if the record was queued
+     */
+    private boolean putWhenSpace(final T record) {
+        try {
+            while (!queue.offer(record, IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (exited) {
+                    drop(CLOSED);
+                    return false;
+                }
+            }
+            return true;
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            drop("the caller was interrupted while waiting for space");
+            return false;
+        }
+    }
+
+    private void drop(final String reason) {
+        dropped.increment();
+        log.warn("Dropped a record for {} because {}", name, reason);
+    }
+
+    private void dropQueued() {
+        final List<T> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        if (!leftovers.isEmpty()) {
+            dropped.increment(leftovers.size());
+            settled.addAndGet(leftovers.size());
+            log.warn("Dropped {} records for {} because {}", leftovers.size(), name, CLOSED);
+        }
+    }
+
+    /**
+     * Runs an operation on the sink while no batch is being committed, for example to swap the file underneath it.
+     * Records keep being queued meanwhile; the writer simply waits to commit the next batch.
+     */
+    public <V> V withExclusiveSink(final SinkOperation<V> operation) throws IOException {
+        sinkLock.lock();
+        try {
+            if (!writerThread.isAlive()) {
+                throw new IOException("The writer for " + name + " has been closed");
+            }
+            return operation.apply();
+        } finally {
+            sinkLock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every record queued before the call has been committed, failed to commit or been dropped, or until the
+     * writer has exited. Records
+     * are still committed in batches, so a caller that submits a full batch and then flushes does not wait for the flush
+     * interval.
+     */
+    public void flush() throws InterruptedException {
+        final long target = queued.get();
+        sinkLock.lock();
+        try {
+            while (settled.get() < target && writerThread.isAlive()) {
+                committed.await(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            sinkLock.unlock();
+        }
+    }
+
+    @FunctionalInterface
+    public interface SinkOperation<V> {
+        V apply() throws IOException;
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    public long batchCount() {
+        return batchSizes.count();
+    }
+
+    public double recordCount() {
+        return batchSizes.totalAmount();
+    }
+
+    public double totalFlushTime(final TimeUnit unit) {
+        return flushLatency.totalTime(unit);
+    }
+
+    public double droppedCount() {
+        return dropped.count();
+    }
+
+    /**
+     * Stops accepting records and waits for the writer to commit everything already queued, then closes the sink.
+     */
+    @Override
+    public void close() {
+        close(Duration.ZERO);
+    }
+
+    /**
+     * Stops accepting records and waits up to the timeout for the queue to drain. A zero timeout waits for as long as it takes.
+     * If the timeout passes first the writer is interrupted and the records still queued are counted as dropped.
+     */
+    public void close(final Duration drainTimeout) {
+        running = false;
+        log.info("Draining {} queued records for {}", queue.size(), name);
+        try {
+            writerThread.join(drainTimeout.toMillis());
+            if (writerThread.isAlive()) {
+                log.error("Writer for {} did not drain within {}, {} records were not saved", name, drainTimeout, queue.size());
+                writerThread.interrupt();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        final List<T> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                final T first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (isNull(first)) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+                commit(batch);
+                settle(batch.size());
+                batch.clear();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("Writer for {} interrupted with {} records queued", name, queue.size());
+        } finally {
+            exited = true;
+            dropQueued();
+            closeSink();
+        }
+    }
+
+    private void fill(final List<T> batch) throws InterruptedException {
+        final long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            final long remaining = deadline - System.nanoTime();
+            if (batch.size() == batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            final T next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (isNull(next)) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(final List<T> batch) {
+        // The sink is only ever used by one thread at a time, even when callers write for themselves
+        sinkLock.lock();
+        try {
+            if (sinkClosed) {
+                // Only a caller writing for itself can get here, once the writer has closed the sink
+                batch.forEach(record -> drop(CLOSED));
+                return;
+            }
+            final long start = System.nanoTime();
+            try {
+                sink.write(batch);
+            } catch (final IOException | RuntimeException ex) {
+                log.error("Failed to commit {} records for {}: {}", batch.size(), name, ex.getMessage());
+            }
+            flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(batch.size());
+        } finally {
+            sinkLock.unlock();
+        }
+    }
+
+    private void settle(final int records) {
+        sinkLock.lock();
+        try {
+            settled.addAndGet(records);
+            committed.signalAll();
+        } finally {
+            sinkLock.unlock();
+        }
+    }
+
+    private void closeSink() {
+        sinkLock.lock();
+        try {
+            sinkClosed = true;
+            sink.close();
+        } catch (final IOException ex) {
+            log.error("Failed to close the sink for {}: {}", name, ex.getMessage());
+        } finally {
+            sinkLock.unlock();
+        }
+    }
+}
@@ -3,11 +3,36 @@ package com.sarkesa.palindrome.persistence;
 import com.sarkesa.palindrome.model.PalindromeCheck;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface PalindromeRepository {
 
     void save(PalindromeCheck palindromeCheck);
 
+    /**
+     * Persists a group of results in one operation. Implementations should prefer a single write over one write per result.
+     */
+    default void saveAll(final List<PalindromeCheck> palindromeChecks) {
+        palindromeChecks.forEach(this::save);
+    }
+
     List<PalindromeCheck> findAll();
 
+    /**
+     * Passes up to the given number of the most recently saved results to the consumer, oldest first.
+     * Implementations should stream the stored results rather than load them all at once.
+     */
+    default void forEachRecent(final int limit, final Consumer<PalindromeCheck> consumer) {
+        final List<PalindromeCheck> palindromeChecks = findAll();
+        palindromeChecks.subList(Math.max(0, palindromeChecks.size() - limit), palindromeChecks.size()).forEach(consumer);
+    }
+
+    /**
+     * Passes every saved result to the consumer, oldest first. Implementations should stream the stored results rather
+     * than load them all at once.
+     */
+    default void forEachSaved(final Consumer<PalindromeCheck> consumer) {
+        findAll().forEach(consumer);
+    }
+
 }
@@ -0,0 +1,131 @@
+package com.sarkesa.palindrome.persistence;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.sarkesa.palindrome.engine.TextHash.hash;
+
+/**
+ * Bloom filter of the texts already saved, so a result evicted from the caches and computed again is not appended to
+ * the results file a second time. Memory is fixed by the expected number of texts and the false positive rate: about 10
+ * bits per text at 1%, 14 at 0.1% and 19 at 0.01%.
+ *
+ * <p>A false positive skips saving a text that was never saved. Results never change, so nothing wrong is read back, but
+ * that result is computed again after a restart. Past the expected number of texts the false positive rate climbs, see
+ * {@link #falsePositiveRate()}, so size it above the number of distinct texts the file will hold.
+ */
+@Component
+public class PersistedKeyFilter {
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final long MAX_BITS = (long) Integer.MAX_VALUE * Long.SIZE;
+
+    private final boolean enabled;
+    private final long[] words;
+    private final long bitCount;
+    private final int hashCount;
+    private final LongAdder added = new LongAdder();
+
+    @Autowired
+    public PersistedKeyFilter(@Value("${keyFilter.enabled}") final boolean enabled,
+                              @Value("${keyFilter.expectedKeys}") final long expectedKeys,
+                              @Value("${keyFilter.falsePositiveRate}") final double falsePositiveRate) {
+        if (enabled && (expectedKeys <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1)) {
+            throw new IllegalArgumentException("The key filter needs positive expected keys and a false positive rate between 0 and 1");
+        }
+        this.enabled = enabled;
+        if (enabled) {
+            final double bitsPerKey = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+            this.bitCount = Math.min(MAX_BITS, Math.max(Long.SIZE, (long) Math.ceil(expectedKeys * bitsPerKey)));
+            this.hashCount = Math.max(1, (int) Math.round(bitsPerKey * Math.log(2)));
+        } else {
+            this.bitCount = 0;
+            this.hashCount = 0;
+        }
+        this.words = new long[(int) ((bitCount + Long.SIZE - 1) / Long.SIZE)];
+    }
+
+    /**
+     * A filter that holds nothing, so every text is saved.
+     */
+    public static PersistedKeyFilter disabled() {
+        return new PersistedKeyFilter(false, 0, 0);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Adds a saved text. Concurrent adds of the same new text may both report it new, which at worst saves it twice.
+     *
+     * @return false if the text was probably added before, true if it certainly was not or the filter is disabled
+     */
+    public boolean add(final String text) {
+        if (!enabled) {
+            return true;
+        }
+        // Double hashing, every probe is derived from one 64 bit hash and a step taken from its upper half
+        final long hash = hash(text);
+        final long step = (hash >>> 32) | 1;
+        long combined = hash;
+        boolean added = false;
+        for (int i = 0; i < hashCount; i++) {
+            final long bit = (combined & Long.MAX_VALUE) % bitCount;
+            final long mask = 1L << bit;
+            final int word = (int) (bit >>> 6);
+            if (((long) WORDS.getAcquire(words, word) & mask) == 0) {
+                added |= ((long) WORDS.getAndBitwiseOr(words, word, mask) & mask) == 0;
+            }
+            combined += step;
+        }
+        if (added) {
+            this.added.increment();
+        }
+        return added;
+    }
+
+    /**
+     * Checks whether a text was probably added, without adding it.
+     *
+     * @return true if the text was probably added before, false if it certainly was not or the filter is disabled
+     */
+    public boolean mightContain(final String text) {
+        if (!enabled) {
+            return false;
+        }
+        final long hash = hash(text);
+        final long step = (hash >>> 32) | 1;
+        long combined = hash;
+        for (int i = 0; i < hashCount; i++) {
+            final long bit = (combined & Long.MAX_VALUE) % bitCount;
+            if (((long) WORDS.getAcquire(words, (int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+            combined += step;
+        }
+        return true;
+    }
+
+    /**
+     * Counts the texts added and found to be new, which is the number of distinct texts less any false positives.
+     */
+    public long size() {
+        return added.sum();
+    }
+
+    public long bits() {
+        return bitCount;
+    }
+
+    /**
+     * Estimates the chance that a text never added is reported as added, given the texts added so far.
+     */
+    public double falsePositiveRate() {
+        return enabled ? Math.pow(1 - Math.exp(-(double) hashCount * size() / bitCount), hashCount) : 0;
+    }
+}
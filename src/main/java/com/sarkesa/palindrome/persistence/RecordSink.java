@@ -0,0 +1,19 @@
+package com.sarkesa.palindrome.persistence;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination for the batches committed by a {@link GroupCommitWriter}. Only ever called from the writer thread,
+ * so implementations may hold open files without synchronisation.
+ */
+public interface RecordSink<T> {
+
+    /**
+     * Writes and flushes one batch. The list is reused by the writer once this returns.
+     */
+    void write(List<T> batch) throws IOException;
+
+    default void close() throws IOException {
+    }
+}
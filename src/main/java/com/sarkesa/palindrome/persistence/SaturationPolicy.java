@@ -0,0 +1,21 @@
+package com.sarkesa.palindrome.persistence;
+
+/**
+ * What a {@link GroupCommitWriter} does with a record when its queue is full.
+ */
+public enum SaturationPolicy {
+    /**
+     * Wait for space in the queue, slowing the caller down to the speed of the disk.
+     */
+    BLOCK,
+
+    /**
+     * Discard the record and count it in the dropped metric, so callers are never slowed down.
+     */
+    DROP,
+
+    /**
+     * Write the record on the calling thread, taking turns with the writer thread.
+     */
+    CALLER_RUNS
+}
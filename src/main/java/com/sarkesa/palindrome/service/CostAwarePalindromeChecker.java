@@ -0,0 +1,97 @@
+package com.sarkesa.palindrome.service;
+
+import com.sarkesa.palindrome.engine.PalindromeEngine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.logging.log4j.util.Strings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Decides which inputs are worth caching. Checking a short input can take less than the cache proxy, key folding and
+ * cache lookup around it, so inputs shorter than admission.minCachedLength are evaluated directly, skipping the cache
+ * and persistence. Longer inputs go through the cached {@link PalindromeCheckerService}.
+ *
+ * <p>Zero, the default, caches and saves every input. A bypassed result is never saved, cached, checkpointed or indexed,
+ * so only raise the threshold when short results are not needed there.
+ */
+@Slf4j
+@Service
+public class CostAwarePalindromeChecker {
+    private final PalindromeCheckerService palindromeCheckerService;
+    private final PalindromeEngine palindromeEngine;
+    private final int minCachedLength;
+    private final Counter bypassed;
+
+    public CostAwarePalindromeChecker(final PalindromeCheckerService palindromeCheckerService,
+                                      final PalindromeEngine palindromeEngine,
+                                      @Value("${admission.minCachedLength}") final int minCachedLength,
+                                      final MeterRegistry meterRegistry) {
+        if (minCachedLength < 0) {
+            throw new IllegalArgumentException("admission.minCachedLength must not be negative");
+        }
+        this.palindromeCheckerService = palindromeCheckerService;
+        this.palindromeEngine = palindromeEngine;
+        this.minCachedLength = minCachedLength;
+        this.bypassed = Counter.builder("palindrome.admission.bypassed")
+            .description("Checks evaluated directly because the input was too short to be worth caching")
+            .register(meterRegistry);
+        Gauge.builder("palindrome.admission.min.cached.length", this, CostAwarePalindromeChecker::getMinCachedLength)
+            .description("Shortest input, in chars, that is cached and saved")
+            .register(meterRegistry);
+    }
+
+    public boolean isPalindrome(final String input) {
+        if (isNull(input) || input.length() >= minCachedLength) {
+            return palindromeCheckerService.isPalindrome(input);
+        }
+        bypassed.increment();
+        return evaluate(input);
+    }
+
+    /**
+     * Checks many inputs at once, sending only those long enough to cache to the cached batch check.
+     *
+     * @return the result for every distinct input, keyed by the input as supplied
+     */
+    public Map<String, Boolean> isPalindromeBatch(final Collection<String> inputs) {
+        final Map<String, Boolean> results = new HashMap<>();
+        final List<String> admitted = new ArrayList<>(inputs.size());
+        for (final String input : inputs) {
+            if (input.length() >= minCachedLength) {
+                admitted.add(input);
+            } else {
+                results.put(input, evaluate(input));
+            }
+        }
+        bypassed.increment(inputs.size() - admitted.size());
+        if (results.isEmpty() && !admitted.isEmpty()) {
+            return palindromeCheckerService.isPalindromeBatch(admitted);
+        }
+        if (!admitted.isEmpty()) {
+            results.putAll(palindromeCheckerService.isPalindromeBatch(admitted));
+        }
+        return results;
+    }
+
+    public int getMinCachedLength() {
+        return minCachedLength;
+    }
+
+    /**
+     * Gives the same result as the cached check. The engine ignores case itself, so the input does not need folding.
+     */
+    private boolean evaluate(final String input) {
+        return !Strings.isEmpty(input) && palindromeEngine.isPalindrome(input);
+    }
+}
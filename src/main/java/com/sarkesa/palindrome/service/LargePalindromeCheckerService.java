@@ -0,0 +1,53 @@
+package com.sarkesa.palindrome.service;
+
+import com.sarkesa.palindrome.engine.ForkJoinPalindromeEngine;
+import com.sarkesa.palindrome.engine.LongestPalindromeFinder;
+import com.sarkesa.palindrome.model.PalindromeSubstring;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.nio.CharBuffer;
+
+/**
+ * Checks documents that are too large for the string keyed results cache. Results are neither cached nor persisted,
+ * so huge inputs cannot crowd out the cache or the results file.
+ */
+@Service
+@Slf4j
+public class LargePalindromeCheckerService {
+    private final ForkJoinPalindromeEngine forkJoinPalindromeEngine;
+    private final LongestPalindromeFinder longestPalindromeFinder;
+
+    public LargePalindromeCheckerService(final ForkJoinPalindromeEngine forkJoinPalindromeEngine,
+                                         final LongestPalindromeFinder longestPalindromeFinder) {
+        this.forkJoinPalindromeEngine = forkJoinPalindromeEngine;
+        this.longestPalindromeFinder = longestPalindromeFinder;
+    }
+
+    /**
+     * Checks the chars between the buffer's position and limit. The buffer must be backed by an array.
+     */
+    public boolean isPalindrome(final CharBuffer document) {
+        if (!document.hasRemaining()) {
+            log.debug("Document is empty - this cannot be a palindrome");
+            return false;
+        }
+
+        final char[] chars = document.position() == 0 && document.arrayOffset() == 0
+            ? document.array()
+            : document.toString().toCharArray();
+        final boolean result = forkJoinPalindromeEngine.isPalindrome(chars, document.remaining());
+        log.debug("Document of {} chars {} a palindrome", document.remaining(), result ? "IS" : "IS NOT");
+        return result;
+    }
+
+    /**
+     * Finds the longest palindromic substring of the chars between the buffer's position and limit. Offsets are
+     * relative to the position.
+     */
+    public PalindromeSubstring findLongestPalindrome(final CharBuffer document) {
+        final PalindromeSubstring longest = longestPalindromeFinder.findLongest(document.toString());
+        log.debug("Longest palindrome of document of {} chars found between offsets {} and {}", document.remaining(), longest.getStart(), longest.getEnd());
+        return longest;
+    }
+}
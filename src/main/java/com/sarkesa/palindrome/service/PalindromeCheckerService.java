@@ -1,19 +1,48 @@
 package com.sarkesa.palindrome.service;
 
 import com.github.benmanes.caffeine.cache.Cache;
+import com.sarkesa.palindrome.cache.CoalescingCaffeineCache;
+import com.sarkesa.palindrome.cache.OffHeapResultIndex;
+import com.sarkesa.palindrome.cache.SharedResultCache;
+import com.sarkesa.palindrome.engine.LongestPalindromeFinder;
+import com.sarkesa.palindrome.engine.PalindromeEngine;
+import com.sarkesa.palindrome.model.CachedResultsPage;
 import com.sarkesa.palindrome.model.PalindromeCheck;
+import com.sarkesa.palindrome.model.PalindromeSubstring;
 import com.sarkesa.palindrome.persistence.PalindromeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.logging.log4j.util.Strings;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
+import static com.sarkesa.palindrome.cache.CacheConfig.CANONICAL_KEY_GENERATOR;
+import static com.sarkesa.palindrome.cache.CacheConfig.LONGEST_PALINDROME_CACHE;
 import static com.sarkesa.palindrome.cache.CacheConfig.PALINDROME_RESULTS_CACHE;
+import static com.sarkesa.palindrome.concurrent.ExecutorConfig.BATCH_EXECUTOR;
+import static com.sarkesa.palindrome.engine.CaseFolding.canonicalize;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
@@ -21,53 +50,266 @@ import static java.util.Objects.nonNull;
 @Slf4j
 public class PalindromeCheckerService {
     private final CaffeineCacheManager cacheManager;
+    private final OffHeapResultIndex resultIndex;
+    private final SharedResultCache sharedResultCache;
     private final PalindromeRepository palindromeRepository;
+    private final PalindromeEngine palindromeEngine;
+    private final LongestPalindromeFinder longestPalindromeFinder;
+    private final Executor batchExecutor;
+    private final int batchChunkSize;
+    private final Timer cacheLoadTimer;
 
     public PalindromeCheckerService(final CaffeineCacheManager cacheManager,
-                                    final PalindromeRepository palindromeRepository) {
+                                    final OffHeapResultIndex resultIndex,
+                                    final SharedResultCache sharedResultCache,
+                                    final PalindromeRepository palindromeRepository,
+                                    final PalindromeEngine palindromeEngine,
+                                    final LongestPalindromeFinder longestPalindromeFinder,
+                                    @Qualifier(BATCH_EXECUTOR) final Executor batchExecutor,
+                                    @Value("${batch.chunkSize}") final int batchChunkSize,
+                                    final MeterRegistry meterRegistry) {
         this.cacheManager = cacheManager;
+        this.resultIndex = resultIndex;
+        this.sharedResultCache = sharedResultCache;
         this.palindromeRepository = palindromeRepository;
-        populateCache();
+        this.palindromeEngine = palindromeEngine;
+        this.longestPalindromeFinder = longestPalindromeFinder;
+        this.batchExecutor = batchExecutor;
+        this.batchChunkSize = batchChunkSize;
+        this.cacheLoadTimer = Timer.builder("palindrome.cache.load")
+            .description("Time taken to evaluate and save results missing from the cache, per single or batch lookup")
+            .tag("cache", PALINDROME_RESULTS_CACHE)
+            .register(meterRegistry);
     }
 
-    @Cacheable(PALINDROME_RESULTS_CACHE)
+    /**
+     * Checks a single input. Results are cached and saved under the canonical form of the input, so case variants such
+     * as "Kayak" and "KAYAK" share one cache entry and one saved result. A result evicted from the cache is taken from
+     * the off-heap result index, or from the cache shared with other instances on the host, when it is there, without
+     * being evaluated or saved again. Concurrent misses for the same canonical input are coalesced by the cache, so it is
+     * evaluated and saved once.
+     */
+    @Cacheable(value = PALINDROME_RESULTS_CACHE, keyGenerator = CANONICAL_KEY_GENERATOR, sync = true)
     public boolean isPalindrome(final String input) {
         if (Strings.isEmpty(input)) {
             log.debug("Input is empty - this cannot be a palindrome");
             return false;
-        } else if (input.length() == 1) {
+        }
+        // Only reached on a cache miss, so the time taken is the cache's load latency
+        final long start = System.nanoTime();
+        final String canonicalInput = canonicalize(input);
+        final Boolean indexed = findComputedResult(canonicalInput);
+        if (nonNull(indexed)) {
+            cacheLoadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return indexed;
+        }
+        final boolean result;
+        if (canonicalInput.length() == 1) {
             log.debug("Input length is only 1 - this is a palindrome");
-            addResultToPersistenceLayer(input, true);
-            return true;
+            result = true;
         } else {
-            final String reversed = new StringBuilder(input).reverse().toString();
-            final boolean result = input.equalsIgnoreCase(reversed);
+            result = palindromeEngine.isPalindrome(canonicalInput);
             log.debug("Input {} a palindrome", result ? "IS" : "IS NOT");
-            addResultToPersistenceLayer(input, result);
-            return result;
         }
+        addResultToPersistenceLayer(canonicalInput, result);
+        rememberComputedResult(canonicalInput, result);
+        cacheLoadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
     }
 
-    public Map<Object, Object> getCachedPalindromeResults() {
+    /**
+     * Checks many inputs at once. Cached results are looked up in bulk by canonical form, the misses are evaluated in
+     * parallel chunks on the bounded batch executor and then persisted together. Each miss is loaded through the cache,
+     * so one also being loaded by another single or batch check is waited for rather than evaluated and saved twice.
+     *
+     * <p>Caffeine's bulk {@code getAll} is not used for the misses. Its bulk loader runs on the calling thread, so the
+     * misses could not be split across the batch executor. It also does not block per key, so a check already loading
+     * one of the texts would not be waited for. Each miss is loaded on its own instead, which keeps the coalescing of
+     * concurrent misses.
+     *
+     * @param inputs non-empty inputs, duplicates and case variants are evaluated once
+     * @return the result for every distinct input, keyed by the input as supplied
+     */
+    public Map<String, Boolean> isPalindromeBatch(final Collection<String> inputs) {
+        final Map<String, String> canonicalInputs = new HashMap<>();
+        final Set<String> distinctCanonicalInputs = new LinkedHashSet<>();
+        for (final String input : inputs) {
+            final String canonicalInput = canonicalize(input);
+            canonicalInputs.put(input, canonicalInput);
+            distinctCanonicalInputs.add(canonicalInput);
+        }
         final CaffeineCache caffeineCache = (CaffeineCache) cacheManager.getCache(PALINDROME_RESULTS_CACHE);
 
+        final Map<String, Boolean> canonicalResults = new HashMap<>();
         if (isNull(caffeineCache)) {
-            return Map.of();
+            canonicalResults.putAll(evaluateAndPersist(distinctCanonicalInputs, null));
+        } else {
+            caffeineCache.getNativeCache().getAllPresent(distinctCanonicalInputs)
+                .forEach((key, value) -> canonicalResults.put((String) key, (Boolean) value));
+            final Set<String> misses = new LinkedHashSet<>(distinctCanonicalInputs);
+            misses.removeAll(canonicalResults.keySet());
+            canonicalResults.putAll(evaluateAndPersist(misses, caffeineCache));
+        }
+
+        final Map<String, Boolean> results = new HashMap<>();
+        canonicalInputs.forEach((input, canonicalInput) -> results.put(input, canonicalResults.get(canonicalInput)));
+        return results;
+    }
+
+    @Cacheable(value = LONGEST_PALINDROME_CACHE, sync = true)
+    public PalindromeSubstring findLongestPalindrome(final String input) {
+        final PalindromeSubstring longest = longestPalindromeFinder.findLongest(input);
+        log.debug("Longest palindrome found between offsets {} and {}", longest.getStart(), longest.getEnd());
+        return longest;
+    }
+
+    /**
+     * Returns one page of cached results in text order, starting after the given text. Pages are found by a single pass
+     * over the cache that keeps only the smallest matching texts, so a page costs memory in proportion to its size rather
+     * than to the cache. Results added or evicted between pages are picked up or skipped without repeating any text.
+     *
+     * @param after        the last text of the previous page, or null for the first page
+     * @param limit        the maximum number of results on the page
+     * @param isPalindrome only results with this value, or null for all results
+     * @param prefix       only texts starting with this prefix, ignoring case, or null for all texts
+     */
+    public CachedResultsPage getCachedPalindromeResults(final String after, final int limit, final Boolean isPalindrome, final String prefix) {
+        // One result beyond the limit is kept to tell whether another page follows
+        final TreeMap<String, Boolean> page = new TreeMap<>();
+        forEachCachedPalindromeResult(isPalindrome, prefix, (text, result) -> {
+            if (isNull(after) || text.compareTo(after) > 0) {
+                page.put(text, result);
+                if (page.size() > limit + 1) {
+                    page.pollLastEntry();
+                }
+            }
+        });
+
+        final boolean more = page.size() > limit;
+        if (more) {
+            page.pollLastEntry();
+        }
+        return CachedResultsPage.builder()
+            .results(new LinkedHashMap<>(page))
+            .lastText(more ? page.lastKey() : null)
+            .build();
+    }
+
+    /**
+     * Visits the cached results matching the filters without copying the cache. Results added or evicted during the walk
+     * may or may not be seen.
+     */
+    public void forEachCachedPalindromeResult(final Boolean isPalindrome, final String prefix, final BiConsumer<String, Boolean> consumer) {
+        final CaffeineCache caffeineCache = (CaffeineCache) cacheManager.getCache(PALINDROME_RESULTS_CACHE);
+        if (isNull(caffeineCache)) {
+            return;
         }
 
+        final String canonicalPrefix = isNull(prefix) ? "" : canonicalize(prefix);
         final Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
-        return nativeCache.asMap();
+        nativeCache.asMap().forEach((key, value) -> {
+            final String text = (String) key;
+            final Boolean result = (Boolean) value;
+            if (text.startsWith(canonicalPrefix) && (isNull(isPalindrome) || isPalindrome.equals(result))) {
+                consumer.accept(text, result);
+            }
+        });
+    }
+
+    /**
+     * Streams the cached results matching the filters without copying the cache, for a caller that consumes them at its
+     * own pace. Results added or evicted while the stream is consumed may or may not be seen.
+     */
+    public Stream<Map.Entry<String, Boolean>> streamCachedPalindromeResults(final Boolean isPalindrome, final String prefix) {
+        final CaffeineCache caffeineCache = (CaffeineCache) cacheManager.getCache(PALINDROME_RESULTS_CACHE);
+        if (isNull(caffeineCache)) {
+            return Stream.empty();
+        }
+
+        final String canonicalPrefix = isNull(prefix) ? "" : canonicalize(prefix);
+        return caffeineCache.getNativeCache().asMap().entrySet().stream()
+            .map(entry -> Map.entry((String) entry.getKey(), (Boolean) entry.getValue()))
+            .filter(entry -> entry.getKey().startsWith(canonicalPrefix) && (isNull(isPalindrome) || isPalindrome.equals(entry.getValue())));
+    }
+
+    /**
+     * Looks for a result computed earlier by this instance, then by any instance on the host. A result shared by another
+     * instance is indexed here so the next lookup stays in this process.
+     */
+    private Boolean findComputedResult(final String canonicalInput) {
+        final Boolean indexed = resultIndex.get(canonicalInput);
+        if (nonNull(indexed)) {
+            return indexed;
+        }
+        final Boolean shared = sharedResultCache.get(canonicalInput);
+        if (nonNull(shared)) {
+            resultIndex.put(canonicalInput, shared);
+        }
+        return shared;
+    }
+
+    private void rememberComputedResult(final String canonicalInput, final boolean result) {
+        resultIndex.put(canonicalInput, result);
+        sharedResultCache.put(canonicalInput, result);
     }
 
     private void addResultToPersistenceLayer(final String input, final boolean result) {
         palindromeRepository.save(PalindromeCheck.builder().text(input).isPalindrome(result).build());
     }
 
-    private void populateCache() {
-        final CaffeineCache caffeineCache = (CaffeineCache) cacheManager.getCache(PALINDROME_RESULTS_CACHE);
-        if (nonNull(caffeineCache)) {
-            final List<PalindromeCheck> savedChecks = palindromeRepository.findAll();
-            savedChecks.forEach(palindromeCheck -> caffeineCache.put(palindromeCheck.getText(), palindromeCheck.getIsPalindrome()));
+    private Map<String, Boolean> evaluateAndPersist(final Set<String> inputs, final CaffeineCache caffeineCache) {
+        if (inputs.isEmpty()) {
+            return Map.of();
+        }
+        final long loadStart = System.nanoTime();
+        log.debug("Loading {} uncached batch inputs", inputs.size());
+        final List<String> pending = new ArrayList<>(inputs);
+        final Map<String, Boolean> results = new ConcurrentHashMap<>();
+        final List<CompletableFuture<Map<String, Boolean>>> chunks = new ArrayList<>();
+        for (int start = 0; start < pending.size(); start += batchChunkSize) {
+            final List<String> chunk = pending.subList(start, Math.min(start + batchChunkSize, pending.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> load(chunk, caffeineCache, results), batchExecutor));
+        }
+
+        final List<PalindromeCheck> newResults = new ArrayList<>(pending.size());
+        chunks.forEach(chunk -> chunk.join().forEach((text, result) -> {
+            rememberComputedResult(text, result);
+            newResults.add(PalindromeCheck.builder().text(text).isPalindrome(result).build());
+        }));
+        if (!newResults.isEmpty()) {
+            palindromeRepository.saveAll(newResults);
+        }
+        cacheLoadTimer.record(System.nanoTime() - loadStart, TimeUnit.NANOSECONDS);
+        return results;
+    }
+
+    /**
+     * Loads each input into the results, through the cache when there is one.
+     *
+     * @return only the results evaluated by this call, which it is responsible for saving
+     */
+    private Map<String, Boolean> load(final List<String> inputs, final CaffeineCache caffeineCache, final Map<String, Boolean> results) {
+        final Map<String, Boolean> evaluated = new HashMap<>();
+        for (final String input : inputs) {
+            final Callable<Boolean> loader = () -> findOrEvaluate(input, evaluated);
+            if (isNull(caffeineCache)) {
+                results.put(input, findOrEvaluate(input, evaluated));
+            } else if (caffeineCache instanceof CoalescingCaffeineCache) {
+                results.put(input, ((CoalescingCaffeineCache) caffeineCache).load(input, loader));
+            } else {
+                results.put(input, caffeineCache.get(input, loader));
+            }
+        }
+        return evaluated;
+    }
+
+    private boolean findOrEvaluate(final String canonicalInput, final Map<String, Boolean> evaluated) {
+        final Boolean indexed = findComputedResult(canonicalInput);
+        if (nonNull(indexed)) {
+            return indexed;
         }
+        final boolean result = palindromeEngine.isPalindrome(canonicalInput);
+        evaluated.put(canonicalInput, result);
+        return result;
     }
 }
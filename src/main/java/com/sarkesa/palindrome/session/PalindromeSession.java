@@ -0,0 +1,112 @@
+package com.sarkesa.palindrome.session;
+
+import com.sarkesa.palindrome.engine.PalindromeEngine;
+import com.sarkesa.palindrome.error.PayloadTooLargeException;
+import com.sarkesa.palindrome.model.PalindromeSessionState;
+
+import java.util.UUID;
+
+import static com.sarkesa.palindrome.engine.CaseFolding.fold;
+import static com.sarkesa.palindrome.session.RollingHash.add;
+import static com.sarkesa.palindrome.session.RollingHash.multiply;
+
+/**
+ * Text built up by appending chunks, with forward and backward polynomial hashes of its folded code points kept up to
+ * date so each append costs only the length of the chunk. The text is a palindrome only if the two hashes are equal.
+ * An append answers from the hashes alone: with the modulus 2^61 - 1 and a random base per session, a text that is not a
+ * palindrome has equal hashes with a chance of at most its length in 2^61. Asking for the state explicitly confirms equal
+ * hashes with the palindrome engine, once per length, so that answer is always exact.
+ */
+class PalindromeSession {
+    private final UUID sessionId;
+    private final PalindromeEngine palindromeEngine;
+    private final int maxLength;
+    private final long base;
+
+    private final StringBuilder text = new StringBuilder();
+    // Sum of c[i] * base^(n - 1 - i) and of c[i] * base^i over the n code points hashed so far
+    private long forwardHash;
+    private long backwardHash;
+    private long power = 1;
+    // A high surrogate at the end of a chunk is held back until the next chunk supplies its low surrogate
+    private int hashedLength;
+    // The text only changes by growing, so the last answer stays valid until the length changes
+    private int checkedLength = -1;
+    private boolean checkedResult;
+    private boolean closed;
+
+    PalindromeSession(final UUID sessionId, final PalindromeEngine palindromeEngine, final int maxLength, final long base) {
+        this.sessionId = sessionId;
+        this.palindromeEngine = palindromeEngine;
+        this.maxLength = maxLength;
+        this.base = base;
+    }
+
+    synchronized PalindromeSessionState append(final CharSequence chunk) {
+        if (closed) {
+            throw PalindromeSessionService.notFound(sessionId);
+        }
+        if (text.length() + (long) chunk.length() > maxLength) {
+            throw new PayloadTooLargeException("The session text would exceed " + maxLength + " characters.");
+        }
+        text.append(chunk);
+
+        int offset = hashedLength;
+        while (offset < text.length()) {
+            if (Character.isHighSurrogate(text.charAt(offset)) && offset + 1 == text.length()) {
+                break;
+            }
+            final int codePoint = text.codePointAt(offset);
+            final long folded = fold(codePoint);
+            forwardHash = add(multiply(forwardHash, base), folded);
+            backwardHash = add(backwardHash, multiply(folded, power));
+            power = multiply(power, base);
+            offset += Character.charCount(codePoint);
+        }
+        hashedLength = offset;
+        return toState(checkedLength == text.length() ? checkedResult : hashesMatch());
+    }
+
+    /**
+     * Answers for the text so far, confirming equal hashes with the engine, which costs the length of the text the first
+     * time it is asked for each length.
+     */
+    synchronized PalindromeSessionState state() {
+        if (checkedLength != text.length()) {
+            checkedResult = hashesMatch() && palindromeEngine.isPalindrome(text);
+            checkedLength = text.length();
+        }
+        return toState(checkedResult);
+    }
+
+    /**
+     * Stops the session taking more text once it has been removed, so the text counted against the total is final.
+     *
+     * @return the length of the text
+     */
+    synchronized int close() {
+        closed = true;
+        return text.length();
+    }
+
+    private PalindromeSessionState toState(final boolean isPalindrome) {
+        return PalindromeSessionState.builder()
+            .sessionId(sessionId)
+            .length(text.length())
+            .isPalindrome(isPalindrome)
+            .build();
+    }
+
+    private boolean hashesMatch() {
+        long forward = forwardHash;
+        long backward = backwardHash;
+        if (hashedLength < text.length()) {
+            // Until its pair arrives a trailing high surrogate counts as a code point on its own, as it does in the engine
+            final long pending = fold(text.charAt(hashedLength));
+            forward = add(multiply(forward, base), pending);
+            backward = add(backward, multiply(pending, power));
+        }
+
+        return forward == backward;
+    }
+}
@@ -0,0 +1,120 @@
+package com.sarkesa.palindrome.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.sarkesa.palindrome.engine.PalindromeEngine;
+import com.sarkesa.palindrome.error.NotFoundException;
+import com.sarkesa.palindrome.error.ServiceUnavailableException;
+import com.sarkesa.palindrome.model.PalindromeSessionState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Holds the open sessions. Sessions not used for the idle timeout are dropped, and once the maximum number of sessions
+ * is reached the least likely to be used again are evicted, so abandoned sessions cannot accumulate. The text held by all
+ * open sessions together is capped at session.maxTotalChars; an append that would pass it is refused until sessions are
+ * closed or expire, so memory stays bounded however many sessions grow to the maximum length.
+ */
+@Slf4j
+@Service
+public class PalindromeSessionService {
+    private static final long MIN_BASE = 1L << 21;
+
+    private final Cache<UUID, PalindromeSession> sessions;
+    private final PalindromeEngine palindromeEngine;
+    private final int maxLength;
+    private final long maxTotalChars;
+    private final AtomicLong totalChars = new AtomicLong();
+
+    @Autowired
+    public PalindromeSessionService(final PalindromeEngine palindromeEngine,
+                                    @Value("${session.maxSessions}") final long maxSessions,
+                                    @Value("${session.idleTimeoutSeconds}") final long idleTimeoutSeconds,
+                                    @Value("${session.maxLength}") final int maxLength,
+                                    @Value("${session.maxTotalChars}") final long maxTotalChars) {
+        this(palindromeEngine, maxSessions, idleTimeoutSeconds, maxLength, maxTotalChars, Ticker.systemTicker());
+    }
+
+    PalindromeSessionService(final PalindromeEngine palindromeEngine,
+                             final long maxSessions,
+                             final long idleTimeoutSeconds,
+                             final int maxLength,
+                             final long maxTotalChars,
+                             final Ticker ticker) {
+        this.palindromeEngine = palindromeEngine;
+        this.maxLength = maxLength;
+        this.maxTotalChars = maxTotalChars;
+        // The listener runs on the thread removing the session, so its text is released before that call returns
+        this.sessions = Caffeine.newBuilder()
+            .maximumSize(maxSessions)
+            .expireAfterAccess(Duration.ofSeconds(idleTimeoutSeconds))
+            .ticker(ticker)
+            .executor(Runnable::run)
+            .<UUID, PalindromeSession>removalListener((sessionId, session, cause) -> totalChars.addAndGet(-session.close()))
+            .build();
+    }
+
+    public PalindromeSessionState open() {
+        final UUID sessionId = UUID.randomUUID();
+        // A base chosen per session, larger than any code point, means crafted input cannot force collisions
+        final long base = ThreadLocalRandom.current().nextLong(MIN_BASE, RollingHash.MODULUS);
+        final PalindromeSession session = new PalindromeSession(sessionId, palindromeEngine, maxLength, base);
+        sessions.put(sessionId, session);
+        log.debug("Opened session {}", sessionId);
+        return session.state();
+    }
+
+    public PalindromeSessionState append(final UUID sessionId, final CharSequence chunk) {
+        final PalindromeSession session = find(sessionId);
+        if (totalChars.addAndGet(chunk.length()) > maxTotalChars) {
+            totalChars.addAndGet(-chunk.length());
+            throw new ServiceUnavailableException("Open sessions already hold as much text as allowed. Try again later.");
+        }
+        try {
+            return session.append(chunk);
+        } catch (final RuntimeException ex) {
+            totalChars.addAndGet(-chunk.length());
+            throw ex;
+        }
+    }
+
+    public PalindromeSessionState get(final UUID sessionId) {
+        return find(sessionId).state();
+    }
+
+    /**
+     * Counts the chars held by the open sessions.
+     */
+    public long totalChars() {
+        return totalChars.get();
+    }
+
+    public void close(final UUID sessionId) {
+        if (isNull(sessions.asMap().remove(sessionId))) {
+            throw notFound(sessionId);
+        }
+        log.debug("Closed session {}", sessionId);
+    }
+
+    private PalindromeSession find(final UUID sessionId) {
+        final PalindromeSession session = sessions.getIfPresent(sessionId);
+        if (isNull(session)) {
+            throw notFound(sessionId);
+        }
+        return session;
+    }
+
+    static NotFoundException notFound(final UUID sessionId) {
+        return new NotFoundException("No open session with ID " + sessionId + ". It may have expired.");
+    }
+}
@@ -0,0 +1,28 @@
+package com.sarkesa.palindrome.session;
+
+/**
+ * Arithmetic modulo the Mersenne prime 2^61 - 1, which keeps polynomial hashes in a long without division.
+ */
+final class RollingHash {
+    static final long MODULUS = (1L << 61) - 1;
+
+    private RollingHash() {
+    }
+
+    static long add(final long first, final long second) {
+        final long sum = first + second;
+        return sum >= MODULUS ? sum - MODULUS : sum;
+    }
+
+    static long multiply(final long first, final long second) {
+        final long high = Math.multiplyHigh(first, second);
+        final long low = first * second;
+        // 2^64 is 2^3 modulo 2^61 - 1, so the high word folds back in shifted by three
+        return reduce((low & MODULUS) + (low >>> 61) + (high << 3));
+    }
+
+    private static long reduce(final long value) {
+        final long folded = (value & MODULUS) + (value >>> 61);
+        return folded >= MODULUS ? folded - MODULUS : folded;
+    }
+}
@@ -0,0 +1,45 @@
+package com.sarkesa.palindrome.validation;
+
+import com.sarkesa.palindrome.model.PalindromeCheckRequest;
+import org.springframework.stereotype.Component;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Applies the same bean validation rules as a single check request, for endpoints that accept many requests in one body
+ * and need to report errors per item rather than rejecting the whole body.
+ */
+@Component
+public class PalindromeRequestValidator {
+    private final Validator validator;
+
+    public PalindromeRequestValidator(final Validator validator) {
+        this.validator = validator;
+    }
+
+    /**
+     * Validates a single request.
+     *
+     * @return a description of every invalid field, or empty if the request is valid
+     */
+    public Optional<String> validate(final PalindromeCheckRequest palindromeCheckRequest) {
+        if (isNull(palindromeCheckRequest)) {
+            return Optional.of("The request item was null.");
+        }
+
+        final Set<ConstraintViolation<PalindromeCheckRequest>> violations = validator.validate(palindromeCheckRequest);
+        if (violations.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final StringBuilder sb = new StringBuilder("The following fields in the request were invalid. ");
+        violations.forEach(violation ->
+            sb.append(String.format("Field [%s], error message [%s]. ", violation.getPropertyPath(), violation.getMessage())));
+        return Optional.of(sb.toString());
+    }
+}
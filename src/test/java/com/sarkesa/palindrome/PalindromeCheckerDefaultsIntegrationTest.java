@@ -0,0 +1,83 @@
+package com.sarkesa.palindrome;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sarkesa.palindrome.model.PalindromeCheck;
+import com.sarkesa.palindrome.model.PalindromeCheckRequest;
+import com.sarkesa.palindrome.persistence.PalindromeRepository;
+import com.sarkesa.palindrome.service.CostAwarePalindromeChecker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static java.lang.Thread.sleep;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the application with the shipped application properties, only moving its files to a temporary location, so the
+ * defaults are checked to cache and save results.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "file:src/main/resources/application.properties", properties = {
+    "csvFilePath=/tmp/palindrome-defaults.csv",
+    "binaryFilePath=/tmp/palindrome-defaults.bin",
+    "checkpoint.filePath=/tmp/palindrome-defaults.snapshot",
+    "sharedCache.filePath=/tmp/palindrome-defaults-shared.cache"
+})
+class PalindromeCheckerDefaultsIntegrationTest {
+    private static final String BASE_PATH = "/api/v1/palindrome";
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PalindromeRepository palindromeRepository;
+
+    @Autowired
+    private CostAwarePalindromeChecker costAwarePalindromeChecker;
+
+    /**
+     * The checkpoint is written when the context closes, after the tests, so files left by an earlier run are removed first.
+     */
+    @BeforeAll
+    @AfterAll
+    static void deleteFiles() throws IOException {
+        for (final String file : new String[] {"/tmp/palindrome-defaults.csv", "/tmp/palindrome-defaults.bin", "/tmp/palindrome-defaults.snapshot",
+            "/tmp/palindrome-defaults-shared.cache"}) {
+            Files.deleteIfExists(Paths.get(file));
+        }
+    }
+
+    @Test
+    void checkPalindrome_shouldCacheAndSaveShortInputsByDefault() throws Exception {
+        assertThat(costAwarePalindromeChecker.getMinCachedLength()).isZero();
+
+        mockMvc.perform(post(BASE_PATH + "/check")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(PalindromeCheckRequest.builder().username("stephen").text("Kayak").build())))
+            .andExpect(status().isCreated());
+
+        mockMvc.perform(get(BASE_PATH + "/cache-contents").param("prefix", "kayak"))
+            .andExpect(status().isOk())
+            .andExpect(content().json("{\"kayak\":true}", true));
+
+        // Wait for the group commit writer to flush
+        sleep(1000);
+        assertThat(palindromeRepository.findAll()).contains(PalindromeCheck.builder().text("kayak").isPalindrome(true).build());
+    }
+}
@@ -10,6 +10,7 @@ import lombok.SneakyThrows;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cache.CacheManager;
@@ -28,12 +29,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@AutoConfigureMetrics
 class PalindromeCheckerIntegrationTest {
     @Autowired private CacheManager cacheManager;
     @Autowired private PalindromeRepository palindromeRepository;
@@ -98,6 +101,37 @@ class PalindromeCheckerIntegrationTest {
                 .containsExactly(PalindromeCheck.builder().text("kayak").isPalindrome(true).build());
     }
 
+    @Test
+    void checkPalindrome_Post_caseVariantsShareOneCacheEntry() throws Exception {
+        Cache<Object, Object> nativeCache = getNativeCache();
+        nativeCache.invalidateAll();
+        final long initialTestHitCount = nativeCache.stats().hitCount();
+        final long initialTestMissCount = nativeCache.stats().missCount();
+
+        sendRequest("stephen", "Racecar");
+        sendRequest("stephen", "RACECAR");
+        sendRequest("stephen", "racecar");
+
+        assertThat(nativeCache.stats().hitCount()).isEqualTo(initialTestHitCount + 2);
+        assertThat(nativeCache.stats().missCount()).isEqualTo(initialTestMissCount + 1);
+        assertThat(nativeCache.asMap()).containsOnlyKeys("racecar");
+    }
+
+    @Test
+    void prometheus_shouldPublishCacheStatistics() throws Exception {
+        final String scrape = this.mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("cache_gets_total{cache=\"palindromeCache\"")
+                .contains("cache_hit_ratio{cache=\"palindromeCache\"")
+                .contains("cache_evictions_total{cache=\"palindromeCache\"")
+                .contains("cache_size{cache=\"palindromeCache\"")
+                .contains("cache_weighted_size_bytes{cache=\"palindromeCache\"")
+                .contains("palindrome_cache_load_seconds_count{cache=\"palindromeCache\"");
+    }
+
     private void sendRequest(final String username,
                              final String text) throws Exception {
         PalindromeCheckRequest request = PalindromeCheckRequest.builder()
@@ -0,0 +1,160 @@
+package com.sarkesa.palindrome.analytics;
+
+import com.sarkesa.palindrome.engine.TwoPointerPalindromeEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PalindromicTreeTest {
+    private final TwoPointerPalindromeEngine palindromeEngine = new TwoPointerPalindromeEngine();
+
+    @Test
+    void build_shouldCountDistinctAndTotalPalindromes() {
+        final PalindromicTree tree = PalindromicTree.build("abaaba");
+
+        // a, b, aa, aba, baab, abaaba
+        assertEquals(6, tree.distinctPalindromes());
+        // a x4, b x2, aa, aba x2, baab, abaaba
+        assertEquals(11, tree.totalOccurrences());
+    }
+
+    @Test
+    void build_shouldHandleEmptyText() {
+        final PalindromicTree tree = PalindromicTree.build("");
+
+        assertEquals(0, tree.distinctPalindromes());
+        assertEquals(0, tree.totalOccurrences());
+        assertArrayEquals(new int[0], tree.longestFirst(0, 10));
+    }
+
+    @Test
+    void longestFirst_shouldOrderByLengthThenFirstOccurrence() {
+        final PalindromicTree tree = PalindromicTree.build("abacdc");
+        final int[] nodes = tree.longestFirst(0, 10);
+
+        assertEquals(6, nodes.length);
+        assertEquals("aba", tree.value(nodes[0]));
+        assertEquals(0, tree.firstStart(nodes[0]));
+        assertEquals("cdc", tree.value(nodes[1]));
+        assertEquals(3, tree.firstStart(nodes[1]));
+        assertEquals("a", tree.value(nodes[2]));
+        assertEquals(2, tree.occurrences(nodes[2]));
+        assertEquals("b", tree.value(nodes[3]));
+        assertEquals("c", tree.value(nodes[4]));
+        assertEquals("d", tree.value(nodes[5]));
+    }
+
+    @Test
+    void longestFirst_shouldPage() {
+        final PalindromicTree tree = PalindromicTree.build("abacdc");
+
+        assertArrayEquals(tree.longestFirst(0, 6), concat(tree.longestFirst(0, 2), tree.longestFirst(2, 4)));
+        assertEquals(1, tree.longestFirst(5, 10).length);
+        assertEquals(0, tree.longestFirst(6, 10).length);
+    }
+
+    @Test
+    void build_shouldIgnoreCaseAndKeepFirstSpelling() {
+        final PalindromicTree tree = PalindromicTree.build("Abba aBBA");
+        final int[] nodes = tree.longestFirst(0, 1);
+
+        assertEquals("Abba aBBA", tree.value(nodes[0]));
+        assertEquals(distinctByBruteForce("Abba aBBA").size(), tree.distinctPalindromes());
+    }
+
+    @Test
+    void build_shouldReportCharOffsetsForSurrogatePairs() {
+        final PalindromicTree tree = PalindromicTree.build("x😀y😀z");
+        final int[] nodes = tree.longestFirst(0, 1);
+
+        assertEquals("😀y😀", tree.value(nodes[0]));
+        assertEquals(1, tree.firstStart(nodes[0]));
+        assertEquals(3, tree.length(nodes[0]));
+    }
+
+    @Test
+    void build_shouldGrowPastInitialCapacity() {
+        final String repeated = "a".repeat(5000);
+        final PalindromicTree nested = PalindromicTree.build(repeated);
+
+        assertEquals(5000, nested.distinctPalindromes());
+        assertEquals(5000L * 5001 / 2, nested.totalOccurrences());
+        assertEquals(repeated, nested.value(nested.longestFirst(0, 1)[0]));
+
+        final StringBuilder distinct = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            distinct.appendCodePoint(0x4E00 + i);
+        }
+        final PalindromicTree flat = PalindromicTree.build(distinct.toString());
+
+        assertEquals(5000, flat.distinctPalindromes());
+        assertEquals(5000, flat.totalOccurrences());
+        assertEquals(1, flat.length(flat.longestFirst(0, 1)[0]));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a", "aaaa", "abcba", "kayak racecar kayak", "ÉtÉ été", "a😀a😀a"})
+    void build_shouldMatchBruteForce(final String text) {
+        assertMatchesBruteForce(text);
+    }
+
+    @Test
+    void build_shouldMatchBruteForceOnRandomText() {
+        final Random random = new Random(11);
+        for (int i = 0; i < 200; i++) {
+            final StringBuilder text = new StringBuilder();
+            final int length = random.nextInt(40);
+            for (int j = 0; j < length; j++) {
+                text.append("abAB".charAt(random.nextInt(4)));
+            }
+            assertMatchesBruteForce(text.toString());
+        }
+    }
+
+    private void assertMatchesBruteForce(final String text) {
+        final Map<String, Long> expected = distinctByBruteForce(text);
+        final PalindromicTree tree = PalindromicTree.build(text);
+
+        assertEquals(expected.size(), tree.distinctPalindromes(), text);
+        assertEquals(expected.values().stream().mapToLong(Long::longValue).sum(), tree.totalOccurrences(), text);
+        int previousLength = Integer.MAX_VALUE;
+        for (final int node : tree.longestFirst(0, expected.size())) {
+            final String value = tree.value(node);
+            assertTrue(tree.length(node) <= previousLength);
+            assertEquals(expected.get(value.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT)), tree.occurrences(node), value);
+            previousLength = tree.length(node);
+        }
+    }
+
+    private Map<String, Long> distinctByBruteForce(final String text) {
+        final Map<String, Long> counts = new HashMap<>();
+        for (int start = 0; start < text.length(); start = text.offsetByCodePoints(start, 1)) {
+            for (int end = text.offsetByCodePoints(start, 1); end <= text.length(); end++) {
+                if (end < text.length() && Character.isLowSurrogate(text.charAt(end))) {
+                    continue;
+                }
+                final String candidate = text.substring(start, end);
+                if (palindromeEngine.isPalindrome(candidate)) {
+                    counts.merge(candidate.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT), 1L, Long::sum);
+                }
+            }
+        }
+        return counts;
+    }
+
+    private static int[] concat(final int[] first, final int[] second) {
+        final int[] result = new int[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
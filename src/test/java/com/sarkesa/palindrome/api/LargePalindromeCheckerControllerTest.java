@@ -0,0 +1,203 @@
+package com.sarkesa.palindrome.api;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sarkesa.palindrome.error.ServiceUnavailableException;
+import com.sarkesa.palindrome.model.LargeLongestPalindromeCheck;
+import com.sarkesa.palindrome.model.LargePalindromeCheck;
+import com.sarkesa.palindrome.persistence.PalindromeRepository;
+import com.sarkesa.palindrome.service.LargePalindromeCheckerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class LargePalindromeCheckerControllerTest {
+
+    @MockBean
+    private PalindromeRepository palindromeRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final String LARGE_PATH = "/api/v1/palindrome/check/large";
+    private static final String LONGEST_PATH = "/api/v1/palindrome/longest";
+
+    @Test
+    void checkLargePalindrome_Post_palindrome() throws Exception {
+        final String document = "ab cd 12 😀" + "x" + "😀 21 dc ba";
+
+        final LargePalindromeCheck result = send(document);
+
+        assertTrue(result.getIsPalindrome());
+        assertEquals(document.length(), result.getLength());
+        assertNotNull(result.getId());
+        verifyNoInteractions(palindromeRepository);
+    }
+
+    @Test
+    void checkLargePalindrome_Post_notPalindrome() throws Exception {
+        final LargePalindromeCheck result = send("log line 1\nlog line 2");
+
+        assertFalse(result.getIsPalindrome());
+        verifyNoInteractions(palindromeRepository);
+    }
+
+    @Test
+    void checkLargePalindrome_Post_tooLarge() throws Exception {
+        this.mockMvc
+                .perform(post(LARGE_PATH)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("a".repeat(1025)))
+                .andDo(print())
+                .andExpect(status().isPayloadTooLarge())
+                .andReturn();
+    }
+
+    @Test
+    void checkLargePalindrome_Post_empty() throws Exception {
+        this.mockMvc
+                .perform(post(LARGE_PATH)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content(""))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andReturn();
+    }
+
+    @Test
+    void checkLargePalindrome_Post_incorrectMediaType() throws Exception {
+        this.mockMvc
+                .perform(post(LARGE_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("\"kayak\""))
+                .andDo(print())
+                .andExpect(status().isUnsupportedMediaType())
+                .andReturn();
+    }
+
+    @Test
+    void findLongestPalindrome_Post_document() throws Exception {
+        // Far longer than the text a JSON request may hold, and with spaces and digits
+        final String document = "x".repeat(200) + " 12 Never odd or even 21 " + "y".repeat(200);
+
+        final MvcResult mvcResult = this.mockMvc
+                .perform(post(LONGEST_PATH)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content(document))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andReturn();
+        final LargeLongestPalindromeCheck result = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), LargeLongestPalindromeCheck.class);
+
+        assertEquals(document.length(), result.getLength());
+        assertEquals("x".repeat(200), result.getLongestPalindrome().getValue());
+        assertEquals(0, result.getLongestPalindrome().getStart());
+        assertNotNull(result.getId());
+        verifyNoInteractions(palindromeRepository);
+    }
+
+    @Test
+    void findLongestPalindrome_Post_tooLarge() throws Exception {
+        // Within the limit for checked documents, but over the one for searched documents
+        this.mockMvc
+                .perform(post(LONGEST_PATH)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("a".repeat(513)))
+                .andDo(print())
+                .andExpect(status().isPayloadTooLarge())
+                .andReturn();
+    }
+
+    @Test
+    void findLongestPalindrome_Post_empty() throws Exception {
+        this.mockMvc
+                .perform(post(LONGEST_PATH)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content(""))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andReturn();
+    }
+
+    @Test
+    void checkLargePalindrome_shouldRefuseDocumentsBeyondConcurrencyLimit() throws Exception {
+        final CountDownLatch checking = new CountDownLatch(1);
+        final CountDownLatch releaseCheck = new CountDownLatch(1);
+        final LargePalindromeCheckerService largePalindromeCheckerService = mock(LargePalindromeCheckerService.class);
+        when(largePalindromeCheckerService.isPalindrome(any())).thenAnswer(invocation -> {
+            checking.countDown();
+            return releaseCheck.await(5, TimeUnit.SECONDS);
+        });
+        final LargePalindromeCheckerController controller =
+                new LargePalindromeCheckerController(largePalindromeCheckerService, new LargeTextReader(1024), 1, 1024, 512);
+
+        final CompletableFuture<LargePalindromeCheck> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return controller.checkLargePalindrome(request("kayak"));
+            } catch (final IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        assertTrue(checking.await(5, TimeUnit.SECONDS));
+
+        assertThrows(ServiceUnavailableException.class, () -> controller.checkLargePalindrome(request("level")));
+        releaseCheck.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS).getIsPalindrome());
+        assertTrue(controller.checkLargePalindrome(request("level")).getIsPalindrome());
+    }
+
+    @Test
+    void defaultMaxConcurrent_shouldFitLargestDocumentsInHalfTheHeap() {
+        assertEquals(8, LargePalindromeCheckerController.defaultMaxConcurrent(4096L << 20, 64 << 20));
+        assertEquals(1, LargePalindromeCheckerController.defaultMaxConcurrent(256L << 20, 64 << 20));
+    }
+
+    private LargePalindromeCheck send(final String document) throws Exception {
+        final MvcResult mvcResult = this.mockMvc
+                .perform(post(LARGE_PATH)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content(document))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        return objectMapper.readValue(mvcResult.getResponse().getContentAsString(), LargePalindromeCheck.class);
+    }
+
+    private static MockHttpServletRequest request(final String document) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", LARGE_PATH);
+        request.setContent(document.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
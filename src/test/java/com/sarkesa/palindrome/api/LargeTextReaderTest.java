@@ -0,0 +1,75 @@
+package com.sarkesa.palindrome.api;
+
+import com.sarkesa.palindrome.error.PayloadTooLargeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+class LargeTextReaderTest {
+    private static final int MAX_BYTES = 16;
+
+    private LargeTextReader largeTextReader;
+
+    @BeforeEach
+    void setUp() {
+        largeTextReader = new LargeTextReader(MAX_BYTES);
+    }
+
+    @Test
+    void read_shouldReadWholeInputWithoutContentLength() throws IOException {
+        final CharBuffer result = largeTextReader.read(stream("kayak"), -1);
+
+        assertEquals("kayak", result.toString());
+    }
+
+    @Test
+    void read_shouldReadMultiByteCharacters() throws IOException {
+        final String input = "é😀é";
+        final CharBuffer result = largeTextReader.read(stream(input), input.getBytes(StandardCharsets.UTF_8).length);
+
+        assertEquals(input, result.toString());
+    }
+
+    @Test
+    void read_shouldAcceptInputOfExactlyTheLimit() throws IOException {
+        final String input = "a".repeat(MAX_BYTES);
+
+        assertEquals(input, largeTextReader.read(stream(input), -1).toString());
+        assertEquals(input, largeTextReader.read(stream(input), MAX_BYTES).toString());
+    }
+
+    @Test
+    void read_shouldRejectDeclaredLengthOverTheLimit() {
+        assertThrows(PayloadTooLargeException.class, () -> largeTextReader.read(stream("kayak"), MAX_BYTES + 1));
+    }
+
+    @Test
+    void read_shouldRejectUndeclaredInputOverTheLimit() {
+        assertThrows(PayloadTooLargeException.class, () -> largeTextReader.read(stream("a".repeat(MAX_BYTES + 1)), -1));
+    }
+
+    @Test
+    void read_shouldRejectMultiByteInputOverTheByteLimit() {
+        // Fewer chars than the limit but more bytes
+        assertThrows(PayloadTooLargeException.class, () -> largeTextReader.read(stream("é".repeat(MAX_BYTES - 1)), -1));
+    }
+
+    @Test
+    void read_shouldApplyTheCallersLimit() throws IOException {
+        assertEquals("kayak", largeTextReader.read(stream("kayak"), -1, 5).toString());
+        final PayloadTooLargeException ex = assertThrows(PayloadTooLargeException.class, () -> largeTextReader.read(stream("kayaks"), -1, 5));
+        assertEquals("The document must not be larger than 5 bytes.", ex.getMessage());
+    }
+
+    private static ByteArrayInputStream stream(final String input) {
+        return new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,185 @@
+package com.sarkesa.palindrome.api;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sarkesa.palindrome.analytics.PalindromeAnalyticsService;
+import com.sarkesa.palindrome.error.ServiceUnavailableException;
+import com.sarkesa.palindrome.model.PalindromeAnalysis;
+import com.sarkesa.palindrome.model.PalindromeCheckRequest;
+import com.sarkesa.palindrome.persistence.PalindromeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PalindromeAnalyticsControllerTest {
+
+    @MockBean
+    private PalindromeRepository palindromeRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final String ANALYZE_PATH = "/api/v1/palindrome/analyze";
+
+    @Test
+    void analyze_Post_json() throws Exception {
+        final PalindromeCheckRequest request = PalindromeCheckRequest.builder().username("bob").text("abaaba").build();
+
+        final MvcResult mvcResult = this.mockMvc
+                .perform(post(ANALYZE_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andReturn();
+        final PalindromeAnalysis analysis = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), PalindromeAnalysis.class);
+
+        assertEquals(6, analysis.getDistinctPalindromes());
+        assertEquals(11, analysis.getTotalOccurrences());
+        assertEquals(6, analysis.getPalindromes().size());
+        assertEquals("abaaba", analysis.getPalindromes().get(0).getValue());
+        assertNotNull(analysis.getId());
+        verifyNoInteractions(palindromeRepository);
+    }
+
+    @Test
+    void analyze_Post_documentPaged() throws Exception {
+        final MvcResult mvcResult = this.mockMvc
+                .perform(post(ANALYZE_PATH)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .param("page", "1")
+                        .param("size", "2")
+                        .content("abaaba"))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andReturn();
+        final PalindromeAnalysis analysis = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), PalindromeAnalysis.class);
+
+        assertEquals(6, analysis.getLength());
+        assertEquals(2, analysis.getPalindromes().size());
+        assertEquals("aba", analysis.getPalindromes().get(0).getValue());
+        assertEquals(2, analysis.getPalindromes().get(0).getOccurrences());
+        assertEquals("aa", analysis.getPalindromes().get(1).getValue());
+    }
+
+    @Test
+    void analyze_Post_documentTooLarge() throws Exception {
+        // Within the limit for checked documents, but over the one for analyzed documents
+        this.mockMvc
+                .perform(post(ANALYZE_PATH)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("a".repeat(512)))
+                .andDo(print())
+                .andExpect(status().isPayloadTooLarge())
+                .andReturn();
+    }
+
+    @Test
+    void analyze_Post_invalidPageSize() throws Exception {
+        this.mockMvc
+                .perform(post(ANALYZE_PATH)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .param("size", "0")
+                        .content("abaaba"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andReturn();
+    }
+
+    @Test
+    void analyze_Post_invalidPageSizeOfDocumentTooLarge() throws Exception {
+        // The page is checked before the document is read
+        this.mockMvc
+                .perform(post(ANALYZE_PATH)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .param("size", "0")
+                        .content("a".repeat(512)))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andReturn();
+    }
+
+    @Test
+    void analyzeDocument_shouldRefuseDocumentsBeyondConcurrencyLimit() throws Exception {
+        final CountDownLatch analyzing = new CountDownLatch(1);
+        final CountDownLatch releaseAnalysis = new CountDownLatch(1);
+        final PalindromeAnalyticsService palindromeAnalyticsService = mock(PalindromeAnalyticsService.class);
+        when(palindromeAnalyticsService.analyze(any(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            analyzing.countDown();
+            releaseAnalysis.await(5, TimeUnit.SECONDS);
+            return new PalindromeAnalysis();
+        });
+        final PalindromeAnalyticsController controller =
+                new PalindromeAnalyticsController(palindromeAnalyticsService, new LargeTextReader(1024), 1000, 256, 1);
+
+        final CompletableFuture<PalindromeAnalysis> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return controller.analyzeDocument(request("kayak"), 0, 20);
+            } catch (final IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        assertTrue(analyzing.await(5, TimeUnit.SECONDS));
+
+        assertThrows(ServiceUnavailableException.class, () -> controller.analyzeDocument(request("level"), 0, 20));
+        releaseAnalysis.countDown();
+        assertNotNull(first.get(5, TimeUnit.SECONDS).getId());
+        assertNotNull(controller.analyzeDocument(request("level"), 0, 20).getId());
+    }
+
+    @Test
+    void defaultMaxConcurrent_shouldFitLargestTreesInHalfTheHeap() {
+        assertEquals(19, PalindromeAnalyticsController.defaultMaxConcurrent(4096L << 20, 1 << 20));
+        assertEquals(1, PalindromeAnalyticsController.defaultMaxConcurrent(128L << 20, 1 << 20));
+    }
+
+    @Test
+    void analyze_Post_invalidRequest() throws Exception {
+        final PalindromeCheckRequest request = PalindromeCheckRequest.builder().username("bob").text("").build();
+
+        this.mockMvc
+                .perform(post(ANALYZE_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andReturn();
+    }
+
+    private static MockHttpServletRequest request(final String document) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", ANALYZE_PATH);
+        request.setContent(document.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
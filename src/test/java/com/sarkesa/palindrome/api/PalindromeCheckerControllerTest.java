@@ -2,8 +2,13 @@ package com.sarkesa.palindrome.api;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sarkesa.palindrome.model.CachedResultsPage;
+import com.sarkesa.palindrome.model.LongestPalindromeCheck;
+import com.sarkesa.palindrome.model.PalindromeBatchCheck;
+import com.sarkesa.palindrome.model.PalindromeBatchItem;
 import com.sarkesa.palindrome.model.PalindromeCheck;
 import com.sarkesa.palindrome.model.PalindromeCheckRequest;
+import com.sarkesa.palindrome.model.PalindromeSubstring;
 import com.sarkesa.palindrome.persistence.PalindromeRepository;
 import com.sarkesa.palindrome.service.PalindromeCheckerService;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,13 +24,21 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -36,6 +49,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -56,6 +71,9 @@ class PalindromeCheckerControllerTest {
 
     private static final String BASE_PATH = "/api/v1/palindrome";
     private static final String CHECK_PATH = BASE_PATH + "/check";
+    private static final String LONGEST_PATH = BASE_PATH + "/longest";
+    private static final String BATCH_PATH = CHECK_PATH + "/batch";
+    private static final String STREAM_PATH = CHECK_PATH + "/stream";
     private static final String CACHE_CONTENTS_PATH = BASE_PATH + "/cache-contents";
 
     @BeforeEach
@@ -247,17 +265,258 @@ class PalindromeCheckerControllerTest {
 
     @Test
     void getCacheContents_shouldReturnOk() throws Exception {
-        when(palindromeCheckerService.getCachedPalindromeResults()).thenReturn(Map.of());
+        when(palindromeCheckerService.getCachedPalindromeResults(null, 1000, null, null))
+                .thenReturn(CachedResultsPage.builder().results(Map.of()).build());
 
         final MvcResult mvcResult = this.mockMvc
                 .perform(get(CACHE_CONTENTS_PATH))
                 .andDo(print())
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andReturn();
 
         final Map<Object, Object> result = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), Map.class);
 
         assertTrue(result.isEmpty());
-        verify(palindromeCheckerService, times(1)).getCachedPalindromeResults();
+        verify(palindromeCheckerService, times(1)).getCachedPalindromeResults(null, 1000, null, null);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCacheContents_shouldReturnCursorForNextPage() throws Exception {
+        final Map<String, Boolean> firstPage = new LinkedHashMap<>();
+        firstPage.put("kayak", true);
+        firstPage.put("kelp", false);
+        when(palindromeCheckerService.getCachedPalindromeResults(null, 2, true, "k"))
+                .thenReturn(CachedResultsPage.builder().results(firstPage).lastText("kelp").build());
+        when(palindromeCheckerService.getCachedPalindromeResults("kelp", 2, true, "k"))
+                .thenReturn(CachedResultsPage.builder().results(Map.of("kook", true)).build());
+
+        final MvcResult first = this.mockMvc
+                .perform(get(CACHE_CONTENTS_PATH).param("limit", "2").param("isPalindrome", "true").param("prefix", "k"))
+                .andExpect(status().isOk())
+                .andReturn();
+        final String cursor = first.getResponse().getHeader("X-Next-Cursor");
+        assertNotNull(cursor);
+        assertEquals("{\"kayak\":true,\"kelp\":false}", first.getResponse().getContentAsString());
+
+        this.mockMvc
+                .perform(get(CACHE_CONTENTS_PATH).param("cursor", cursor).param("limit", "2").param("isPalindrome", "true").param("prefix", "k"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(content().json("{\"kook\":true}"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "10001"})
+    void getCacheContents_shouldRejectLimitOutOfRange(final String limit) throws Exception {
+        this.mockMvc
+                .perform(get(CACHE_CONTENTS_PATH).param("limit", limit))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(palindromeCheckerService);
+    }
+
+    @Test
+    void getCacheContents_shouldRejectInvalidCursor() throws Exception {
+        this.mockMvc
+                .perform(get(CACHE_CONTENTS_PATH).param("cursor", "not*base64"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(palindromeCheckerService);
+    }
+
+    @Test
+    void getCacheContents_shouldStreamNewlineDelimitedJson() throws Exception {
+        doAnswer(invocation -> {
+            final BiConsumer<String, Boolean> consumer = invocation.getArgument(2);
+            consumer.accept("kayak", true);
+            consumer.accept("help", false);
+            return null;
+        }).when(palindromeCheckerService).forEachCachedPalindromeResult(eq(null), eq("k"), any());
+
+        final MvcResult mvcResult = this.mockMvc
+                .perform(get(CACHE_CONTENTS_PATH).param("prefix", "k").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, mvcResult.getResponse().getContentType());
+        assertEquals("{\"text\":\"kayak\",\"isPalindrome\":true}\n{\"text\":\"help\",\"isPalindrome\":false}\n",
+                mvcResult.getResponse().getContentAsString());
+    }
+
+    @Test
+    void checkPalindromeBatch_Post_validRequestKeepsOrderAndReportsInvalidItems() throws Exception {
+        when(palindromeCheckerService.isPalindromeBatch(List.of("kayak", "help"))).thenReturn(Map.of("kayak", true, "help", false));
+
+        List<PalindromeCheckRequest> requests = Arrays.asList(
+                PalindromeCheckRequest.builder().username("stephen").text("kayak").build(),
+                PalindromeCheckRequest.builder().username("stephen").text("madam kayak").build(),
+                null,
+                PalindromeCheckRequest.builder().username("stephen").text("help").build());
+
+        final MvcResult mvcResult = this.mockMvc
+                .perform(post(BATCH_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        final PalindromeBatchCheck result = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), PalindromeBatchCheck.class);
+        final List<PalindromeBatchItem> items = result.getResults();
+
+        assertNotNull(result.getId());
+        assertEquals(4, items.size());
+        assertEquals(PalindromeBatchItem.builder().index(0).text("kayak").isPalindrome(true).build(), items.get(0));
+        assertEquals("madam kayak", items.get(1).getText());
+        assertNull(items.get(1).getIsPalindrome());
+        assertTrue(items.get(1).getError().contains("text"));
+        assertNull(items.get(2).getIsPalindrome());
+        assertNotNull(items.get(2).getError());
+        assertEquals(PalindromeBatchItem.builder().index(3).text("help").isPalindrome(false).build(), items.get(3));
+        verify(palindromeCheckerService, times(1)).isPalindromeBatch(List.of("kayak", "help"));
+    }
+
+    @Test
+    void checkPalindromeBatch_Post_allItemsInvalid() throws Exception {
+        List<PalindromeCheckRequest> requests = List.of(PalindromeCheckRequest.builder().username("stephen gibson").text("kayak").build());
+
+        this.mockMvc
+                .perform(post(BATCH_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        verifyNoInteractions(palindromeCheckerService);
+    }
+
+    @Test
+    void checkPalindromeBatch_Post_tooManyItems() throws Exception {
+        List<PalindromeCheckRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 101; i++) {
+            requests.add(PalindromeCheckRequest.builder().username("stephen").text("kayak").build());
+        }
+
+        this.mockMvc
+                .perform(post(BATCH_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        verifyNoInteractions(palindromeCheckerService);
+    }
+
+    @Test
+    void checkPalindromeBatch_Post_notAnArray() throws Exception {
+        this.mockMvc
+                .perform(post(BATCH_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        verifyNoInteractions(palindromeCheckerService);
+    }
+
+    @Test
+    void checkPalindromeStream_Post_writesOneResultPerLine() throws Exception {
+        when(palindromeCheckerService.isPalindrome("kayak")).thenReturn(true);
+        when(palindromeCheckerService.isPalindrome("help")).thenReturn(false);
+
+        final String content = "{\"username\":\"stephen\",\"text\":\"kayak\"}\n"
+                + "{\"username\":\"stephen\",\"text\":\"madam kayak\"}\r\n"
+                + "not json\n"
+                + "\n"
+                + "{\"username\":\"stephen\",\"text\":\"help\"}";
+
+        final MvcResult mvcResult = this.mockMvc
+                .perform(post(STREAM_PATH)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(content))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, mvcResult.getResponse().getContentType());
+        final String[] lines = mvcResult.getResponse().getContentAsString().split("\n");
+        assertEquals(4, lines.length);
+
+        assertEquals(PalindromeBatchItem.builder().index(0).text("kayak").isPalindrome(true).build(),
+                objectMapper.readValue(lines[0], PalindromeBatchItem.class));
+        final PalindromeBatchItem invalidText = objectMapper.readValue(lines[1], PalindromeBatchItem.class);
+        assertEquals(1, invalidText.getIndex());
+        assertNotNull(invalidText.getError());
+        final PalindromeBatchItem malformed = objectMapper.readValue(lines[2], PalindromeBatchItem.class);
+        assertEquals(2, malformed.getIndex());
+        assertEquals("Input message could not be read.", malformed.getError());
+        assertEquals(PalindromeBatchItem.builder().index(4).text("help").isPalindrome(false).build(),
+                objectMapper.readValue(lines[3], PalindromeBatchItem.class));
+
+        verify(palindromeCheckerService, times(2)).isPalindrome(anyString());
+    }
+
+    @Test
+    void checkPalindromeStream_Post_rejectsOverlongLine() throws Exception {
+        final String content = "{\"username\":\"stephen\",\"text\":\"" + "a".repeat(5000) + "\"}\n";
+
+        final MvcResult mvcResult = this.mockMvc
+                .perform(post(STREAM_PATH)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(content))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn();
+
+        final PalindromeBatchItem result = objectMapper.readValue(mvcResult.getResponse().getContentAsString().trim(), PalindromeBatchItem.class);
+        assertEquals("The line exceeded 4096 characters.", result.getError());
+        verifyNoInteractions(palindromeCheckerService);
+    }
+
+    @Test
+    void findLongestPalindrome_Post_validRequest() throws Exception {
+        when(palindromeCheckerService.findLongestPalindrome("myracecars"))
+                .thenReturn(PalindromeSubstring.builder().value("racecar").start(2).end(9).build());
+
+        PalindromeCheckRequest request = PalindromeCheckRequest.builder()
+                .username("stephen")
+                .text("myracecars")
+                .build();
+
+        final MvcResult mvcResult = this.mockMvc
+                .perform(post(LONGEST_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        final LongestPalindromeCheck result = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), LongestPalindromeCheck.class);
+
+        assertEquals("myracecars", result.getText());
+        assertEquals(PalindromeSubstring.builder().value("racecar").start(2).end(9).build(), result.getLongestPalindrome());
+        assertNotNull(result.getId());
+    }
+
+    @Test
+    void findLongestPalindrome_Post_invalidInput() throws Exception {
+        PalindromeCheckRequest request = PalindromeCheckRequest.builder()
+                .username("stephen")
+                .text("my racecars")
+                .build();
+
+        this.mockMvc
+                .perform(post(LONGEST_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        verifyNoInteractions(palindromeCheckerService);
+    }
+}
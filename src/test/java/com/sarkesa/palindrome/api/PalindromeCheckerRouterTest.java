@@ -0,0 +1,180 @@
+package com.sarkesa.palindrome.api;
+
+import com.sarkesa.palindrome.error.ApiError;
+import com.sarkesa.palindrome.model.PalindromeBatchCheck;
+import com.sarkesa.palindrome.model.PalindromeBatchItem;
+import com.sarkesa.palindrome.model.PalindromeCheck;
+import com.sarkesa.palindrome.model.PalindromeCheckRequest;
+import com.sarkesa.palindrome.persistence.PalindromeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Runs the application with the reactive profile on Netty and checks the functional handlers keep the API contract.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+class PalindromeCheckerRouterTest {
+    private static final String CHECK_PATH = PalindromeCheckerRouter.BASE_PATH + "/check";
+    private static final String CACHE_CONTENTS_PATH = PalindromeCheckerRouter.BASE_PATH + "/cache-contents";
+
+    @MockBean
+    private PalindromeRepository palindromeRepository;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void checkPalindrome_shouldReturnResultWithRequestId() {
+        final PalindromeCheck first = check("Kayak");
+        final PalindromeCheck second = check("help");
+
+        assertEquals(PalindromeCheck.builder().text("Kayak").isPalindrome(true).id(first.getId()).build(), first);
+        assertEquals(Boolean.FALSE, second.getIsPalindrome());
+        assertNotNull(first.getId());
+        assertNotEquals(first.getId(), second.getId());
+    }
+
+    @Test
+    void checkPalindrome_shouldCheckThroughTheCacheOffTheEventLoop() {
+        final AtomicReference<String> savingThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            savingThread.set(Thread.currentThread().getName());
+            return null;
+        }).when(palindromeRepository).save(any());
+
+        // A text never checked before, so its result is evaluated and saved
+        check(new Random().ints(40, 'a', 'z' + 1).collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append).toString());
+
+        assertTrue(savingThread.get().startsWith("boundedElastic-"), savingThread.get());
+    }
+
+    @Test
+    void checkPalindrome_shouldRejectInvalidRequestWithApiError() {
+        final ApiError apiError = webTestClient.post().uri(CHECK_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(PalindromeCheckRequest.builder().username("stephen").text("madam 1").build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(ApiError.class)
+                .returnResult().getResponseBody();
+
+        assertEquals(400, apiError.getStatus());
+        assertEquals(CHECK_PATH, apiError.getPath());
+        assertTrue(apiError.getMessage().startsWith("The following fields in the request were invalid."), apiError.getMessage());
+        assertNotNull(apiError.getId());
+    }
+
+    @Test
+    void checkPalindrome_shouldRejectUnreadableBody() {
+        webTestClient.post().uri(CHECK_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{not json")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Input message could not be read.");
+
+        webTestClient.post().uri(CHECK_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void checkPalindromeBatch_shouldKeepOrderAndReportInvalidItems() {
+        final List<PalindromeCheckRequest> requests = Arrays.asList(
+                PalindromeCheckRequest.builder().username("stephen").text("kayak").build(),
+                null,
+                PalindromeCheckRequest.builder().username("stephen").text("help").build());
+
+        final PalindromeBatchCheck result = webTestClient.post().uri(CHECK_PATH + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requests)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(PalindromeBatchCheck.class)
+                .returnResult().getResponseBody();
+
+        assertNotNull(result.getId());
+        assertEquals(List.of(
+                PalindromeBatchItem.builder().index(0).text("kayak").isPalindrome(true).build(),
+                PalindromeBatchItem.builder().index(1).error("The request item was null.").build(),
+                PalindromeBatchItem.builder().index(2).text("help").isPalindrome(false).build()), result.getResults());
+    }
+
+    @Test
+    void checkPalindromeStream_shouldWriteOneResultPerRequestLine() {
+        final String body = "{\"username\":\"stephen\",\"text\":\"kayak\"}\n\n{not json\n{\"username\":\"stephen\",\"text\":\"help\"}\n";
+
+        final List<PalindromeBatchItem> results = webTestClient.post().uri(CHECK_PATH + "/stream")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(PalindromeBatchItem.class)
+                .returnResult().getResponseBody();
+
+        assertEquals(List.of(
+                PalindromeBatchItem.builder().index(0).text("kayak").isPalindrome(true).build(),
+                PalindromeBatchItem.builder().index(2).error("Input message could not be read.").build(),
+                PalindromeBatchItem.builder().index(3).text("help").isPalindrome(false).build()), results);
+    }
+
+    @Test
+    void getCacheContents_shouldPageAndStreamCachedResults() {
+        check("Rotor");
+        check("Rotors");
+
+        webTestClient.get().uri(CACHE_CONTENTS_PATH + "?prefix=rotor&limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(PalindromeCheckerController.NEXT_CURSOR_HEADER)
+                .expectBody().json("{\"rotor\":true}", true);
+
+        final String streamed = webTestClient.get().uri(CACHE_CONTENTS_PATH + "?prefix=rotor&isPalindrome=false")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+        assertEquals("{\"text\":\"rotors\",\"isPalindrome\":false}\n", streamed);
+    }
+
+    @Test
+    void getCacheContents_shouldRejectLimitOutOfRange() {
+        webTestClient.get().uri(CACHE_CONTENTS_PATH + "?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("The limit must be between 1 and 10000.");
+    }
+
+    private PalindromeCheck check(final String text) {
+        return webTestClient.post().uri(CHECK_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(PalindromeCheckRequest.builder().username("stephen").text(text).build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(PalindromeCheck.class)
+                .returnResult().getResponseBody();
+    }
+}
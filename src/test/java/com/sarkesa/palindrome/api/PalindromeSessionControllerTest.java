@@ -0,0 +1,121 @@
+package com.sarkesa.palindrome.api;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sarkesa.palindrome.model.PalindromeSessionAppendRequest;
+import com.sarkesa.palindrome.model.PalindromeSessionState;
+import com.sarkesa.palindrome.persistence.PalindromeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PalindromeSessionControllerTest {
+
+    @MockBean
+    private PalindromeRepository palindromeRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final String SESSIONS_PATH = "/api/v1/palindrome/sessions";
+
+    @Test
+    void session_shouldTrackAppendedText() throws Exception {
+        final MvcResult opened = this.mockMvc
+                .perform(post(SESSIONS_PATH))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andReturn();
+        final UUID sessionId = read(opened).getSessionId();
+        assertNotNull(sessionId);
+
+        assertFalse(append(sessionId, "Race").getIsPalindrome());
+        final PalindromeSessionState state = append(sessionId, "car");
+        assertTrue(state.getIsPalindrome());
+        assertEquals(7, state.getLength());
+
+        final MvcResult current = this.mockMvc
+                .perform(get(SESSIONS_PATH + "/" + sessionId))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn();
+        assertTrue(read(current).getIsPalindrome());
+
+        this.mockMvc.perform(delete(SESSIONS_PATH + "/" + sessionId)).andExpect(status().isNoContent());
+        this.mockMvc.perform(get(SESSIONS_PATH + "/" + sessionId)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void append_unknownSession() throws Exception {
+        this.mockMvc
+                .perform(post(SESSIONS_PATH + "/" + UUID.randomUUID() + "/append")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PalindromeSessionAppendRequest("a"))))
+                .andDo(print())
+                .andExpect(status().isNotFound())
+                .andReturn();
+    }
+
+    @Test
+    void append_missingText() throws Exception {
+        final UUID sessionId = read(this.mockMvc.perform(post(SESSIONS_PATH)).andReturn()).getSessionId();
+
+        this.mockMvc
+                .perform(post(SESSIONS_PATH + "/" + sessionId + "/append")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andReturn();
+    }
+
+    @Test
+    void append_tooLong() throws Exception {
+        final UUID sessionId = read(this.mockMvc.perform(post(SESSIONS_PATH)).andReturn()).getSessionId();
+
+        this.mockMvc
+                .perform(post(SESSIONS_PATH + "/" + sessionId + "/append")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PalindromeSessionAppendRequest("a".repeat(65)))))
+                .andDo(print())
+                .andExpect(status().isPayloadTooLarge())
+                .andReturn();
+    }
+
+    private PalindromeSessionState append(final UUID sessionId, final String text) throws Exception {
+        final MvcResult mvcResult = this.mockMvc
+                .perform(post(SESSIONS_PATH + "/" + sessionId + "/append")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PalindromeSessionAppendRequest(text))))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn();
+        return read(mvcResult);
+    }
+
+    private static PalindromeSessionState read(final MvcResult mvcResult) throws Exception {
+        return objectMapper.readValue(mvcResult.getResponse().getContentAsString(), PalindromeSessionState.class);
+    }
+}
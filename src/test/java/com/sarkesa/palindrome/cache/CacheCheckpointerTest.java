@@ -0,0 +1,111 @@
+package com.sarkesa.palindrome.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.sarkesa.palindrome.cache.CacheConfig.PALINDROME_RESULTS_CACHE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheCheckpointerTest {
+    @TempDir
+    Path tempDir;
+
+    private Path snapshotFile;
+    private Cache<Object, Object> cache;
+    private CacheCheckpointer cacheCheckpointer;
+
+    @BeforeEach
+    void setUp() {
+        snapshotFile = tempDir.resolve("cache.snapshot");
+        cache = Caffeine.newBuilder().maximumSize(100).executor(Runnable::run).build();
+        cacheCheckpointer = checkpointer(true);
+    }
+
+    @Test
+    void checkpoint_shouldRestoreEntriesColdestFirst() throws IOException {
+        cache.put("kayak", true);
+        cache.put("help", false);
+        cache.put("été😀", false);
+        cache.getIfPresent("kayak");
+        final List<Object> coldestFirst = new ArrayList<>(cache.policy().eviction().orElseThrow().coldest(3).keySet());
+
+        assertEquals(3, cacheCheckpointer.checkpoint());
+
+        final Map<String, Boolean> restored = new LinkedHashMap<>();
+        assertEquals(3, cacheCheckpointer.restore(restored::put));
+        assertEquals(Map.of("kayak", true, "help", false, "été😀", false), restored);
+        assertEquals(coldestFirst, new ArrayList<>(restored.keySet()));
+        assertFalse(Files.exists(tempDir.resolve("cache.snapshot.partial")));
+    }
+
+    @Test
+    void checkpoint_shouldWriteUnboundedCache() throws IOException {
+        cache = Caffeine.newBuilder().build();
+        cacheCheckpointer = checkpointer(true);
+        cache.put("level", true);
+
+        assertEquals(1, cacheCheckpointer.checkpoint());
+        assertEquals(1, cacheCheckpointer.restore((text, result) -> { }));
+    }
+
+    @Test
+    void restore_shouldIgnoreMissingSnapshot() {
+        assertEquals(-1, cacheCheckpointer.restore((text, result) -> { }));
+    }
+
+    @Test
+    void restore_shouldIgnoreDamagedSnapshot() throws IOException {
+        cache.put("kayak", true);
+        cache.put("level", true);
+        cacheCheckpointer.checkpoint();
+        try (RandomAccessFile file = new RandomAccessFile(snapshotFile.toFile(), "rw")) {
+            file.seek(9);
+            file.write('X');
+        }
+
+        final List<String> restored = new ArrayList<>();
+        assertEquals(-1, cacheCheckpointer.restore((text, result) -> restored.add(text)));
+        assertTrue(restored.isEmpty());
+    }
+
+    @Test
+    void restore_shouldIgnoreTruncatedSnapshot() throws IOException {
+        cache.put("kayak", true);
+        cacheCheckpointer.checkpoint();
+        try (RandomAccessFile file = new RandomAccessFile(snapshotFile.toFile(), "rw")) {
+            file.setLength(file.length() - 2);
+        }
+
+        assertEquals(-1, cacheCheckpointer.restore((text, result) -> { }));
+    }
+
+    @Test
+    void restore_shouldDoNothingWhenDisabled() throws IOException {
+        cache.put("kayak", true);
+        cacheCheckpointer.checkpoint();
+
+        assertEquals(-1, checkpointer(false).restore((text, result) -> { }));
+    }
+
+    private CacheCheckpointer checkpointer(final boolean enabled) {
+        final CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(PALINDROME_RESULTS_CACHE, cache);
+        return new CacheCheckpointer(cacheManager, enabled, snapshotFile.toString(), 60, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,102 @@
+package com.sarkesa.palindrome.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.sarkesa.palindrome.model.PalindromeSubstring;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static com.sarkesa.palindrome.cache.CacheConfig.LONGEST_PALINDROME_CACHE;
+import static com.sarkesa.palindrome.cache.CacheConfig.PALINDROME_RESULTS_CACHE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheConfigTest {
+
+    @Test
+    void caffeineCacheManager_shouldApplyPolicyForEachNamedCache() {
+        final CachePolicyProperties cachePolicyProperties = bind(Map.of(
+                "cache.caches.palindromeCache.maximumWeight", "4096",
+                "cache.caches.palindromeCache.expireAfterAccess", "10m",
+                "cache.caches.newEndpointCache.expireAfterWrite", "30s"));
+
+        final CaffeineCacheManager cacheManager = new CacheConfig().caffeineCacheManager(cachePolicyProperties);
+
+        assertThat(cacheManager.getCacheNames()).containsExactlyInAnyOrder(PALINDROME_RESULTS_CACHE, LONGEST_PALINDROME_CACHE, "newEndpointCache");
+        final Policy<Object, Object> results = nativeCache(cacheManager, PALINDROME_RESULTS_CACHE).policy();
+        assertEquals(4096, results.eviction().orElseThrow().getMaximum());
+        assertTrue(results.eviction().orElseThrow().isWeighted());
+        assertEquals(Duration.ofMinutes(10), results.expireAfterAccess().orElseThrow().getExpiresAfter());
+        assertFalse(results.expireAfterWrite().isPresent());
+
+        final Policy<Object, Object> newEndpoint = nativeCache(cacheManager, "newEndpointCache").policy();
+        assertFalse(newEndpoint.eviction().isPresent());
+        assertEquals(Duration.ofSeconds(30), newEndpoint.expireAfterWrite().orElseThrow().getExpiresAfter());
+        assertFalse(nativeCache(cacheManager, LONGEST_PALINDROME_CACHE).policy().eviction().isPresent());
+    }
+
+    @Test
+    void buildCache_shouldEvictByTextLength() {
+        final CachePolicyProperties.Policy policy = new CachePolicyProperties.Policy();
+        policy.setMaximumWeight(10_000L);
+        final Cache<Object, Object> cache = CacheConfig.buildCache(policy);
+
+        for (int i = 0; i < 100; i++) {
+            cache.put("text" + i, true);
+        }
+        cache.cleanUp();
+        final long shortEntries = cache.estimatedSize();
+        cache.invalidateAll();
+        for (int i = 0; i < 100; i++) {
+            cache.put("text" + i + "x".repeat(1000), true);
+        }
+        cache.cleanUp();
+
+        assertTrue(shortEntries > 40, "short entries kept: " + shortEntries);
+        assertTrue(cache.estimatedSize() <= 4, "long entries kept: " + cache.estimatedSize());
+        assertTrue(cache.policy().eviction().orElseThrow().weightedSize().orElseThrow() <= 10_000);
+    }
+
+    @Test
+    void buildCache_shouldRenewEntriesWithoutChangingThem() {
+        final CachePolicyProperties.Policy policy = new CachePolicyProperties.Policy();
+        policy.setRefreshAfterWrite(Duration.ofMinutes(1));
+        final Cache<Object, Object> cache = CacheConfig.buildCache(policy);
+        final CaffeineCache caffeineCache = new CaffeineCache(PALINDROME_RESULTS_CACHE, cache);
+
+        caffeineCache.put("kayak", true);
+
+        // A miss loads nothing, so the cached method still runs
+        assertNull(caffeineCache.get("help"));
+        assertNotNull(caffeineCache.get("kayak"));
+        assertEquals(true, caffeineCache.get("kayak").get());
+        assertTrue(cache.policy().refreshAfterWrite().isPresent());
+    }
+
+    @Test
+    void weigh_shouldCountTextAndSubstring() {
+        final CacheEntryWeigher weigher = new CacheEntryWeigher();
+
+        assertEquals(CacheEntryWeigher.ENTRY_OVERHEAD_BYTES + 10, weigher.weigh("kayak", true));
+        assertTrue(weigher.weigh("kayaks", PalindromeSubstring.builder().value("kayak").start(0).end(5).build())
+                > weigher.weigh("kayaks", true) + 10);
+    }
+
+    private static CachePolicyProperties bind(final Map<String, String> properties) {
+        return new Binder(new MapConfigurationPropertySource(properties)).bind("cache", CachePolicyProperties.class).get();
+    }
+
+    private static Cache<Object, Object> nativeCache(final CaffeineCacheManager cacheManager, final String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+}
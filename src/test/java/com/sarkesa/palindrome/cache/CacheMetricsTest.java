@@ -0,0 +1,59 @@
+package com.sarkesa.palindrome.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.Map;
+
+import static com.sarkesa.palindrome.cache.CacheConfig.LONGEST_PALINDROME_CACHE;
+import static com.sarkesa.palindrome.cache.CacheConfig.PALINDROME_RESULTS_CACHE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CacheMetricsTest {
+    private CaffeineCacheManager cacheManager;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        final CachePolicyProperties cachePolicyProperties = new Binder(new MapConfigurationPropertySource(
+                Map.of("cache.caches.palindromeCache.maximumWeight", "100000")))
+                .bind("cache", CachePolicyProperties.class).get();
+        cacheManager = new CacheConfig().caffeineCacheManager(cachePolicyProperties);
+        meterRegistry = new SimpleMeterRegistry();
+        new CacheMetrics(cacheManager).bindTo(meterRegistry);
+    }
+
+    @Test
+    void bindTo_shouldPublishHitRatio() {
+        cacheManager.getCache(PALINDROME_RESULTS_CACHE).put("kayak", true);
+        cacheManager.getCache(PALINDROME_RESULTS_CACHE).get("kayak");
+        cacheManager.getCache(PALINDROME_RESULTS_CACHE).get("kayak");
+        cacheManager.getCache(PALINDROME_RESULTS_CACHE).get("help");
+        cacheManager.getCache(PALINDROME_RESULTS_CACHE).get("help");
+
+        assertEquals(0.5, meterRegistry.get("cache.hit.ratio").tag("cache", PALINDROME_RESULTS_CACHE).gauge().value());
+    }
+
+    @Test
+    void bindTo_shouldPublishCoalescedLoads() {
+        assertEquals(0, meterRegistry.get("cache.coalesced").tag("cache", PALINDROME_RESULTS_CACHE).functionCounter().count());
+        assertEquals(0, meterRegistry.get("cache.coalesced").tag("cache", LONGEST_PALINDROME_CACHE).functionCounter().count());
+    }
+
+    @Test
+    void bindTo_shouldPublishWeightOnlyForWeightedCaches() {
+        cacheManager.getCache(PALINDROME_RESULTS_CACHE).put("kayak", true);
+        cacheManager.getCache(PALINDROME_RESULTS_CACHE).put("hannah", true);
+        ((CaffeineCache) cacheManager.getCache(PALINDROME_RESULTS_CACHE)).getNativeCache().cleanUp();
+
+        assertEquals(new CacheEntryWeigher().weigh("kayak", true) + new CacheEntryWeigher().weigh("hannah", true),
+                meterRegistry.get("cache.weighted.size").tag("cache", PALINDROME_RESULTS_CACHE).gauge().value());
+        assertNull(meterRegistry.find("cache.weighted.size").tag("cache", LONGEST_PALINDROME_CACHE).gauge());
+    }
+}
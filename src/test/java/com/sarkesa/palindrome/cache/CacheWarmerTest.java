@@ -0,0 +1,172 @@
+package com.sarkesa.palindrome.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sarkesa.palindrome.model.PalindromeCheck;
+import com.sarkesa.palindrome.persistence.PalindromeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import static com.sarkesa.palindrome.cache.CacheConfig.PALINDROME_RESULTS_CACHE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+class CacheWarmerTest {
+    @Mock
+    private CaffeineCacheManager cacheManager;
+
+    @Mock
+    private PalindromeRepository palindromeRepository;
+
+    @Mock
+    private CacheCheckpointer cacheCheckpointer;
+
+    private CaffeineCache caffeineCache;
+    private CacheWarmer cacheWarmer;
+    private AutoCloseable mocks;
+
+    @BeforeEach
+    void setUp() {
+        mocks = openMocks(this);
+        caffeineCache = new CaffeineCache(PALINDROME_RESULTS_CACHE, Caffeine.newBuilder().maximumSize(2).build());
+        when(cacheManager.getCache(PALINDROME_RESULTS_CACHE)).thenReturn(caffeineCache);
+        when(cacheCheckpointer.restore(any())).thenReturn(-1L);
+        cacheWarmer = new CacheWarmer(cacheManager, palindromeRepository, cacheCheckpointer, OffHeapResultIndex.disabled());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mocks.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void warmUp_shouldLoadMostRecentResultsUpToCacheSize() {
+        caffeineCache.put("live", false);
+        doAnswer(invocation -> {
+            final Consumer<PalindromeCheck> consumer = invocation.getArgument(1);
+            consumer.accept(PalindromeCheck.builder().text("kayak").isPalindrome(true).build());
+            consumer.accept(PalindromeCheck.builder().text("live").isPalindrome(true).build());
+            return null;
+        }).when(palindromeRepository).forEachRecent(eq(2), any(Consumer.class));
+
+        cacheWarmer.warmUp();
+
+        assertEquals(CacheWarmer.State.COMPLETED, cacheWarmer.getState());
+        assertEquals(CacheWarmer.Source.REPOSITORY, cacheWarmer.getSource());
+        assertEquals(2, cacheWarmer.getLoaded());
+        assertEquals(2, cacheWarmer.getLimit());
+        // Results cached by live requests are not replaced
+        assertEquals(Map.of("kayak", true, "live", false), caffeineCache.getNativeCache().asMap());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void warmUp_shouldLimitWeightedCacheToEntriesThatCouldFit() {
+        final CachePolicyProperties.Policy policy = new CachePolicyProperties.Policy();
+        policy.setMaximumWeight(CacheEntryWeigher.ENTRY_OVERHEAD_BYTES * 10L);
+        when(cacheManager.getCache(PALINDROME_RESULTS_CACHE)).thenReturn(new CaffeineCache(PALINDROME_RESULTS_CACHE, CacheConfig.buildCache(policy)));
+
+        cacheWarmer.warmUp();
+
+        assertEquals(10, cacheWarmer.getLimit());
+        verify(palindromeRepository).forEachRecent(eq(10), any(Consumer.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void warmUp_shouldPreferSnapshotOverSavedResults() {
+        when(cacheCheckpointer.restore(any())).thenAnswer(invocation -> {
+            final BiConsumer<String, Boolean> consumer = invocation.getArgument(0);
+            consumer.accept("kayak", true);
+            return 1L;
+        });
+
+        cacheWarmer.warmUp();
+
+        assertEquals(CacheWarmer.State.COMPLETED, cacheWarmer.getState());
+        assertEquals(CacheWarmer.Source.SNAPSHOT, cacheWarmer.getSource());
+        assertEquals(Map.of("kayak", true), caffeineCache.getNativeCache().asMap());
+        verify(palindromeRepository, never()).forEachRecent(anyInt(), any(Consumer.class));
+        verify(cacheCheckpointer).start();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void warmUp_shouldLoadEverySavedResultIntoResultIndexAfterStartingCheckpoints() {
+        final OffHeapResultIndex resultIndex = new OffHeapResultIndex(true, 16, 1024, new SimpleMeterRegistry());
+        cacheWarmer = new CacheWarmer(cacheManager, palindromeRepository, cacheCheckpointer, resultIndex);
+        doAnswer(invocation -> {
+            final Consumer<PalindromeCheck> consumer = invocation.getArgument(0);
+            consumer.accept(PalindromeCheck.builder().text("Kayak").isPalindrome(true).build());
+            consumer.accept(PalindromeCheck.builder().text("help").isPalindrome(false).build());
+            consumer.accept(PalindromeCheck.builder().text("level").isPalindrome(true).build());
+            return null;
+        }).when(palindromeRepository).forEachSaved(any(Consumer.class));
+
+        cacheWarmer.warmUp();
+
+        assertEquals(3, resultIndex.size());
+        assertEquals(Boolean.TRUE, resultIndex.get("kayak"));
+        assertEquals(Boolean.FALSE, resultIndex.get("help"));
+        assertEquals(Boolean.TRUE, resultIndex.get("level"));
+        final InOrder inOrder = inOrder(cacheCheckpointer, palindromeRepository);
+        inOrder.verify(cacheCheckpointer).start();
+        inOrder.verify(palindromeRepository).forEachSaved(any(Consumer.class));
+        final Map<String, Object> details = new CacheWarmUpHealthIndicator(cacheWarmer, true).health().getDetails();
+        assertEquals(CacheWarmer.State.COMPLETED, details.get("resultIndex"));
+        assertEquals(3L, details.get("indexed"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void warmUp_shouldReportFailure() {
+        doThrow(new IllegalStateException("unreadable")).when(palindromeRepository).forEachRecent(anyInt(), any(Consumer.class));
+
+        cacheWarmer.warmUp();
+
+        assertEquals(CacheWarmer.State.FAILED, cacheWarmer.getState());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void warmUp_shouldCompleteWhenCacheNotCreatedYet() {
+        when(cacheManager.getCache(anyString())).thenReturn(null);
+
+        cacheWarmer.warmUp();
+
+        assertEquals(CacheWarmer.State.COMPLETED, cacheWarmer.getState());
+        verify(palindromeRepository, never()).forEachRecent(anyInt(), any(Consumer.class));
+    }
+
+    @Test
+    void health_shouldOnlyHoldBackReadinessWhenRequired() {
+        assertEquals(Status.UP, new CacheWarmUpHealthIndicator(cacheWarmer, false).health().getStatus());
+        assertEquals(Status.OUT_OF_SERVICE, new CacheWarmUpHealthIndicator(cacheWarmer, true).health().getStatus());
+
+        cacheWarmer.warmUp();
+
+        assertEquals(Status.UP, new CacheWarmUpHealthIndicator(cacheWarmer, true).health().getStatus());
+        assertEquals(CacheWarmer.State.COMPLETED, new CacheWarmUpHealthIndicator(cacheWarmer, true).health().getDetails().get("state"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.sarkesa.palindrome.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache.ValueRetrievalException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoalescingCaffeineCacheTest {
+    private static final int CALLERS = 8;
+
+    private Cache<Object, Object> nativeCache;
+    private CoalescingCaffeineCache cache;
+
+    @BeforeEach
+    void setUp() {
+        nativeCache = Caffeine.newBuilder().recordStats().build();
+        cache = new CoalescingCaffeineCache(CacheConfig.PALINDROME_RESULTS_CACHE, nativeCache, true);
+    }
+
+    @Test
+    void get_shouldLoadOnceForConcurrentMissesOfSameKey() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get("kayak", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                release.await();
+                return true;
+            })));
+            assertTrue(loading.await(10, TimeUnit.SECONDS));
+            for (int i = 1; i < CALLERS; i++) {
+                results.add(executor.submit(() -> cache.get("kayak", () -> loads.incrementAndGet() > 0)));
+            }
+            // Every other caller has missed and is waiting for the first load
+            while (cache.coalescedCount() < CALLERS - 1) {
+                Thread.yield();
+            }
+            release.countDown();
+
+            for (final Future<Boolean> result : results) {
+                assertTrue(result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(CALLERS - 1, cache.coalescedCount());
+        assertEquals(Boolean.TRUE, nativeCache.getIfPresent("kayak"));
+        assertEquals(CALLERS, nativeCache.stats().missCount());
+    }
+
+    @Test
+    void get_shouldNotLoadCachedKeys() {
+        cache.put("kayak", true);
+
+        assertTrue(cache.get("kayak", () -> false));
+        assertEquals(1, nativeCache.stats().hitCount());
+        assertEquals(0, cache.coalescedCount());
+    }
+
+    @Test
+    void load_shouldNotCountAnotherLookup() {
+        assertTrue(cache.load("kayak", () -> true));
+        assertTrue(cache.load("kayak", () -> false));
+
+        assertEquals(Boolean.TRUE, nativeCache.getIfPresent("kayak"));
+        assertEquals(0, nativeCache.stats().missCount());
+    }
+
+    @Test
+    void get_shouldPropagateLoadFailuresAndLoadAgainLater() {
+        final ValueRetrievalException ex = assertThrows(ValueRetrievalException.class, () -> cache.get("kayak", () -> {
+            throw new IOException("Could not save");
+        }));
+
+        assertInstanceOf(IOException.class, ex.getCause());
+        assertEquals(0, nativeCache.estimatedSize());
+        assertTrue(cache.get("kayak", () -> true));
+    }
+}
@@ -0,0 +1,139 @@
+package com.sarkesa.palindrome.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapResultIndexTest {
+    private static final int SEGMENT_BYTES = 1 << 16;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OffHeapResultIndex resultIndex;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        resultIndex = new OffHeapResultIndex(true, 100_000, 4L * SEGMENT_BYTES, SEGMENT_BYTES, meterRegistry);
+    }
+
+    @Test
+    void get_shouldReturnIndexedResults() {
+        assertTrue(resultIndex.put("kayak", true));
+        assertTrue(resultIndex.put("help", false));
+        assertTrue(resultIndex.put("été😀", false));
+
+        assertEquals(Boolean.TRUE, resultIndex.get("kayak"));
+        assertEquals(Boolean.FALSE, resultIndex.get("help"));
+        assertEquals(Boolean.FALSE, resultIndex.get("été😀"));
+        assertNull(resultIndex.get("kayaks"));
+        assertNull(resultIndex.get("été"));
+        assertEquals(3, resultIndex.size());
+        assertEquals(3, meterRegistry.get("palindrome.cache.index.gets").tag("result", "hit").counter().count());
+        assertEquals(2, meterRegistry.get("palindrome.cache.index.gets").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void put_shouldReplaceResultForSameText() {
+        resultIndex.put("level", false);
+        resultIndex.put("level", true);
+
+        assertEquals(Boolean.TRUE, resultIndex.get("level"));
+        assertEquals(1, resultIndex.size());
+    }
+
+    @Test
+    void put_shouldSpreadKeysAcrossSegments() {
+        // Enough keys to fill several slot, bit and key segments
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(resultIndex.put("text" + i, i % 3 == 0));
+        }
+
+        for (int i = 0; i < 20_000; i++) {
+            assertEquals(i % 3 == 0, resultIndex.get("text" + i));
+        }
+        assertNull(resultIndex.get("text20000"));
+        assertTrue(resultIndex.keyBytesUsed() > 2L * SEGMENT_BYTES);
+    }
+
+    @Test
+    void put_shouldRejectResultsBeyondCapacity() {
+        resultIndex = new OffHeapResultIndex(true, 2, SEGMENT_BYTES, SEGMENT_BYTES, meterRegistry);
+
+        assertTrue(resultIndex.put("kayak", true));
+        assertTrue(resultIndex.put("help", false));
+        assertFalse(resultIndex.put("level", true));
+        assertTrue(resultIndex.put("help", true));
+
+        assertNull(resultIndex.get("level"));
+        assertEquals(2, resultIndex.size());
+        assertEquals(1, meterRegistry.get("palindrome.cache.index.rejected").counter().count());
+    }
+
+    @Test
+    void put_shouldRejectResultsBeyondKeyBytes() {
+        resultIndex = new OffHeapResultIndex(true, 100, 8, SEGMENT_BYTES, meterRegistry);
+
+        assertTrue(resultIndex.put("kayak", true));
+        assertFalse(resultIndex.put("level", true));
+        assertFalse(resultIndex.put("x".repeat(OffHeapResultIndex.MAX_KEY_LENGTH + 1), false));
+
+        assertEquals(1, resultIndex.size());
+        assertEquals(7, resultIndex.keyBytesUsed());
+    }
+
+    @Test
+    void metrics_shouldReportCapacityAndMemory() {
+        resultIndex.put("kayak", true);
+
+        assertEquals(100_000, meterRegistry.get("palindrome.cache.index.capacity").gauge().value());
+        assertEquals(1, meterRegistry.get("palindrome.cache.index.size").gauge().value());
+        // 2^18 slots of 8 bytes, one result bit each, and the key area
+        assertEquals((1 << 18) * 8 + (1 << 18) / 8 + 4 * SEGMENT_BYTES, meterRegistry.get("palindrome.cache.index.memory").gauge().value());
+        assertEquals(7, meterRegistry.get("palindrome.cache.index.key.bytes").gauge().value());
+    }
+
+    @Test
+    void disabled_shouldHoldNothing() {
+        resultIndex = OffHeapResultIndex.disabled();
+
+        assertFalse(resultIndex.put("kayak", true));
+        assertNull(resultIndex.get("kayak"));
+        assertEquals(0, resultIndex.memoryBytes());
+    }
+
+    @Test
+    void constructor_shouldRejectInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapResultIndex(true, 0, 1024, meterRegistry));
+    }
+
+    @Test
+    void get_shouldNotAllocate() {
+        final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final String[] texts = new String[1000];
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = "text" + i;
+            resultIndex.put(texts[i], i % 2 == 0);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            resultIndex.get(texts[i % texts.length]);
+        }
+
+        final long threadId = Thread.currentThread().getId();
+        final long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            resultIndex.get(texts[i % texts.length]);
+        }
+        final long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        // Far less than a byte per lookup, leaving room for the measurement itself
+        assertTrue(allocated < 10_000, "Lookups allocated " + allocated + " bytes");
+    }
+}
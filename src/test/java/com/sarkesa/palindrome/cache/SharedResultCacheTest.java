@@ -0,0 +1,179 @@
+package com.sarkesa.palindrome.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SharedResultCacheTest {
+    private static final int SHARED_TEXTS = 2000;
+    private static final int OWN_TEXTS = 500;
+    private static final int PROCESSES = 3;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void get_shouldReturnSharedResults() throws IOException {
+        final SharedResultCache sharedResultCache = open(1024);
+
+        assertTrue(sharedResultCache.put("kayak", true));
+        assertTrue(sharedResultCache.put("help", false));
+        assertTrue(sharedResultCache.put("kayak", true));
+
+        assertEquals(Boolean.TRUE, sharedResultCache.get("kayak"));
+        assertEquals(Boolean.FALSE, sharedResultCache.get("help"));
+        assertNull(sharedResultCache.get("level"));
+        assertEquals(2, sharedResultCache.size());
+        sharedResultCache.close();
+    }
+
+    @Test
+    void get_shouldSeeResultsSharedByAnotherInstanceAndAfterRestart() throws IOException {
+        final SharedResultCache first = open(1024);
+        first.put("kayak", true);
+        final SharedResultCache second = open(1024);
+        second.put("help", false);
+
+        assertEquals(Boolean.FALSE, first.get("help"));
+        assertEquals(Boolean.TRUE, second.get("kayak"));
+        first.close();
+        second.close();
+
+        final SharedResultCache restarted = open(1024);
+        assertEquals(Boolean.TRUE, restarted.get("kayak"));
+        assertEquals(2, restarted.size());
+        restarted.close();
+    }
+
+    @Test
+    void put_shouldNotShareWhenNoSlotIsFree() throws IOException {
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final SharedResultCache sharedResultCache = new SharedResultCache(true, tempDir.resolve("shared.cache").toString(), 4, 8, meterRegistry);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(sharedResultCache.put("text" + i, true));
+        }
+        assertFalse(sharedResultCache.put("text4", true));
+        assertFalse(sharedResultCache.put("longer than eight", true));
+
+        assertNull(sharedResultCache.get("text4"));
+        assertEquals(1, meterRegistry.get("palindrome.cache.shared.full").counter().count());
+        sharedResultCache.close();
+    }
+
+    @Test
+    void constructor_shouldRejectFileCreatedWithOtherSettings() throws IOException {
+        open(1024).close();
+
+        assertThrows(IllegalStateException.class, () -> open(2048));
+    }
+
+    @Test
+    void disabled_shouldShareNothing() {
+        final SharedResultCache sharedResultCache = SharedResultCache.disabled();
+
+        assertFalse(sharedResultCache.put("kayak", true));
+        assertNull(sharedResultCache.get("kayak"));
+        assertEquals(0, sharedResultCache.size());
+    }
+
+    /**
+     * Starts several JVMs that all share the same texts at once, plus some of their own, and each waits until it can
+     * read what the others shared.
+     */
+    @Test
+    void put_shouldShareResultsBetweenProcesses() throws IOException, InterruptedException {
+        final Path file = tempDir.resolve("shared.cache");
+        final String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        final List<Process> processes = new ArrayList<>();
+        for (int i = 0; i < PROCESSES; i++) {
+            processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), SharingProcess.class.getName(),
+                file.toString(), String.valueOf(i))
+                .redirectErrorStream(true)
+                .redirectOutput(tempDir.resolve("process" + i + ".log").toFile())
+                .start());
+        }
+
+        for (int i = 0; i < PROCESSES; i++) {
+            final Process process = processes.get(i);
+            final Path processLog = tempDir.resolve("process" + i + ".log");
+            assertTrue(process.waitFor(60, TimeUnit.SECONDS), "Process " + i + " did not finish");
+            assertEquals(0, process.exitValue(), () -> log(processLog));
+        }
+
+        final SharedResultCache sharedResultCache = open(SharingProcess.SLOTS);
+        for (int i = 0; i < SHARED_TEXTS; i++) {
+            assertEquals(i % 2 == 0, sharedResultCache.get("shared" + i));
+        }
+        for (int process = 0; process < PROCESSES; process++) {
+            for (int i = 0; i < OWN_TEXTS; i++) {
+                assertEquals(Boolean.TRUE, sharedResultCache.get("process" + process + "-" + i));
+            }
+        }
+        // Each shared text is claimed by one process, unless a writer was paused long enough for another to give up waiting
+        assertTrue(sharedResultCache.size() >= SHARED_TEXTS + PROCESSES * OWN_TEXTS);
+        sharedResultCache.close();
+    }
+
+    private SharedResultCache open(final long slots) {
+        return new SharedResultCache(true, tempDir.resolve("shared.cache").toString(), slots, 32, new SimpleMeterRegistry());
+    }
+
+    private static String log(final Path file) {
+        try {
+            return Files.exists(file) ? Files.readString(file) : "No output";
+        } catch (final IOException ex) {
+            return ex.getMessage();
+        }
+    }
+
+    /**
+     * Runs in its own JVM, sharing results and then checking that every other process's results can be read.
+     */
+    static final class SharingProcess {
+        static final long SLOTS = 1 << 14;
+
+        private SharingProcess() {
+        }
+
+        public static void main(final String[] args) throws InterruptedException, IOException {
+            final String file = args[0];
+            final int process = Integer.parseInt(args[1]);
+            final SharedResultCache sharedResultCache = new SharedResultCache(true, file, SLOTS, 32, new SimpleMeterRegistry());
+            for (int i = 0; i < SHARED_TEXTS; i++) {
+                sharedResultCache.put("shared" + i, i % 2 == 0);
+                if (i < OWN_TEXTS) {
+                    sharedResultCache.put("process" + process + "-" + i, true);
+                }
+            }
+
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            for (int other = 0; other < PROCESSES; other++) {
+                final String lastText = "process" + other + "-" + (OWN_TEXTS - 1);
+                while (isNull(sharedResultCache.get(lastText))) {
+                    if (System.nanoTime() > deadline) {
+                        System.err.println("Never saw " + lastText + " shared by process " + other);
+                        System.exit(1);
+                    }
+                    Thread.sleep(10);
+                }
+            }
+            sharedResultCache.close();
+            System.exit(0);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.sarkesa.palindrome.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadsTest {
+
+    @Test
+    void newThreadPerTaskExecutor_shouldRunEachTaskOnItsOwnNamedVirtualThread() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+        final ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("test-");
+        try {
+            final Thread first = executor.submit(Thread::currentThread).get(10, TimeUnit.SECONDS);
+            final Thread second = executor.submit(Thread::currentThread).get(10, TimeUnit.SECONDS);
+
+            assertEquals(Boolean.TRUE, Thread.class.getMethod("isVirtual").invoke(first));
+            assertEquals("test-0", first.getName());
+            assertEquals("test-1", second.getName());
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void newThreadPerTaskExecutor_shouldFailBeforeJava21() {
+        assumeFalse(VirtualThreads.isSupported());
+
+        final IllegalStateException ex = assertThrows(IllegalStateException.class, () -> VirtualThreads.newThreadPerTaskExecutor("test-"));
+        assertTrue(ex.getMessage().startsWith("Virtual threads need Java 21 or later"), ex.getMessage());
+    }
+}
@@ -0,0 +1,43 @@
+package com.sarkesa.palindrome.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CaseFoldingTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "kayak", "été", "!@£$%^&*()", "a😀a", "𝒜"})
+    void canonicalize_shouldReturnCanonicalInputItself(final String input) {
+        assertSame(input, CaseFolding.canonicalize(input));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "Kayak, kayak",
+            "KAYAK, kayak",
+            "kaYAK, kayak",
+            "ÉtÉ, été",
+            "😀B😀, 😀b😀",
+            "ſ, s",
+    })
+    void canonicalize_shouldFoldCaseVariants(final String input, final String expected) {
+        assertEquals(expected, CaseFolding.canonicalize(input));
+    }
+
+    @Test
+    void canonicalize_shouldAgreeWithEqualsIgnoreCaseForEveryCodePoint() {
+        for (int codePoint = 0; codePoint <= Character.MAX_CODE_POINT; codePoint++) {
+            final String input = new String(Character.toChars(codePoint));
+            final String canonical = CaseFolding.canonicalize(input);
+
+            assertEquals(input.length(), canonical.length());
+            assertSame(canonical, CaseFolding.canonicalize(canonical));
+            assertEquals(CaseFolding.fold(codePoint), canonical.codePointAt(0));
+        }
+    }
+}
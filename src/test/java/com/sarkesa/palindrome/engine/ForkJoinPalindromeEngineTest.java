@@ -0,0 +1,92 @@
+package com.sarkesa.palindrome.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class ForkJoinPalindromeEngineTest {
+    private ForkJoinPool forkJoinPool;
+    private ForkJoinPalindromeEngine forkJoinPalindromeEngine;
+
+    @BeforeEach
+    void setUp() {
+        forkJoinPool = new ForkJoinPool(4);
+        // A tiny chunk size forces chunk boundaries through the middle of surrogate pairs
+        forkJoinPalindromeEngine = new ForkJoinPalindromeEngine(forkJoinPool, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        forkJoinPool.shutdownNow();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a", "aa", "kayak", "raceCar", "ÉtÉ", "a😀a", "😀b😀", "😀😀", "x😀y😀x", "!@£$%^&*()(*&^%$£@!"})
+    void isPalindrome_shouldAcceptPalindromes(final String input) {
+        assertTrue(forkJoinPalindromeEngine.isPalindrome(input.toCharArray(), input.length()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ab", "levels", "Pacecar", "😀😁", "a😀b", "😀a"})
+    void isPalindrome_shouldRejectNonPalindromes(final String input) {
+        assertFalse(forkJoinPalindromeEngine.isPalindrome(input.toCharArray(), input.length()));
+    }
+
+    @Test
+    void isPalindrome_shouldOnlyConsiderTheGivenLength() {
+        assertTrue(forkJoinPalindromeEngine.isPalindrome("kayakxyz".toCharArray(), 5));
+    }
+
+    @Test
+    void isPalindrome_shouldMatchTwoPointerEngineOnRandomInput() {
+        final TwoPointerPalindromeEngine twoPointerPalindromeEngine = new TwoPointerPalindromeEngine();
+        final String[] alphabet = {"a", "A", "b", "😀", "😁"};
+        final Random random = new Random(11);
+
+        for (int attempt = 0; attempt < 2000; attempt++) {
+            final StringBuilder half = new StringBuilder();
+            final int halfLength = random.nextInt(8);
+            for (int i = 0; i < halfLength; i++) {
+                half.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            final StringBuilder input = new StringBuilder(half);
+            if (random.nextBoolean()) {
+                input.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            // Reverse by code point so half of the inputs are palindromes, then occasionally corrupt one
+            input.append(new StringBuilder(half).reverse());
+            if (random.nextInt(4) == 0 && input.length() > 0) {
+                input.setCharAt(random.nextInt(input.length()), 'z');
+            }
+
+            final String text = input.toString();
+            assertEquals(twoPointerPalindromeEngine.isPalindrome(text), forkJoinPalindromeEngine.isPalindrome(text.toCharArray(), text.length()), text);
+        }
+    }
+
+    @Test
+    void isPalindrome_shouldHandleLargeDocuments() {
+        forkJoinPalindromeEngine = new ForkJoinPalindromeEngine(forkJoinPool, 1 << 12);
+        final char[] chars = new char[4_000_001];
+        for (int i = 0; i < chars.length / 2; i++) {
+            chars[i] = (char) ('a' + i % 26);
+            chars[chars.length - 1 - i] = chars[i];
+        }
+        chars[chars.length / 2] = 'm';
+
+        assertTrue(forkJoinPalindromeEngine.isPalindrome(chars, chars.length));
+
+        chars[chars.length / 3] = '?';
+        assertFalse(forkJoinPalindromeEngine.isPalindrome(chars, chars.length));
+    }
+}
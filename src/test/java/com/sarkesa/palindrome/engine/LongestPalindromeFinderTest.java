@@ -0,0 +1,73 @@
+package com.sarkesa.palindrome.engine;
+
+import com.sarkesa.palindrome.model.PalindromeSubstring;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+class LongestPalindromeFinderTest {
+    private LongestPalindromeFinder longestPalindromeFinder;
+
+    @BeforeEach
+    void setUp() {
+        longestPalindromeFinder = new LongestPalindromeFinder();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "a, a, 0, 1",
+            "ab, a, 0, 1",
+            "kayak, kayak, 0, 5",
+            "myracecars, racecar, 2, 9",
+            "abba, abba, 0, 4",
+            "xabbay, abba, 1, 5",
+            "myRaceCars, RaceCar, 2, 9",
+            "abcdcbaxyzzyx, abcdcba, 0, 7",
+            "xyzzyxabccba, xyzzyx, 0, 6",
+            "xyzyxabcba, xyzyx, 0, 5",
+            "😀a😀bb, 😀a😀, 0, 5",
+    })
+    void findLongest_shouldFindFirstLongestPalindrome(final String text, final String expected, final int start, final int end) {
+        assertEquals(PalindromeSubstring.builder().value(expected).start(start).end(end).build(), longestPalindromeFinder.findLongest(text));
+    }
+
+    @Test
+    void findLongest_shouldHandleEmptyText() {
+        assertEquals(PalindromeSubstring.builder().value("").start(0).end(0).build(), longestPalindromeFinder.findLongest(""));
+    }
+
+    @Test
+    void findLongest_shouldMatchBruteForceOnRandomText() {
+        final TwoPointerPalindromeEngine palindromeEngine = new TwoPointerPalindromeEngine();
+        final Random random = new Random(7);
+
+        for (int attempt = 0; attempt < 500; attempt++) {
+            final char[] chars = new char[1 + random.nextInt(40)];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = "abAB".charAt(random.nextInt(4));
+            }
+            final String text = new String(chars);
+
+            int expectedLength = 0;
+            int expectedStart = 0;
+            for (int start = 0; start < text.length(); start++) {
+                for (int end = start + expectedLength + 1; end <= text.length(); end++) {
+                    if (palindromeEngine.isPalindrome(text.substring(start, end))) {
+                        expectedLength = end - start;
+                        expectedStart = start;
+                    }
+                }
+            }
+
+            final PalindromeSubstring result = longestPalindromeFinder.findLongest(text);
+            assertEquals(expectedStart, result.getStart(), text);
+            assertEquals(expectedStart + expectedLength, result.getEnd(), text);
+        }
+    }
+}
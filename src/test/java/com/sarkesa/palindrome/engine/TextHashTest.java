@@ -0,0 +1,25 @@
+package com.sarkesa.palindrome.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class TextHashTest {
+
+    @Test
+    void hash_shouldMatchFnv1aFinishedWithTheMurmurHash3Mix() {
+        // Worked out independently with the published FNV-1a and MurmurHash3 fmix64 constants
+        assertEquals(0xEFD01F60BA992926L, TextHash.hash(""));
+        assertEquals(0x453C9E53CA5CF88FL, TextHash.hash("kayak"));
+    }
+
+    @Test
+    void hash_shouldSpreadTextsWithCommonPrefix() {
+        final long first = TextHash.hash("kayak1");
+        final long second = TextHash.hash("kayak2");
+
+        assertNotEquals(first >>> 32, second >>> 32);
+        assertNotEquals(first & 0xFFFFFFFFL, second & 0xFFFFFFFFL);
+    }
+}
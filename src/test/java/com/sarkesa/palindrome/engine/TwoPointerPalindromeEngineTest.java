@@ -0,0 +1,69 @@
+package com.sarkesa.palindrome.engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class TwoPointerPalindromeEngineTest {
+    private TwoPointerPalindromeEngine palindromeEngine;
+
+    @BeforeEach
+    void setUp() {
+        palindromeEngine = new TwoPointerPalindromeEngine();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "a",
+            "aa",
+            "kayak",
+            "raceCar",
+            "Madam",
+            "ÉtÉ",
+            "étÉ",
+            "!@£$%^&*()(*&^%$£@!",
+            "a😀a",
+            "😀b😀",
+            "😀𝒜😀",
+    })
+    void isPalindrome_shouldAcceptPalindromes(final String input) {
+        assertTrue(palindromeEngine.isPalindrome(input));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "ab",
+            "levels",
+            "Pacecar",
+            "áa",
+            "😀😁",
+            "a😀b",
+    })
+    void isPalindrome_shouldRejectNonPalindromes(final String input) {
+        assertFalse(palindromeEngine.isPalindrome(input));
+    }
+
+    @Test
+    void isPalindrome_shouldCompareSurrogatePairsAsCodePoints() {
+        // Reversing the chars of "😀" would split the pair, so a char-by-char comparison would reject this
+        final String input = "x😀y😀x";
+
+        assertTrue(palindromeEngine.isPalindrome(input));
+        assertFalse(palindromeEngine.isPalindrome(new StringBuilder(input).reverse().append('z')));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"kayak", "raceCar", "help", "Ava", "ÉtÉ", "!@£$%^&**()(*&^%$£@!"})
+    void isPalindrome_shouldMatchEqualsIgnoreCaseForBasicMultilingualPlane(final String input) {
+        final String reversed = new StringBuilder(input).reverse().toString();
+
+        assertEquals(input.equalsIgnoreCase(reversed), palindromeEngine.isPalindrome(input));
+    }
+}
@@ -0,0 +1,228 @@
+package com.sarkesa.palindrome.persistence;
+
+import com.sarkesa.palindrome.model.PalindromeCheck;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryLogPalindromeRepositoryTest {
+    private static final String PRE_CANNED_FILE_PATH = "src/test/resources/validSavedResults.csv";
+
+    @TempDir
+    Path tempDir;
+
+    private Path binaryFile;
+    private BinaryLogPalindromeRepository binaryLogPalindromeRepository;
+
+    @BeforeEach
+    void setUp() {
+        binaryFile = tempDir.resolve("results.bin");
+        binaryLogPalindromeRepository = new BinaryLogPalindromeRepository(binaryFile.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        binaryLogPalindromeRepository.close();
+    }
+
+    @Test
+    void saveAll_shouldBeReadBackInOrder() {
+        final List<PalindromeCheck> palindromeChecks = checks(1000);
+
+        binaryLogPalindromeRepository.saveAll(palindromeChecks);
+        binaryLogPalindromeRepository.close();
+
+        assertEquals(palindromeChecks, binaryLogPalindromeRepository.findAll());
+    }
+
+    @Test
+    void save_shouldKeepUnicodeText() {
+        final PalindromeCheck palindromeCheck = PalindromeCheck.builder().text("été😀").isPalindrome(false).build();
+
+        binaryLogPalindromeRepository.save(palindromeCheck);
+        binaryLogPalindromeRepository.close();
+
+        assertEquals(List.of(palindromeCheck), binaryLogPalindromeRepository.findAll());
+    }
+
+    @Test
+    void save_shouldSkipResultsWithMissingFields() {
+        final PalindromeCheck valid = PalindromeCheck.builder().text("kayak").isPalindrome(true).build();
+
+        binaryLogPalindromeRepository.saveAll(List.of(PalindromeCheck.builder().isPalindrome(true).build(), valid));
+        binaryLogPalindromeRepository.close();
+
+        assertEquals(List.of(valid), binaryLogPalindromeRepository.findAll());
+    }
+
+    @Test
+    void forEachRecent_shouldVisitLastResultsOldestFirst() {
+        final List<PalindromeCheck> palindromeChecks = checks(100);
+        binaryLogPalindromeRepository.saveAll(palindromeChecks);
+        binaryLogPalindromeRepository.close();
+
+        final List<PalindromeCheck> recent = new ArrayList<>();
+        binaryLogPalindromeRepository.forEachRecent(10, recent::add);
+
+        assertEquals(palindromeChecks.subList(90, 100), recent);
+    }
+
+    @Test
+    void findAll_shouldReturnEmptyListWhenFileNotPopulatedYet() {
+        assertTrue(binaryLogPalindromeRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void findAll_shouldStopAtTornRecordAndWriterShouldCutItOff() throws IOException {
+        binaryLogPalindromeRepository.saveAll(checks(3));
+        binaryLogPalindromeRepository.close();
+        try (RandomAccessFile file = new RandomAccessFile(binaryFile.toFile(), "rw")) {
+            // A crash part way through appending leaves a length with too few bytes after it
+            file.seek(file.length());
+            file.writeInt(40);
+            file.write(new byte[] {1, 'a', 'b'});
+        }
+
+        assertEquals(checks(3), binaryLogPalindromeRepository.findAll());
+
+        binaryLogPalindromeRepository = new BinaryLogPalindromeRepository(binaryFile.toString());
+        final PalindromeCheck next = PalindromeCheck.builder().text("next").isPalindrome(false).build();
+        binaryLogPalindromeRepository.save(next);
+        binaryLogPalindromeRepository.close();
+
+        final List<PalindromeCheck> expected = new ArrayList<>(checks(3));
+        expected.add(next);
+        assertEquals(expected, binaryLogPalindromeRepository.findAll());
+    }
+
+    @Test
+    void findAll_shouldStopAtChecksumMismatch() throws IOException {
+        binaryLogPalindromeRepository.saveAll(checks(3));
+        binaryLogPalindromeRepository.close();
+        try (RandomAccessFile file = new RandomAccessFile(binaryFile.toFile(), "rw")) {
+            // Flip the palindrome flag of the second record, after the header, the first record and the length
+            final long secondFlag = BinaryLogFormat.HEADER_BYTES + 4 + 1 + "text0".length() + 4 + 4;
+            file.seek(secondFlag);
+            file.write(1);
+        }
+
+        assertEquals(checks(1), binaryLogPalindromeRepository.findAll());
+    }
+
+    @Test
+    void read_shouldMoveWindowAcrossRecordBoundaries() throws IOException {
+        final List<PalindromeCheck> palindromeChecks = checks(500);
+        binaryLogPalindromeRepository.saveAll(palindromeChecks);
+        binaryLogPalindromeRepository.close();
+
+        final List<PalindromeCheck> read = new ArrayList<>();
+        final long end = BinaryLogFormat.read(binaryFile, read::add, Long.MAX_VALUE, 37);
+
+        assertEquals(palindromeChecks, read);
+        assertEquals(Files.size(binaryFile), end);
+    }
+
+    @Test
+    void convertFromCsv_shouldCopyAllRows() throws IOException {
+        final Path converted = tempDir.resolve("converted.bin");
+
+        assertEquals(3, BinaryLogPalindromeRepository.convertFromCsv(Path.of(PRE_CANNED_FILE_PATH), converted));
+
+        final BinaryLogPalindromeRepository repository = new BinaryLogPalindromeRepository(converted.toString());
+        final List<PalindromeCheck> results = repository.findAll();
+        repository.close();
+        assertEquals(List.of(
+                PalindromeCheck.builder().text("kayak").isPalindrome(true).build(),
+                PalindromeCheck.builder().text("hannah").isPalindrome(true).build(),
+                PalindromeCheck.builder().text("help").isPalindrome(false).build()),
+                results);
+        assertFalse(Files.exists(tempDir.resolve("converted.bin.partial")));
+    }
+
+    @Test
+    void compact_shouldKeepLatestResultForEachTextInOrder() throws IOException {
+        binaryLogPalindromeRepository.saveAll(List.of(check("a", true), check("b", true), check("a", false), check("c", false)));
+        awaitCommitted(4);
+
+        assertTrue(binaryLogPalindromeRepository.compact() > 0);
+        binaryLogPalindromeRepository.save(check("d", true));
+        binaryLogPalindromeRepository.close();
+
+        assertEquals(List.of(check("b", true), check("a", false), check("c", false), check("d", true)),
+                binaryLogPalindromeRepository.findAll());
+        assertFalse(Files.exists(tempDir.resolve("results.bin.compacting")));
+    }
+
+    @Test
+    void compact_shouldKeepResultsSavedWhileCompacting() throws Exception {
+        final List<PalindromeCheck> duplicates = IntStream.range(0, 20_000)
+                .mapToObj(i -> check("text" + i % 100, true))
+                .collect(Collectors.toList());
+        binaryLogPalindromeRepository.saveAll(duplicates);
+        awaitCommitted(duplicates.size());
+
+        final List<PalindromeCheck> concurrent = IntStream.range(0, 5_000)
+                .mapToObj(i -> check("concurrent" + i, false))
+                .collect(Collectors.toList());
+        final Thread saver = new Thread(() -> concurrent.forEach(binaryLogPalindromeRepository::save));
+        saver.start();
+        binaryLogPalindromeRepository.compact();
+        saver.join();
+        binaryLogPalindromeRepository.close();
+
+        final List<PalindromeCheck> results = binaryLogPalindromeRepository.findAll();
+        assertTrue(results.containsAll(concurrent));
+        assertEquals(100, results.stream().filter(palindromeCheck -> palindromeCheck.getText().startsWith("text")).count());
+    }
+
+    @Test
+    void compactIfNeeded_shouldCompactOnceDuplicateRatioIsReached() {
+        binaryLogPalindromeRepository.close();
+        binaryLogPalindromeRepository = new BinaryLogPalindromeRepository(binaryFile.toString(), null, 64, 16, 5,
+                SaturationPolicy.BLOCK, 5, new CompactionPolicy(false, 60, 0, 100, 0.5, 1 << 16), PersistedKeyFilter.disabled(), new SimpleMeterRegistry());
+
+        binaryLogPalindromeRepository.saveAll(checks(100));
+        awaitCommitted(100);
+        assertFalse(binaryLogPalindromeRepository.compactIfNeeded());
+
+        binaryLogPalindromeRepository.saveAll(checks(100));
+        binaryLogPalindromeRepository.saveAll(checks(100));
+        awaitCommitted(300);
+        assertTrue(binaryLogPalindromeRepository.estimatedDuplicateRatio() > 0.5);
+        assertTrue(binaryLogPalindromeRepository.compactIfNeeded());
+        assertEquals(checks(100), binaryLogPalindromeRepository.findAll());
+    }
+
+    @SneakyThrows
+    private void awaitCommitted(final int count) {
+        while (binaryLogPalindromeRepository.findAll().size() < count) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static PalindromeCheck check(final String text, final boolean isPalindrome) {
+        return PalindromeCheck.builder().text(text).isPalindrome(isPalindrome).build();
+    }
+
+    private static List<PalindromeCheck> checks(final int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> PalindromeCheck.builder().text("text" + i).isPalindrome(i % 3 == 0).build())
+                .collect(Collectors.toList());
+    }
+}
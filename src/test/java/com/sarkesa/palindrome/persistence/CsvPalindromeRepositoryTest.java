@@ -1,7 +1,9 @@
 package com.sarkesa.palindrome.persistence;
 
 import com.sarkesa.palindrome.model.PalindromeCheck;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -9,12 +11,16 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static java.lang.Thread.sleep;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class CsvPalindromeRepositoryTest {
@@ -29,6 +35,12 @@ class CsvPalindromeRepositoryTest {
         csvPalindromeRepository = new CsvPalindromeRepository(CSV_FILE_PATH);
     }
 
+    @AfterEach
+    void tearDown() {
+        csvPalindromeRepository.close();
+        deleteFile(CSV_FILE_PATH);
+    }
+
     @Test
     void save_shouldSaveSuccessfully() throws IOException, InterruptedException {
         String inputTest = UUID.randomUUID().toString();
@@ -45,6 +57,58 @@ class CsvPalindromeRepositoryTest {
         assertTrue(lineInCsvFile.isPresent());
     }
 
+    @Test
+    void save_shouldSkipTextsAlreadySavedIncludingBeforeRestart() throws InterruptedException {
+        csvPalindromeRepository.close();
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        csvPalindromeRepository = withKeyFilter(meterRegistry);
+        csvPalindromeRepository.save(PalindromeCheck.builder().text("kayak").isPalindrome(true).build());
+        sleep(500); // A text is only skipped once its first result has been committed
+        csvPalindromeRepository.saveAll(List.of(PalindromeCheck.builder().text("kayak").isPalindrome(true).build(),
+                PalindromeCheck.builder().text("help").isPalindrome(false).build()));
+        csvPalindromeRepository.close();
+
+        csvPalindromeRepository = withKeyFilter(meterRegistry);
+        csvPalindromeRepository.save(PalindromeCheck.builder().text("kayak").isPalindrome(true).build());
+        csvPalindromeRepository.save(PalindromeCheck.builder().text("level").isPalindrome(true).build());
+        csvPalindromeRepository.close();
+
+        assertEquals(List.of("kayak", "help", "level"),
+                csvPalindromeRepository.findAll().stream().map(PalindromeCheck::getText).collect(Collectors.toList()));
+        assertEquals(2, meterRegistry.get("palindrome.persistence.skipped").counter().count());
+    }
+
+    @Test
+    void startKeyFilterLoad_shouldLoadSavedTextsInTheBackground() throws InterruptedException {
+        csvPalindromeRepository.save(PalindromeCheck.builder().text("kayak").isPalindrome(true).build());
+        csvPalindromeRepository.close();
+        final PersistedKeyFilter keyFilter = new PersistedKeyFilter(true, 1024, 0.001);
+        csvPalindromeRepository = new CsvPalindromeRepository(CSV_FILE_PATH, 64, 16, 5, SaturationPolicy.BLOCK, 5,
+                CompactionPolicy.disabled(), keyFilter, new SimpleMeterRegistry());
+
+        csvPalindromeRepository.startKeyFilterLoad();
+        for (int i = 0; i < 100 && !csvPalindromeRepository.isKeyFilterLoaded(); i++) {
+            sleep(50);
+        }
+
+        assertTrue(csvPalindromeRepository.isKeyFilterLoaded());
+        assertTrue(keyFilter.mightContain("kayak"));
+    }
+
+    @Test
+    void save_shouldOnlyMarkTextsSavedOnceCommitted() {
+        csvPalindromeRepository.close();
+        final PersistedKeyFilter keyFilter = new PersistedKeyFilter(true, 1024, 0.001);
+        csvPalindromeRepository = withKeyFilter(new SimpleMeterRegistry(), keyFilter);
+        csvPalindromeRepository.save(PalindromeCheck.builder().text("kayak").isPalindrome(true).build());
+        csvPalindromeRepository.close();
+        // Dropped, because the writer has been closed
+        csvPalindromeRepository.save(PalindromeCheck.builder().text("level").isPalindrome(true).build());
+
+        assertTrue(keyFilter.mightContain("kayak"));
+        assertFalse(keyFilter.mightContain("level"));
+    }
+
     @Test
     void save_shouldNotSaveWhenInputNull() throws IOException, InterruptedException {
         PalindromeCheck palindromeCheck = PalindromeCheck.builder().text(null).isPalindrome(false).build();
@@ -78,8 +142,86 @@ class CsvPalindromeRepositoryTest {
         assertTrue(results.contains(palindromeCheck3));
     }
 
+    @Test
+    void saveAll_shouldSaveAllSuccessfully() throws InterruptedException {
+        List<PalindromeCheck> palindromeChecks = List.of(
+                PalindromeCheck.builder().text("test1").isPalindrome(true).build(),
+                PalindromeCheck.builder().text("test2").isPalindrome(false).build(),
+                PalindromeCheck.builder().text(UUID.randomUUID().toString()).isPalindrome(false).build());
+
+        csvPalindromeRepository.saveAll(palindromeChecks);
+
+        sleep(500); // Need the file to be written before proceeding
+
+        assertEquals(palindromeChecks, csvPalindromeRepository.findAll());
+    }
+
+    @Test
+    void close_shouldWriteQueuedResultsBeforeReturning() {
+        List<PalindromeCheck> palindromeChecks = IntStream.range(0, 1000)
+                .mapToObj(i -> PalindromeCheck.builder().text("test" + i).isPalindrome(i % 2 == 0).build())
+                .collect(Collectors.toList());
+
+        csvPalindromeRepository.saveAll(palindromeChecks);
+        csvPalindromeRepository.close();
+
+        assertEquals(palindromeChecks, csvPalindromeRepository.findAll());
+    }
+
+    @Test
+    void save_shouldKeepValidResultsCommittedWithInvalidOnes() {
+        PalindromeCheck valid = PalindromeCheck.builder().text("kayak").isPalindrome(true).build();
+
+        csvPalindromeRepository.saveAll(List.of(PalindromeCheck.builder().isPalindrome(true).build(), valid));
+        csvPalindromeRepository.close();
+
+        assertEquals(List.of(valid), csvPalindromeRepository.findAll());
+    }
+
+    @Test
+    void forEachRecent_shouldVisitLastResultsOldestFirst() {
+        List<PalindromeCheck> results = new ArrayList<>();
+        csvPalindromeRepository.close();
+        csvPalindromeRepository = new CsvPalindromeRepository(PRE_CANNED_FILE_PATH);
+
+        csvPalindromeRepository.forEachRecent(2, results::add);
+
+        assertEquals(List.of(
+                PalindromeCheck.builder().text("hannah").isPalindrome(true).build(),
+                PalindromeCheck.builder().text("help").isPalindrome(false).build()), results);
+    }
+
+    @Test
+    void forEachRecent_shouldVisitNothingWhenFileNotPopulatedYet() {
+        List<PalindromeCheck> results = new ArrayList<>();
+
+        csvPalindromeRepository.forEachRecent(10, results::add);
+
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    void compact_shouldKeepLatestResultForEachText() throws IOException, InterruptedException {
+        PalindromeCheck first = PalindromeCheck.builder().text("test1").isPalindrome(true).build();
+        PalindromeCheck second = PalindromeCheck.builder().text("test2").isPalindrome(false).build();
+        PalindromeCheck latest = PalindromeCheck.builder().text("test1").isPalindrome(false).build();
+        final PalindromeCheck afterwards = PalindromeCheck.builder().text("test3").isPalindrome(true).build();
+
+        csvPalindromeRepository.saveAll(List.of(first, second, latest));
+
+        sleep(500); // Need the file to be written before proceeding
+
+        assertTrue(csvPalindromeRepository.compact() > 0);
+        csvPalindromeRepository.save(afterwards);
+        csvPalindromeRepository.close();
+
+        assertEquals(List.of(second, latest, afterwards), csvPalindromeRepository.findAll());
+        assertFalse(Files.exists(Paths.get(CSV_FILE_PATH + ".compacting")));
+    }
+
     @Test
     void findAll_shouldSuccessfullyRetrieveAllFromPreCannedFile() {
+        csvPalindromeRepository.close();
         csvPalindromeRepository = new CsvPalindromeRepository(PRE_CANNED_FILE_PATH);
 
         List<PalindromeCheck> results = csvPalindromeRepository.findAll();
@@ -102,4 +244,15 @@ class CsvPalindromeRepositoryTest {
         Files.deleteIfExists(path);
         System.out.println("File deleted successfully!");
     }
-}
\ No newline at end of file
+
+    private static CsvPalindromeRepository withKeyFilter(final SimpleMeterRegistry meterRegistry) {
+        return withKeyFilter(meterRegistry, new PersistedKeyFilter(true, 1024, 0.001));
+    }
+
+    private static CsvPalindromeRepository withKeyFilter(final SimpleMeterRegistry meterRegistry, final PersistedKeyFilter keyFilter) {
+        final CsvPalindromeRepository repository = new CsvPalindromeRepository(CSV_FILE_PATH, 64, 16, 5, SaturationPolicy.BLOCK, 5,
+                CompactionPolicy.disabled(), keyFilter, meterRegistry);
+        repository.loadKeyFilter();
+        return repository;
+    }
+}
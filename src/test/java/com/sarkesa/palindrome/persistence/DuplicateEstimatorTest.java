@@ -0,0 +1,42 @@
+package com.sarkesa.palindrome.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DuplicateEstimatorTest {
+
+    @Test
+    void duplicateRatio_shouldBeZeroForDistinctTexts() {
+        final DuplicateEstimator duplicateEstimator = new DuplicateEstimator(1 << 16);
+
+        IntStream.range(0, 10_000).forEach(i -> duplicateEstimator.add("text" + i));
+
+        assertEquals(0, duplicateEstimator.duplicateRatio(), 0.02);
+    }
+
+    @Test
+    void duplicateRatio_shouldCountRepeats() {
+        final DuplicateEstimator duplicateEstimator = new DuplicateEstimator(1 << 16);
+
+        IntStream.range(0, 40_000).forEach(i -> duplicateEstimator.add("text" + i % 10_000));
+
+        assertEquals(40_000, duplicateEstimator.count());
+        assertEquals(10_000, duplicateEstimator.distinctEstimate(), 200);
+        assertEquals(0.75, duplicateEstimator.duplicateRatio(), 0.01);
+    }
+
+    @Test
+    void reset_shouldForgetEverySeenText() {
+        final DuplicateEstimator duplicateEstimator = new DuplicateEstimator(1 << 10);
+        duplicateEstimator.add("kayak");
+        duplicateEstimator.add("kayak");
+
+        duplicateEstimator.reset();
+
+        assertEquals(0, duplicateEstimator.count());
+        assertEquals(0, duplicateEstimator.duplicateRatio());
+    }
+}
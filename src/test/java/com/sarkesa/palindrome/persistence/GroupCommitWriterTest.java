@@ -0,0 +1,253 @@
+package com.sarkesa.palindrome.persistence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GroupCommitWriterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void submit_shouldCommitQueuedRecordsInBatches() throws InterruptedException {
+        final List<List<Integer>> batches = new ArrayList<>();
+        final CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        final CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        final RecordSink<Integer> sink = batch -> {
+            batches.add(new ArrayList<>(batch));
+            firstBatchStarted.countDown();
+            await(releaseFirstBatch);
+        };
+
+        final GroupCommitWriter<Integer> writer = new GroupCommitWriter<>("test", sink, 100, 10, Duration.ZERO, SaturationPolicy.BLOCK, meterRegistry);
+        writer.submit(0);
+        assertTrue(firstBatchStarted.await(5, TimeUnit.SECONDS));
+        // While the sink is busy the records queue up and are then committed together
+        for (int i = 1; i <= 25; i++) {
+            writer.submit(i);
+        }
+        assertEquals(25, writer.queueDepth());
+        releaseFirstBatch.countDown();
+        writer.close();
+
+        assertEquals(List.of(List.of(0), range(1, 11), range(11, 21), range(21, 26)), batches);
+        assertEquals(4, writer.batchCount());
+        assertEquals(26, writer.recordCount());
+        assertEquals(0, writer.queueDepth());
+        assertEquals(4, meterRegistry.get("palindrome.persistence.flush.latency").tag("writer", "test").timer().count());
+    }
+
+    @Test
+    void submit_shouldWaitForFlushIntervalToGroupRecords() throws InterruptedException {
+        final List<List<Integer>> batches = new ArrayList<>();
+        final RecordSink<Integer> sink = batch -> batches.add(new ArrayList<>(batch));
+        final GroupCommitWriter<Integer> writer = new GroupCommitWriter<>("test", sink, 100, 10, Duration.ofSeconds(5), SaturationPolicy.BLOCK, meterRegistry);
+
+        writer.submit(1);
+        Thread.sleep(50);
+        writer.submit(2);
+        writer.submit(3);
+        writer.close();
+
+        assertEquals(1, batches.size());
+        assertEquals(List.of(1, 2, 3), batches.get(0));
+    }
+
+    @Test
+    void close_shouldCloseSinkAfterLastBatch() {
+        final List<String> events = new ArrayList<>();
+        final RecordSink<Integer> sink = new RecordSink<>() {
+            @Override
+            public void write(final List<Integer> batch) {
+                events.add("write " + batch.size());
+            }
+
+            @Override
+            public void close() {
+                events.add("close");
+            }
+        };
+
+        final GroupCommitWriter<Integer> writer = new GroupCommitWriter<>("test", sink, 100, 10, Duration.ofMillis(1), SaturationPolicy.BLOCK, meterRegistry);
+        writer.submit(1);
+        writer.close();
+
+        assertEquals(List.of("write 1", "close"), events);
+    }
+
+    @Test
+    void submit_shouldKeepWritingAfterSinkFailure() {
+        final List<Integer> written = new ArrayList<>();
+        final RecordSink<Integer> sink = batch -> {
+            if (batch.contains(1)) {
+                throw new IOException("disk full");
+            }
+            written.addAll(batch);
+        };
+
+        final GroupCommitWriter<Integer> writer = new GroupCommitWriter<>("test", sink, 100, 1, Duration.ZERO, SaturationPolicy.BLOCK, meterRegistry);
+        writer.submit(1);
+        writer.submit(2);
+        writer.close();
+
+        assertEquals(List.of(2), written);
+    }
+
+    @Test
+    void submit_shouldDropWhenFullIfConfigured() throws InterruptedException {
+        final CountDownLatch sinkBusy = new CountDownLatch(1);
+        final CountDownLatch releaseSink = new CountDownLatch(1);
+        final List<Integer> written = new ArrayList<>();
+        final RecordSink<Integer> sink = batch -> {
+            sinkBusy.countDown();
+            await(releaseSink);
+            written.addAll(batch);
+        };
+
+        final GroupCommitWriter<Integer> writer = new GroupCommitWriter<>("test", sink, 2, 10, Duration.ZERO, SaturationPolicy.DROP, meterRegistry);
+        writer.submit(0);
+        assertTrue(sinkBusy.await(5, TimeUnit.SECONDS));
+        writer.submit(1);
+        writer.submit(2);
+        writer.submit(3);
+        releaseSink.countDown();
+        writer.close();
+
+        assertEquals(List.of(0, 1, 2), written);
+        assertEquals(1, writer.droppedCount());
+        assertEquals(1, meterRegistry.get("palindrome.persistence.dropped").tag("writer", "test").counter().count());
+    }
+
+    @Test
+    void submit_shouldWriteOnCallerWhenFullIfConfigured() throws InterruptedException {
+        final CountDownLatch sinkBusy = new CountDownLatch(1);
+        final CountDownLatch releaseSink = new CountDownLatch(1);
+        final List<String> writers = Collections.synchronizedList(new ArrayList<>());
+        final RecordSink<Integer> sink = batch -> {
+            writers.add(Thread.currentThread().getName() + " " + batch);
+            sinkBusy.countDown();
+            await(releaseSink);
+        };
+
+        final GroupCommitWriter<Integer> writer = new GroupCommitWriter<>("test", sink, 1, 10, Duration.ZERO, SaturationPolicy.CALLER_RUNS, meterRegistry);
+        writer.submit(0);
+        assertTrue(sinkBusy.await(5, TimeUnit.SECONDS));
+        writer.submit(1);
+        releaseSink.countDown();
+        // The queue is full so the caller waits its turn for the sink and writes the record itself
+        writer.submit(2);
+        writer.close();
+
+        assertEquals(3, writers.size());
+        assertEquals("test-writer [0]", writers.get(0));
+        assertTrue(writers.containsAll(List.of(Thread.currentThread().getName() + " [2]", "test-writer [1]")));
+        assertEquals(0, writer.droppedCount());
+    }
+
+    @Test
+    void flush_shouldWaitUntilQueuedRecordsAreCommitted() throws InterruptedException {
+        final List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+        final RecordSink<Integer> sink = written::addAll;
+        // The last records wait for the flush interval, since they do not fill a batch
+        final GroupCommitWriter<Integer> writer = new GroupCommitWriter<>("test", sink, 100, 10, Duration.ofMillis(200), SaturationPolicy.BLOCK, meterRegistry);
+        for (int i = 0; i < 25; i++) {
+            writer.submit(i);
+        }
+
+        writer.flush();
+
+        assertEquals(range(0, 25), written);
+        writer.close();
+        writer.flush();
+    }
+
+    @Test
+    void submit_shouldDropAfterClose() {
+        final List<Integer> written = new ArrayList<>();
+        final RecordSink<Integer> sink = written::addAll;
+        final GroupCommitWriter<Integer> writer = new GroupCommitWriter<>("test", sink, 10, 10, Duration.ZERO, SaturationPolicy.BLOCK, meterRegistry);
+
+        writer.close();
+        writer.submit(1);
+
+        assertTrue(written.isEmpty());
+        assertEquals(1, writer.droppedCount());
+    }
+
+    @Test
+    void close_shouldGiveUpAfterDrainTimeout() throws InterruptedException {
+        final CountDownLatch sinkBusy = new CountDownLatch(1);
+        final RecordSink<Integer> sink = batch -> {
+            sinkBusy.countDown();
+            await(new CountDownLatch(1));
+        };
+
+        final GroupCommitWriter<Integer> writer = new GroupCommitWriter<>("test", sink, 10, 1, Duration.ZERO, SaturationPolicy.BLOCK, meterRegistry);
+        writer.submit(0);
+        writer.submit(1);
+        assertTrue(sinkBusy.await(5, TimeUnit.SECONDS));
+
+        final long start = System.nanoTime();
+        writer.close(Duration.ofMillis(200));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(4));
+        awaitDropped(writer, 1);
+    }
+
+    @Test
+    void submit_shouldStopWaitingForSpaceOnceWriterExits() throws InterruptedException {
+        final CountDownLatch sinkBusy = new CountDownLatch(1);
+        final RecordSink<Integer> sink = batch -> {
+            sinkBusy.countDown();
+            await(new CountDownLatch(1));
+        };
+        final GroupCommitWriter<Integer> writer = new GroupCommitWriter<>("test", sink, 1, 1, Duration.ZERO, SaturationPolicy.BLOCK, meterRegistry);
+        writer.submit(0);
+        assertTrue(sinkBusy.await(5, TimeUnit.SECONDS));
+        writer.submit(1);
+
+        // Waits for space behind the record still queued, until the writer is interrupted and exits
+        final Thread waitingCaller = new Thread(() -> writer.submit(2));
+        waitingCaller.start();
+        Thread.sleep(50);
+        writer.close(Duration.ofMillis(100));
+        waitingCaller.join(5000);
+
+        assertFalse(waitingCaller.isAlive());
+        awaitDropped(writer, 2);
+        assertEquals(0, writer.queueDepth());
+    }
+
+    private static List<Integer> range(final int from, final int to) {
+        final List<Integer> values = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+
+    private static void awaitDropped(final GroupCommitWriter<Integer> writer, final int expected) throws InterruptedException {
+        for (int i = 0; i < 100 && writer.droppedCount() < expected; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(expected, writer.droppedCount());
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
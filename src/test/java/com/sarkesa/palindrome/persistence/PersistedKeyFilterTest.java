@@ -0,0 +1,70 @@
+package com.sarkesa.palindrome.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PersistedKeyFilterTest {
+
+    @Test
+    void add_shouldReportOnlyNewTexts() {
+        final PersistedKeyFilter keyFilter = new PersistedKeyFilter(true, 1000, 0.001);
+
+        assertTrue(keyFilter.add("kayak"));
+        assertTrue(keyFilter.add("help"));
+        assertFalse(keyFilter.add("kayak"));
+        assertFalse(keyFilter.add("help"));
+        assertFalse(keyFilter.mightContain("level"));
+
+        assertEquals(2, keyFilter.size());
+    }
+
+    @Test
+    void add_shouldKeepFalsePositivesNearConfiguredRate() {
+        final PersistedKeyFilter keyFilter = new PersistedKeyFilter(true, 100_000, 0.01);
+        IntStream.range(0, 100_000).forEach(i -> keyFilter.add("saved" + i));
+
+        final long falsePositives = IntStream.range(0, 100_000).filter(i -> keyFilter.mightContain("unsaved" + i)).count();
+
+        assertTrue(falsePositives < 100_000 * 0.015, falsePositives + " false positives");
+        assertTrue(IntStream.range(0, 100_000).allMatch(i -> keyFilter.mightContain("saved" + i)));
+    }
+
+    @Test
+    void falsePositiveRate_shouldEstimateRateAtExpectedTexts() {
+        final PersistedKeyFilter keyFilter = new PersistedKeyFilter(true, 10_000, 0.001);
+
+        IntStream.range(0, 10_000).forEach(i -> keyFilter.add("text" + i));
+
+        assertEquals(0.001, keyFilter.falsePositiveRate(), 0.0005);
+        assertEquals(10_000 * 14.4, keyFilter.bits(), 10_000);
+    }
+
+    @Test
+    void falsePositiveRate_shouldClimbPastExpectedTexts() {
+        final PersistedKeyFilter keyFilter = new PersistedKeyFilter(true, 10_000, 0.001);
+
+        IntStream.range(0, 40_000).forEach(i -> keyFilter.add("text" + i));
+
+        assertTrue(keyFilter.falsePositiveRate() > 0.1);
+    }
+
+    @Test
+    void disabled_shouldTreatEveryTextAsNew() {
+        final PersistedKeyFilter keyFilter = PersistedKeyFilter.disabled();
+
+        assertTrue(keyFilter.add("kayak"));
+        assertTrue(keyFilter.add("kayak"));
+        assertEquals(0, keyFilter.falsePositiveRate());
+    }
+
+    @Test
+    void constructor_shouldRejectInvalidFalsePositiveRate() {
+        assertThrows(IllegalArgumentException.class, () -> new PersistedKeyFilter(true, 1000, 1));
+    }
+}
@@ -0,0 +1,96 @@
+package com.sarkesa.palindrome.service;
+
+import com.sarkesa.palindrome.engine.TwoPointerPalindromeEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+class CostAwarePalindromeCheckerTest {
+    @Mock
+    private PalindromeCheckerService palindromeCheckerService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CostAwarePalindromeChecker costAwarePalindromeChecker;
+    private AutoCloseable mocks;
+
+    @BeforeEach
+    void setUp() {
+        mocks = openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        costAwarePalindromeChecker = new CostAwarePalindromeChecker(palindromeCheckerService, new TwoPointerPalindromeEngine(), 6, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mocks.close();
+    }
+
+    @Test
+    void isPalindrome_shouldEvaluateShortInputsDirectly() {
+        assertTrue(costAwarePalindromeChecker.isPalindrome("Kayak"));
+        assertFalse(costAwarePalindromeChecker.isPalindrome("help"));
+        assertTrue(costAwarePalindromeChecker.isPalindrome("a"));
+        assertFalse(costAwarePalindromeChecker.isPalindrome(""));
+
+        verifyNoInteractions(palindromeCheckerService);
+        assertEquals(4, meterRegistry.get("palindrome.admission.bypassed").counter().count());
+    }
+
+    @Test
+    void isPalindrome_shouldCacheLongInputs() {
+        when(palindromeCheckerService.isPalindrome("racecar")).thenReturn(true);
+
+        assertTrue(costAwarePalindromeChecker.isPalindrome("racecar"));
+
+        verify(palindromeCheckerService).isPalindrome("racecar");
+        assertEquals(0, meterRegistry.get("palindrome.admission.bypassed").counter().count());
+    }
+
+    @Test
+    void isPalindromeBatch_shouldOnlyCacheLongInputs() {
+        when(palindromeCheckerService.isPalindromeBatch(List.of("racecar", "helpers"))).thenReturn(Map.of("racecar", true, "helpers", false));
+
+        final Map<String, Boolean> results = costAwarePalindromeChecker.isPalindromeBatch(List.of("kayak", "racecar", "help", "helpers"));
+
+        assertEquals(Map.of("kayak", true, "racecar", true, "help", false, "helpers", false), results);
+        verify(palindromeCheckerService).isPalindromeBatch(List.of("racecar", "helpers"));
+        verifyNoMoreInteractions(palindromeCheckerService);
+    }
+
+    @Test
+    void isPalindromeBatch_shouldNotCallCachedCheckWhenEveryInputIsShort() {
+        assertEquals(Map.of("kayak", true, "help", false), costAwarePalindromeChecker.isPalindromeBatch(List.of("kayak", "help")));
+
+        verifyNoInteractions(palindromeCheckerService);
+    }
+
+    @Test
+    void constructor_shouldCacheEverythingWhenThresholdIsZero() {
+        costAwarePalindromeChecker = new CostAwarePalindromeChecker(palindromeCheckerService, new TwoPointerPalindromeEngine(), 0, meterRegistry);
+
+        costAwarePalindromeChecker.isPalindrome("a");
+
+        verify(palindromeCheckerService).isPalindrome("a");
+    }
+
+    @Test
+    void constructor_shouldRejectNegativeThreshold() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CostAwarePalindromeChecker(palindromeCheckerService, new TwoPointerPalindromeEngine(), -1, meterRegistry));
+    }
+}
@@ -1,27 +1,52 @@
 package com.sarkesa.palindrome.service;
 
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sarkesa.palindrome.cache.CoalescingCaffeineCache;
+import com.sarkesa.palindrome.cache.OffHeapResultIndex;
+import com.sarkesa.palindrome.cache.SharedResultCache;
+import com.sarkesa.palindrome.engine.LongestPalindromeFinder;
+import com.sarkesa.palindrome.engine.TwoPointerPalindromeEngine;
+import com.sarkesa.palindrome.model.CachedResultsPage;
 import com.sarkesa.palindrome.model.PalindromeCheck;
+import com.sarkesa.palindrome.model.PalindromeSubstring;
 import com.sarkesa.palindrome.persistence.PalindromeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static com.sarkesa.palindrome.cache.CacheConfig.PALINDROME_RESULTS_CACHE;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -39,13 +64,16 @@ class PalindromeCheckerServiceTest {
     @Mock
     private Cache<Object, Object> cache;
 
+    private SimpleMeterRegistry meterRegistry;
     private PalindromeCheckerService palindromeCheckerService;
 
     @BeforeEach
     void setUp() throws IOException {
         initMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
 
-        palindromeCheckerService = new PalindromeCheckerService(cacheManager, palindromeRepository);
+        palindromeCheckerService = new PalindromeCheckerService(cacheManager, OffHeapResultIndex.disabled(), SharedResultCache.disabled(), palindromeRepository,
+                new TwoPointerPalindromeEngine(), new LongestPalindromeFinder(), Runnable::run, 2, meterRegistry);
     }
 
     @ParameterizedTest
@@ -80,11 +108,10 @@ class PalindromeCheckerServiceTest {
             "&^&^&",
             "!@£$%^&*()(*&^%$£@!"})
     void isPalindrome_shouldCorrectlyProcessPalindromeInputs(final String input) {
-        verify(cacheManager, times(1)).getCache(PALINDROME_RESULTS_CACHE); // This gets call in constructor
 
         assertTrue(palindromeCheckerService.isPalindrome(input));
 
-        verify(palindromeRepository, times(1)).save(PalindromeCheck.builder().text(input).isPalindrome(true).build());
+        verify(palindromeRepository, times(1)).save(PalindromeCheck.builder().text(input.toLowerCase(Locale.ROOT)).isPalindrome(true).build());
         verifyNoMoreInteractions(palindromeRepository, cacheManager, cache);
     }
 
@@ -104,18 +131,24 @@ class PalindromeCheckerServiceTest {
             "daddy",
             "!@£$%^&**()(*&^%$£@!"})
     void isPalindrome_shouldCorrectlyProcessNonPalindromeInputs(final String input) {
-        verify(cacheManager, times(1)).getCache(PALINDROME_RESULTS_CACHE); // This gets call in constructor
 
         assertFalse(palindromeCheckerService.isPalindrome(input));
 
-        verify(palindromeRepository, times(1)).save(PalindromeCheck.builder().text(input).isPalindrome(false).build());
+        verify(palindromeRepository, times(1)).save(PalindromeCheck.builder().text(input.toLowerCase(Locale.ROOT)).isPalindrome(false).build());
         verifyNoMoreInteractions(palindromeRepository, cacheManager, cache);
     }
 
+    @Test
+    void isPalindrome_shouldTimeCacheLoads() {
+        palindromeCheckerService.isPalindrome("kayak");
+        palindromeCheckerService.isPalindromeBatch(List.of("help", "hannah"));
+
+        assertEquals(2, meterRegistry.get("palindrome.cache.load").tag("cache", PALINDROME_RESULTS_CACHE).timer().count());
+    }
+
     @ParameterizedTest
     @NullAndEmptySource
     void isPalindrome_shouldCorrectlyProcessNullAndEmptyInputs(final String input) {
-        verify(cacheManager, times(1)).getCache(PALINDROME_RESULTS_CACHE); // This gets call in constructor
 
         assertFalse(palindromeCheckerService.isPalindrome(input));
 
@@ -126,10 +159,11 @@ class PalindromeCheckerServiceTest {
     void getCachedPalindromeResults_shouldHandleCacheNotCreatedYet() {
         when(cacheManager.getCache(anyString())).thenReturn(null);
 
-        Map<Object, Object> result = palindromeCheckerService.getCachedPalindromeResults();
+        CachedResultsPage result = palindromeCheckerService.getCachedPalindromeResults(null, 10, null, null);
 
-        assertTrue(result.isEmpty());
-        verify(cacheManager, times(2)).getCache(PALINDROME_RESULTS_CACHE);
+        assertTrue(result.getResults().isEmpty());
+        assertNull(result.getLastText());
+        verify(cacheManager, times(1)).getCache(PALINDROME_RESULTS_CACHE);
         verifyNoMoreInteractions(palindromeRepository, cacheManager, cache);
     }
 
@@ -142,13 +176,186 @@ class PalindromeCheckerServiceTest {
         when(cacheManager.getCache(anyString())).thenReturn(caffeineCache);
         when(cache.asMap()).thenReturn(cachedMap);
 
-        Map<Object, Object> result = palindromeCheckerService.getCachedPalindromeResults();
+        CachedResultsPage result = palindromeCheckerService.getCachedPalindromeResults(null, 10, null, null);
 
-        assertEquals(result.size(), 1);
-        assertEquals(result.get("test"), false);
+        assertEquals(Map.of("test", false), result.getResults());
+        assertNull(result.getLastText());
 
-        verify(cacheManager, times(2)).getCache(PALINDROME_RESULTS_CACHE);
+        verify(cacheManager, times(1)).getCache(PALINDROME_RESULTS_CACHE);
         verify(cache, times(1)).asMap();
         verifyNoMoreInteractions(palindromeRepository, cacheManager, cache);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCachedPalindromeResults_shouldPageInTextOrderWithoutRepeats() {
+        Cache<Object, Object> realCache = Caffeine.newBuilder().build();
+        List.of("level", "help", "kayak", "abba", "noon", "moon").forEach(text -> realCache.put(text, !text.endsWith("oon") && !text.equals("help")));
+        when(cacheManager.getCache(anyString())).thenReturn(new CaffeineCache(PALINDROME_RESULTS_CACHE, realCache));
+
+        CachedResultsPage first = palindromeCheckerService.getCachedPalindromeResults(null, 4, null, null);
+        realCache.put("aaa", true);
+        realCache.put("zzz", true);
+        CachedResultsPage second = palindromeCheckerService.getCachedPalindromeResults(first.getLastText(), 4, null, null);
+
+        assertEquals(List.of("abba", "help", "kayak", "level"), List.copyOf(first.getResults().keySet()));
+        assertEquals("level", first.getLastText());
+        // Results added before the cursor are not revisited and results added after it are included
+        assertEquals(List.of("moon", "noon", "zzz"), List.copyOf(second.getResults().keySet()));
+        assertNull(second.getLastText());
+    }
+
+    @Test
+    void getCachedPalindromeResults_shouldFilterByResultAndPrefix() {
+        Cache<Object, Object> realCache = Caffeine.newBuilder().build();
+        realCache.putAll(Map.of("kayak", true, "kayaks", false, "kelp", false, "level", true));
+        when(cacheManager.getCache(anyString())).thenReturn(new CaffeineCache(PALINDROME_RESULTS_CACHE, realCache));
+
+        assertEquals(Map.of("kayak", true, "level", true),
+                palindromeCheckerService.getCachedPalindromeResults(null, 10, true, null).getResults());
+        assertEquals(Map.of("kayaks", false),
+                palindromeCheckerService.getCachedPalindromeResults(null, 10, false, "KAY").getResults());
+    }
+
+    @Test
+    void isPalindromeBatch_shouldEvaluateAndPersistOnceWhenCacheNotCreatedYet() {
+        when(cacheManager.getCache(anyString())).thenReturn(null);
+
+        Map<String, Boolean> result = palindromeCheckerService.isPalindromeBatch(List.of("kayak", "help", "hannah", "kayak", "a"));
+
+        assertEquals(Map.of("kayak", true, "help", false, "hannah", true, "a", true), result);
+        verify(palindromeRepository, times(1)).saveAll(argThat(saved -> saved.size() == 4
+                && saved.contains(PalindromeCheck.builder().text("kayak").isPalindrome(true).build())
+                && saved.contains(PalindromeCheck.builder().text("help").isPalindrome(false).build())
+                && saved.contains(PalindromeCheck.builder().text("hannah").isPalindrome(true).build())
+                && saved.contains(PalindromeCheck.builder().text("a").isPalindrome(true).build())));
+        verify(cacheManager, times(1)).getCache(PALINDROME_RESULTS_CACHE);
+        verifyNoMoreInteractions(palindromeRepository, cacheManager, cache);
+    }
+
+    @Test
+    void isPalindromeBatch_shouldOnlyEvaluateAndPersistCacheMisses() {
+        Cache<Object, Object> realCache = Caffeine.newBuilder().recordStats().build();
+        realCache.put("kayak", true);
+        when(cacheManager.getCache(anyString())).thenReturn(new CaffeineCache(PALINDROME_RESULTS_CACHE, realCache));
+
+        Map<String, Boolean> result = palindromeCheckerService.isPalindromeBatch(List.of("kayak", "help", "hannah", "help"));
+
+        assertEquals(Map.of("kayak", true, "help", false, "hannah", true), result);
+        assertThat(realCache.asMap()).containsOnlyKeys("kayak", "help", "hannah");
+        assertEquals(1, realCache.stats().hitCount());
+        verify(palindromeRepository, times(1)).saveAll(argThat(saved -> saved.size() == 2
+                && saved.contains(PalindromeCheck.builder().text("help").isPalindrome(false).build())
+                && saved.contains(PalindromeCheck.builder().text("hannah").isPalindrome(true).build())));
+        verify(cacheManager, times(1)).getCache(PALINDROME_RESULTS_CACHE);
+        verifyNoMoreInteractions(palindromeRepository, cacheManager, cache);
+    }
+
+    @Test
+    void isPalindromeBatch_shouldShareOneCacheEntryBetweenCaseVariants() {
+        Cache<Object, Object> realCache = Caffeine.newBuilder().recordStats().build();
+        realCache.put("hannah", true);
+        when(cacheManager.getCache(anyString())).thenReturn(new CaffeineCache(PALINDROME_RESULTS_CACHE, realCache));
+
+        Map<String, Boolean> result = palindromeCheckerService.isPalindromeBatch(List.of("Kayak", "KAYAK", "kayak", "HANNAH", "Help"));
+
+        assertEquals(Map.of("Kayak", true, "KAYAK", true, "kayak", true, "HANNAH", true, "Help", false), result);
+        assertThat(realCache.asMap()).containsOnlyKeys("kayak", "hannah", "help");
+        verify(palindromeRepository, times(1)).saveAll(argThat(saved -> saved.size() == 2
+                && saved.contains(PalindromeCheck.builder().text("kayak").isPalindrome(true).build())
+                && saved.contains(PalindromeCheck.builder().text("help").isPalindrome(false).build())));
+        verify(cacheManager, times(1)).getCache(PALINDROME_RESULTS_CACHE);
+        verifyNoMoreInteractions(palindromeRepository, cacheManager, cache);
+    }
+
+    /**
+     * Many threads check the same texts at once, some singly through the cache as the sync cache proxy does and some in
+     * batches, and each text must still be saved exactly once.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void isPalindrome_shouldSaveOnceWhenConcurrentChecksMissSameText() throws Exception {
+        final int threads = 16;
+        final int rounds = 50;
+        final List<String> texts = IntStream.range(0, 64).mapToObj(i -> "level" + "x".repeat(i % 8) + i).collect(Collectors.toList());
+        final CoalescingCaffeineCache realCache = new CoalescingCaffeineCache(PALINDROME_RESULTS_CACHE, Caffeine.newBuilder().build(), true);
+        when(cacheManager.getCache(anyString())).thenReturn(realCache);
+        final CyclicBarrier barrier = new CyclicBarrier(threads);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> checks = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                final boolean batch = thread % 4 == 0;
+                checks.add(executor.submit(() -> {
+                    for (int round = 0; round < rounds; round++) {
+                        barrier.await();
+                        realCache.clear();
+                        barrier.await();
+                        if (batch) {
+                            palindromeCheckerService.isPalindromeBatch(texts);
+                        } else {
+                            for (final String text : texts) {
+                                realCache.get(text.toLowerCase(Locale.ROOT), () -> palindromeCheckerService.isPalindrome(text));
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (final Future<?> check : checks) {
+                check.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final ArgumentCaptor<PalindromeCheck> saved = ArgumentCaptor.forClass(PalindromeCheck.class);
+        final ArgumentCaptor<List<PalindromeCheck>> savedTogether = ArgumentCaptor.forClass(List.class);
+        verify(palindromeRepository, atLeast(0)).save(saved.capture());
+        verify(palindromeRepository, atLeast(0)).saveAll(savedTogether.capture());
+        final List<PalindromeCheck> allSaved = new ArrayList<>(saved.getAllValues());
+        savedTogether.getAllValues().forEach(allSaved::addAll);
+
+        // The cache is cleared before every round, so each text is loaded once per round
+        final Map<String, Long> savesPerText = allSaved.stream().collect(Collectors.groupingBy(PalindromeCheck::getText, Collectors.counting()));
+        assertEquals(texts.stream().collect(Collectors.toMap(Function.identity(), text -> (long) rounds)), savesPerText);
+        assertTrue(realCache.coalescedCount() > 0);
+    }
+
+    @Test
+    void isPalindrome_shouldTakeEvictedResultsFromResultIndexWithoutSavingAgain() {
+        final OffHeapResultIndex resultIndex = new OffHeapResultIndex(true, 16, 1024, meterRegistry);
+        palindromeCheckerService = new PalindromeCheckerService(cacheManager, resultIndex, SharedResultCache.disabled(), palindromeRepository,
+                new TwoPointerPalindromeEngine(), new LongestPalindromeFinder(), Runnable::run, 2, meterRegistry);
+
+        assertTrue(palindromeCheckerService.isPalindrome("Kayak"));
+        assertTrue(palindromeCheckerService.isPalindrome("KAYAK"));
+
+        assertEquals(Boolean.TRUE, resultIndex.get("kayak"));
+        verify(palindromeRepository, times(1)).save(PalindromeCheck.builder().text("kayak").isPalindrome(true).build());
+        verifyNoMoreInteractions(palindromeRepository);
+    }
+
+    @Test
+    void isPalindromeBatch_shouldOnlyEvaluateAndPersistResultsMissingFromResultIndex() {
+        final OffHeapResultIndex resultIndex = new OffHeapResultIndex(true, 16, 1024, meterRegistry);
+        resultIndex.put("kayak", true);
+        palindromeCheckerService = new PalindromeCheckerService(cacheManager, resultIndex, SharedResultCache.disabled(), palindromeRepository,
+                new TwoPointerPalindromeEngine(), new LongestPalindromeFinder(), Runnable::run, 2, meterRegistry);
+        when(cacheManager.getCache(anyString())).thenReturn(null);
+
+        Map<String, Boolean> result = palindromeCheckerService.isPalindromeBatch(List.of("kayak", "help"));
+
+        assertEquals(Map.of("kayak", true, "help", false), result);
+        assertEquals(Boolean.FALSE, resultIndex.get("help"));
+        verify(palindromeRepository, times(1)).saveAll(List.of(PalindromeCheck.builder().text("help").isPalindrome(false).build()));
+        verifyNoMoreInteractions(palindromeRepository);
+    }
+
+    @Test
+    void findLongestPalindrome_shouldReturnSubstringWithOffsets() {
+        PalindromeSubstring result = palindromeCheckerService.findLongestPalindrome("myRacecars");
+
+        assertEquals(PalindromeSubstring.builder().value("Racecar").start(2).end(9).build(), result);
+        verifyNoMoreInteractions(palindromeRepository, cacheManager, cache);
+    }
+}
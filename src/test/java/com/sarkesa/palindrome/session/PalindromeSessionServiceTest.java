@@ -0,0 +1,103 @@
+package com.sarkesa.palindrome.session;
+
+import com.sarkesa.palindrome.engine.TwoPointerPalindromeEngine;
+import com.sarkesa.palindrome.error.NotFoundException;
+import com.sarkesa.palindrome.error.PayloadTooLargeException;
+import com.sarkesa.palindrome.error.ServiceUnavailableException;
+import com.sarkesa.palindrome.model.PalindromeSessionState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PalindromeSessionServiceTest {
+    private final AtomicLong nanos = new AtomicLong();
+    private PalindromeSessionService palindromeSessionService;
+
+    @BeforeEach
+    void setUp() {
+        palindromeSessionService = new PalindromeSessionService(new TwoPointerPalindromeEngine(), 10, 60, 100, 250, nanos::get);
+    }
+
+    @Test
+    void open_shouldStartWithEmptyText() {
+        final PalindromeSessionState state = palindromeSessionService.open();
+
+        assertNotNull(state.getSessionId());
+        assertEquals(0, state.getLength());
+        assertTrue(state.getIsPalindrome());
+    }
+
+    @Test
+    void append_shouldAccumulateText() {
+        final UUID sessionId = palindromeSessionService.open().getSessionId();
+
+        palindromeSessionService.append(sessionId, "kay");
+        final PalindromeSessionState state = palindromeSessionService.append(sessionId, "ak");
+
+        assertEquals(5, state.getLength());
+        assertTrue(state.getIsPalindrome());
+        assertEquals(state, palindromeSessionService.get(sessionId));
+    }
+
+    @Test
+    void get_shouldExpireIdleSessions() {
+        final UUID sessionId = palindromeSessionService.open().getSessionId();
+
+        nanos.addAndGet(Duration.ofSeconds(59).toNanos());
+        palindromeSessionService.get(sessionId);
+        nanos.addAndGet(Duration.ofSeconds(59).toNanos());
+        palindromeSessionService.get(sessionId);
+        nanos.addAndGet(Duration.ofSeconds(61).toNanos());
+
+        assertThrows(NotFoundException.class, () -> palindromeSessionService.get(sessionId));
+    }
+
+    @Test
+    void close_shouldRemoveSession() {
+        final UUID sessionId = palindromeSessionService.open().getSessionId();
+
+        palindromeSessionService.close(sessionId);
+
+        assertThrows(NotFoundException.class, () -> palindromeSessionService.append(sessionId, "a"));
+        assertThrows(NotFoundException.class, () -> palindromeSessionService.close(sessionId));
+    }
+
+    @Test
+    void append_shouldRefuseTextBeyondTotalAcrossSessions() {
+        final UUID first = palindromeSessionService.open().getSessionId();
+        final UUID second = palindromeSessionService.open().getSessionId();
+        final UUID third = palindromeSessionService.open().getSessionId();
+        palindromeSessionService.append(first, "a".repeat(100));
+        palindromeSessionService.append(second, "a".repeat(100));
+
+        assertThrows(ServiceUnavailableException.class, () -> palindromeSessionService.append(third, "a".repeat(51)));
+        assertEquals(200, palindromeSessionService.totalChars());
+        assertEquals(50, palindromeSessionService.append(third, "a".repeat(50)).getLength());
+
+        palindromeSessionService.close(first);
+        assertEquals(150, palindromeSessionService.totalChars());
+        assertEquals(100, palindromeSessionService.append(third, "a".repeat(50)).getLength());
+    }
+
+    @Test
+    void append_shouldReleaseTextOfExpiredAndRejectedAppends() {
+        final UUID sessionId = palindromeSessionService.open().getSessionId();
+        palindromeSessionService.append(sessionId, "abc");
+        assertThrows(PayloadTooLargeException.class, () -> palindromeSessionService.append(sessionId, "a".repeat(98)));
+        assertEquals(3, palindromeSessionService.totalChars());
+
+        nanos.addAndGet(Duration.ofSeconds(61).toNanos());
+        assertThrows(NotFoundException.class, () -> palindromeSessionService.get(sessionId));
+        palindromeSessionService.open();
+
+        assertEquals(0, palindromeSessionService.totalChars());
+    }
+}
@@ -0,0 +1,113 @@
+package com.sarkesa.palindrome.session;
+
+import com.sarkesa.palindrome.engine.PalindromeEngine;
+import com.sarkesa.palindrome.engine.TwoPointerPalindromeEngine;
+import com.sarkesa.palindrome.error.NotFoundException;
+import com.sarkesa.palindrome.error.PayloadTooLargeException;
+import com.sarkesa.palindrome.model.PalindromeSessionState;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class PalindromeSessionTest {
+    private static final long BASE = 1_000_003L;
+
+    private final PalindromeEngine palindromeEngine = new TwoPointerPalindromeEngine();
+
+    @Test
+    void append_shouldReportPalindromeAfterEachChunk() {
+        final PalindromeSession session = new PalindromeSession(UUID.randomUUID(), palindromeEngine, 100, BASE);
+
+        assertTrue(session.state().getIsPalindrome());
+        assertTrue(session.append("r").getIsPalindrome());
+        assertFalse(session.append("a").getIsPalindrome());
+        assertFalse(session.append("ce").getIsPalindrome());
+        final PalindromeSessionState state = session.append("CaR");
+
+        assertTrue(state.getIsPalindrome());
+        assertEquals(7, state.getLength());
+    }
+
+    @Test
+    void append_shouldMatchEngineForRandomChunks() {
+        final Random random = new Random(5);
+        for (int run = 0; run < 50; run++) {
+            final PalindromeSession session = new PalindromeSession(UUID.randomUUID(), palindromeEngine, 1000, BASE + run);
+            final StringBuilder text = new StringBuilder();
+            for (int i = 0; i < 30; i++) {
+                final String chunk = random.nextBoolean() ? "aA".substring(random.nextInt(2)) : "bBa".substring(random.nextInt(3));
+                text.append(chunk);
+                assertEquals(palindromeEngine.isPalindrome(text), session.append(chunk).getIsPalindrome(), text.toString());
+            }
+        }
+    }
+
+    @Test
+    void append_shouldJoinSurrogatePairSplitAcrossChunks() {
+        final String smile = "😀";
+        final PalindromeSession session = new PalindromeSession(UUID.randomUUID(), palindromeEngine, 100, BASE);
+
+        session.append(smile + "x" + smile.charAt(0));
+        assertFalse(session.state().getIsPalindrome());
+        assertTrue(session.append(smile.substring(1)).getIsPalindrome());
+    }
+
+    @Test
+    void append_shouldRejectTextBeyondMaxLength() {
+        final PalindromeSession session = new PalindromeSession(UUID.randomUUID(), palindromeEngine, 4, BASE);
+        session.append("ab");
+
+        assertThrows(PayloadTooLargeException.class, () -> session.append("aba"));
+        assertEquals(2, session.state().getLength());
+        assertTrue(session.append("ba").getIsPalindrome());
+    }
+
+    @Test
+    void state_shouldOnlyVerifyWithEngineWhenHashesMatch() {
+        final PalindromeEngine engine = spy(new TwoPointerPalindromeEngine());
+        final PalindromeSession session = new PalindromeSession(UUID.randomUUID(), engine, 100, BASE);
+
+        session.append("ab");
+        session.append("c");
+        verify(engine, never()).isPalindrome(any());
+
+        session.append("ba");
+        session.state();
+        verify(engine, times(1)).isPalindrome(any());
+    }
+
+    @Test
+    void append_shouldAnswerFromHashesWithoutScanningText() {
+        final PalindromeEngine engine = spy(new TwoPointerPalindromeEngine());
+        final PalindromeSession session = new PalindromeSession(UUID.randomUUID(), engine, 10_000, BASE);
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(session.append("a").getIsPalindrome());
+        }
+        verify(engine, never()).isPalindrome(any());
+
+        assertTrue(session.state().getIsPalindrome());
+        assertTrue(session.append("").getIsPalindrome());
+        verify(engine, times(1)).isPalindrome(any());
+    }
+
+    @Test
+    void append_shouldRefuseTextOnceClosed() {
+        final PalindromeSession session = new PalindromeSession(UUID.randomUUID(), palindromeEngine, 100, BASE);
+        session.append("abc");
+
+        assertEquals(3, session.close());
+        assertThrows(NotFoundException.class, () -> session.append("a"));
+    }
+}